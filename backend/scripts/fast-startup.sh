@@ -0,0 +1,37 @@
+#!/usr/bin/env bash
+# Startup-optimized mode: Spring AOT plus an AppCDS class archive.
+#
+#   scripts/fast-startup.sh build [app args]   package with -Pfast-startup, then train the archive
+#   scripts/fast-startup.sh run [app args]     start the app in this mode
+#
+# The training run starts the application against the configured database, exits once the
+# context is refreshed and dumps the classes it loaded to target/echo-backend.jsa. Rebuild the
+# archive whenever the jar or the JDK changes; a stale archive is ignored by the JVM, not fatal.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAR=target/echo-backend-1.0.0.jar
+ARCHIVE=target/echo-backend.jsa
+command=${1:-run}
+shift || true
+
+case "$command" in
+  build)
+    mvn -B -q -Pfast-startup -DskipTests package
+    rm -f "$ARCHIVE"
+    java -XX:ArchiveClassesAtExit="$ARCHIVE" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+      -jar "$JAR" --snapshot.enabled=false "$@" > target/cds-training.log 2>&1 || true
+    if [ ! -f "$ARCHIVE" ]; then
+      echo "Training run did not produce $ARCHIVE; see target/cds-training.log" >&2
+      exit 1
+    fi
+    echo "Built $JAR and $ARCHIVE"
+    ;;
+  run)
+    exec java ${JAVA_OPTS:-} -XX:SharedArchiveFile="$ARCHIVE" -Dspring.aot.enabled=true -jar "$JAR" "$@"
+    ;;
+  *)
+    echo "Usage: $0 build|run [app args]" >&2
+    exit 2
+    ;;
+esac
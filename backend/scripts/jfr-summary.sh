@@ -0,0 +1,18 @@
+#!/usr/bin/env bash
+# Summarizes the ECHO events of a JFR recording into per-operation latency and allocation tables.
+#
+#   scripts/jfr-summary.sh echo.jfr
+#
+# Record with the bundled settings layered over a JDK profile, e.g.
+#   jcmd <pid> JFR.start settings=profile settings=src/main/resources/jfr/echo.jfc duration=5m filename=echo.jfr
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+if [ $# -ne 1 ]; then
+  echo "Usage: $0 <recording.jfr>" >&2
+  exit 2
+fi
+recording=$(cd "$OLDPWD" && realpath "$1")
+# The summarizer is a test source, kept out of the application jar
+[ -f target/test-classes/com/echo/backend/jfr/RecordingSummary.class ] || mvn -B -q test-compile
+exec java -cp target/test-classes:target/classes com.echo.backend.jfr.RecordingSummary "$recording"
@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Compares the default fat jar with the startup-optimized mode (scripts/fast-startup.sh build
+# first). For each mode it starts the application RUNS times and reports time to the first
+# successful GET /api/actuator/health and the process RSS right after it.
+#
+#   RUNS=5 PORT=8090 scripts/startup-benchmark.sh [app args]
+set -uo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${RUNS:-3}
+PORT=${PORT:-8090}
+URL="http://localhost:$PORT/api/actuator/health"
+
+start() {
+  case "$1" in
+    default) exec java ${JAVA_OPTS:-} -jar target/echo-backend-1.0.0-exec.jar --server.port="$PORT" "${@:2}" ;;
+    fast) exec java ${JAVA_OPTS:-} -XX:SharedArchiveFile=target/echo-backend.jsa -Dspring.aot.enabled=true \
+            -jar target/echo-backend-1.0.0.jar --server.port="$PORT" "${@:2}" ;;
+  esac
+}
+
+measure() {
+  local mode=$1; shift
+  local begin end pid rss
+  begin=$(date +%s%N)
+  start "$mode" "$@" > "target/startup-$mode.log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "$URL"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "$mode: application exited; see target/startup-$mode.log" >&2
+      return 1
+    fi
+    sleep 0.05
+  done
+  end=$(date +%s%N)
+  rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+  kill "$pid"
+  wait "$pid" 2>/dev/null
+  echo "$(( (end - begin) / 1000000 )) $(( rss / 1024 ))"
+}
+
+for mode in default fast; do
+  total_ms=0; total_rss=0
+  for run in $(seq 1 "$RUNS"); do
+    result=$(measure "$mode" "$@") || exit 1
+    read -r ms rss <<< "$result"
+    echo "$mode run $run: first request after ${ms} ms, RSS ${rss} MB"
+    total_ms=$((total_ms + ms)); total_rss=$((total_rss + rss))
+  done
+  printf '%-8s mean time-to-first-request %6d ms   mean RSS %5d MB\n' \
+    "$mode" $((total_ms / RUNS)) $((total_rss / RUNS))
+done
@@ -0,0 +1,16 @@
+#!/usr/bin/env bash
+# Compares primary key inserts with random (v4) and time-ordered (v7) uuids on scratch tables in
+# the configured database: throughput as the table grows, index size, WAL and leaf density.
+#
+#   ROWS=5000000 scripts/uuid-benchmark.sh [v4 v7 v4-then-v7]
+#
+# Uses DATABASE_URL, DB_USERNAME and DB_PASSWORD like the application, and installs pgstattuple
+# there if permitted. Needs a few GB of free disk
+# at the default five million rows; run it against a scratch database, not production.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+# The benchmark is a test source, kept out of the application jar
+mvn -B -q test-compile
+classpath=$(mvn -B -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)
+exec java -cp "target/test-classes:target/classes:$classpath" com.echo.backend.diagnostics.UuidKeyBenchmark "$@"
@@ -0,0 +1,37 @@
+package com.echo.backend.cache;
+
+import java.util.UUID;
+
+/**
+ * One change that may make cached copies stale, sent between nodes by {@link CacheInvalidationBus}.
+ * Events are values, so the same change published twice before a flush is sent once.
+ */
+public record CacheEvent(Type type, UUID id) {
+
+    public enum Type {
+        MEMORY_CREATED('C'),
+        MEMORY_UPDATED('U'),
+        MEMORY_DEACTIVATED('D'),
+        USER_UPDATED('S');
+
+        // One character on the wire, so a NOTIFY payload fits ~200 events
+        private final char code;
+
+        Type(char code) {
+            this.code = code;
+        }
+
+        public char getCode() {
+            return code;
+        }
+
+        public static Type fromCode(char code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown cache event code " + code);
+        }
+    }
+}
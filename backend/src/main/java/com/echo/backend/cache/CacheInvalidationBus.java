@@ -0,0 +1,413 @@
+package com.echo.backend.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps in-process caches ({@link CacheInvalidationListener} beans) coherent across backend
+ * instances through Postgres NOTIFY. A published event invalidates this node's caches once the
+ * surrounding transaction commits and is queued for the other nodes; a sender thread drains the
+ * queue every {@code cache-bus.flush-interval-ms}, deduplicated, as a few NOTIFY messages on
+ * {@code cache-bus.channel}. Each node LISTENs on its own connection outside the pool.
+ *
+ * Message payload: {@code <node> <sequence> [<code><uuid>,...]}. Sequences count each node's
+ * messages, and every node repeats its latest one in a heartbeat, so a receiver that sees a
+ * sequence jump knows it missed notifications and resyncs every cache, as it does after its
+ * listener connection reconnects. A payload of {@code *} asks every node to resync, for bulk
+ * changes whose ids are not known.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    // NOTIFY payloads must be shorter than 8000 bytes
+    private static final int MAX_PAYLOAD = 7800;
+    private static final String RESYNC = "*";
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private List<CacheInvalidationListener> listeners = List.of();
+
+    @Value("${cache-bus.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache-bus.channel:echo_cache}")
+    private String channel;
+
+    @Value("${cache-bus.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${cache-bus.heartbeat-interval-ms:30000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${cache-bus.poll-interval-ms:500}")
+    private int pollIntervalMs;
+
+    @Value("${cache-bus.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<CacheEvent> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean resyncPending = new AtomicBoolean();
+
+    // Sender thread only
+    private long sequence;
+    private long lastSentAt;
+
+    // Listener thread only: latest sequence and when each other node was last heard from
+    private final Map<String, Long> lastSequence = new HashMap<>();
+    private final Map<String, Long> lastHeard = new HashMap<>();
+
+    private volatile boolean running = true;
+    private volatile boolean connected;
+    private Thread sender;
+    private Thread listener;
+    private Counter published;
+    private Counter notifications;
+    private Counter received;
+    private Counter resyncs;
+
+    @PostConstruct
+    public void init() {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalStateException("cache-bus.channel must be a lowercase identifier: " + channel);
+        }
+        published = Counter.builder("echo.cache.bus.events")
+                .description("Cache invalidation events published by this node").register(meterRegistry);
+        notifications = Counter.builder("echo.cache.bus.notifications")
+                .description("NOTIFY messages sent, including heartbeats").register(meterRegistry);
+        received = Counter.builder("echo.cache.bus.received")
+                .description("Invalidation messages received from other nodes").register(meterRegistry);
+        resyncs = Counter.builder("echo.cache.bus.resyncs")
+                .description("Full cache resyncs after missed notifications or bulk changes").register(meterRegistry);
+        meterRegistry.gauge("echo.cache.bus.pending", pending, Set::size);
+        meterRegistry.gauge("echo.cache.bus.connected", this, bus -> bus.connected ? 1 : 0);
+
+        if (enabled) {
+            sender = new Thread(this::sendLoop, "cache-bus-sender");
+            sender.setDaemon(true);
+            sender.start();
+            listener = new Thread(this::listenLoop, "cache-bus-listener");
+            listener.setDaemon(true);
+            listener.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (sender != null) {
+            sender.interrupt();
+            sender.join(TimeUnit.SECONDS.toMillis(5));
+            listener.join(pollIntervalMs * 2L);
+        }
+    }
+
+    public void publish(CacheEvent.Type type, UUID id) {
+        if (id != null) {
+            publish(type, List.of(id));
+        }
+    }
+
+    /** Invalidates the ids here and on every other node once the current transaction commits. */
+    public void publish(CacheEvent.Type type, Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<CacheEvent> events = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            events.add(new CacheEvent(type, id));
+        }
+        afterCommit(() -> {
+            deliver(events);
+            if (enabled) {
+                pending.addAll(events);
+            }
+            published.increment(events.size());
+        });
+    }
+
+    /** For changes too broad to list: every node's caches resync once the transaction commits. */
+    public void publishResync() {
+        afterCommit(() -> {
+            resyncAll("bulk change on this node");
+            if (enabled) {
+                resyncPending.set(true);
+            }
+        });
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void sendLoop() {
+        long backoffMs = flushIntervalMs;
+        while (running) {
+            try {
+                Thread.sleep(backoffMs);
+                flush();
+                backoffMs = flushIntervalMs;
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (Exception e) {
+                // Unsent events were requeued; other nodes catch up when this node's next message arrives
+                logger.warn("Failed to send cache invalidations, retrying in {} ms: {}", backoffMs, e.getMessage());
+                backoffMs = Math.min(backoffMs * 2, 10_000);
+            }
+        }
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.warn("Dropped {} cache invalidations at shutdown: {}", pending.size(), e.getMessage());
+        }
+    }
+
+    private void flush() {
+        List<CacheEvent> batch = new ArrayList<>();
+        for (Iterator<CacheEvent> it = pending.iterator(); it.hasNext(); ) {
+            batch.add(it.next());
+            it.remove();
+        }
+        boolean resync = resyncPending.getAndSet(false);
+        if (batch.isEmpty() && !resync) {
+            if (System.currentTimeMillis() - lastSentAt >= heartbeatIntervalMs) {
+                send(null);
+            }
+            return;
+        }
+
+        int sent = 0;
+        try {
+            if (resync) {
+                send(RESYNC);
+                resync = false;
+            }
+            StringBuilder payload = new StringBuilder(MAX_PAYLOAD);
+            int inPayload = 0;
+            for (CacheEvent event : batch) {
+                if (payload.length() + 38 > MAX_PAYLOAD) {
+                    send(payload.toString());
+                    sent += inPayload;
+                    payload.setLength(0);
+                    inPayload = 0;
+                }
+                if (payload.length() > 0) {
+                    payload.append(',');
+                }
+                payload.append(event.type().getCode()).append(event.id());
+                inPayload++;
+            }
+            if (inPayload > 0) {
+                send(payload.toString());
+                sent += inPayload;
+            }
+        } catch (RuntimeException e) {
+            pending.addAll(batch.subList(sent, batch.size()));
+            if (resync) {
+                resyncPending.set(true);
+            }
+            throw e;
+        }
+    }
+
+    // body null sends a heartbeat carrying the latest sequence. A message's sequence is used up
+    // even when sending fails, so a message that may or may not have gone out reads as a gap.
+    private void send(String body) {
+        if (body != null) {
+            sequence++;
+        }
+        jdbcTemplate.query(NOTIFY_SQL, rs -> null, channel,
+                nodeId + " " + sequence + (body == null ? "" : " " + body));
+        lastSentAt = System.currentTimeMillis();
+        notifications.increment();
+    }
+
+    private void listenLoop() {
+        boolean everConnected = false;
+        while (running) {
+            try (Connection connection = openListenerConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                lastSequence.clear();
+                lastHeard.clear();
+                connected = true;
+                if (everConnected) {
+                    // Whatever was sent while this node was not listening is gone
+                    resyncAll("listener reconnected");
+                }
+                everConnected = true;
+                logger.info("Listening for cache invalidations on channel {} as node {}", channel, nodeId);
+
+                long lastCheck = System.currentTimeMillis();
+                while (running) {
+                    PGNotification[] batch = pgConnection.getNotifications(pollIntervalMs);
+                    if (batch != null) {
+                        for (PGNotification notification : batch) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                    long now = System.currentTimeMillis();
+                    if (now - lastCheck >= heartbeatIntervalMs) {
+                        if (!connection.isValid(5)) {
+                            throw new SQLException("listener connection is no longer valid");
+                        }
+                        lastHeard.entrySet().removeIf(entry -> now - entry.getValue() > heartbeatIntervalMs * 10);
+                        lastSequence.keySet().retainAll(lastHeard.keySet());
+                        lastCheck = now;
+                    }
+                }
+            } catch (Exception e) {
+                connected = false;
+                if (!running) {
+                    break;
+                }
+                logger.warn("Cache invalidation listener disconnected, reconnecting in {} ms: {}",
+                        reconnectDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        connected = false;
+    }
+
+    private Connection openListenerConnection() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", dataSourceProperties.determineUsername());
+        properties.setProperty("password", dataSourceProperties.determinePassword());
+        properties.setProperty("ApplicationName", "echo-cache-listener");
+        properties.setProperty("tcpKeepAlive", "true");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    private void handle(String payload) {
+        String[] parts = payload.split(" ", 3);
+        if (parts.length < 2 || parts[0].equals(nodeId)) {
+            return;
+        }
+        String origin = parts[0];
+        long seq;
+        try {
+            seq = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring malformed cache invalidation: {}", payload);
+            return;
+        }
+        boolean heartbeat = parts.length == 2;
+        lastHeard.put(origin, System.currentTimeMillis());
+        Long last = lastSequence.get(origin);
+        if (last != null && seq <= last) {
+            return; // a repeat, or a heartbeat with nothing new
+        }
+        lastSequence.put(origin, seq);
+        if (!heartbeat) {
+            received.increment();
+        }
+        if (last != null && seq > last + (heartbeat ? 0 : 1)) {
+            resyncAll("missed notifications from node " + origin);
+            return;
+        }
+        if (heartbeat) {
+            return;
+        }
+        if (RESYNC.equals(parts[2])) {
+            resyncAll("bulk change on node " + origin);
+            return;
+        }
+
+        List<CacheEvent> events = new ArrayList<>();
+        for (String entry : parts[2].split(",")) {
+            try {
+                events.add(new CacheEvent(CacheEvent.Type.fromCode(entry.charAt(0)), UUID.fromString(entry.substring(1))));
+            } catch (RuntimeException e) {
+                logger.warn("Ignoring malformed cache invalidation entry {}", entry);
+            }
+        }
+        deliver(events);
+    }
+
+    private void deliver(List<CacheEvent> events) {
+        for (CacheInvalidationListener cache : listeners) {
+            try {
+                cache.invalidate(events);
+            } catch (Exception e) {
+                logger.error("{} failed to apply cache invalidations", cache.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private void resyncAll(String reason) {
+        logger.info("Resyncing {} caches: {}", listeners.size(), reason);
+        resyncs.increment();
+        for (CacheInvalidationListener cache : listeners) {
+            try {
+                cache.resync();
+            } catch (Exception e) {
+                logger.error("{} failed to resync", cache.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
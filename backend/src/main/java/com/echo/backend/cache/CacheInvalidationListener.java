@@ -0,0 +1,17 @@
+package com.echo.backend.cache;
+
+import java.util.Collection;
+
+/**
+ * An in-process cache kept coherent across nodes by {@link CacheInvalidationBus}. Callbacks run
+ * on the publishing thread for changes made on this node and on the bus's listener thread for
+ * changes from other nodes, so they must be quick; heavy rebuilds belong on another thread.
+ */
+public interface CacheInvalidationListener {
+
+    /** Drops whatever the events make stale. Events of types the cache does not hold are ignored. */
+    void invalidate(Collection<CacheEvent> events);
+
+    /** Notifications may have been missed: treat everything cached as stale. */
+    void resync();
+}
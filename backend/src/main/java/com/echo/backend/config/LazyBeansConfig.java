@@ -0,0 +1,46 @@
+package com.echo.backend.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Creates beans from the packages in {@code startup.lazy-bean-packages} (springdoc by default)
+ * on first use instead of during startup. Their controllers still map at startup; the beans
+ * behind them are instantiated by the first request. Startup-critical beans stay eager, unlike
+ * with {@code spring.main.lazy-initialization}.
+ */
+@Configuration
+public class LazyBeansConfig {
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyBeans(Environment environment) {
+        List<String> packages = Binder.get(environment)
+                .bind("startup.lazy-bean-packages", Bindable.listOf(String.class))
+                .orElse(List.of("org.springdoc"));
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String className = declaringClassName(definition);
+                if (className != null && packages.stream().anyMatch(prefix -> className.startsWith(prefix + "."))) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    // The bean's class, or for @Bean methods the configuration class declaring them
+    private static String declaringClassName(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated && annotated.getFactoryMethodMetadata() != null) {
+            return annotated.getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        return definition.getBeanClassName();
+    }
+}
@@ -1,14 +1,19 @@
 package com.echo.backend.controller;
 
+import com.echo.backend.dto.AccountDeletionStatus;
 import com.echo.backend.dto.AuthRequest;
 import com.echo.backend.dto.AuthResponse;
+import com.echo.backend.exception.BackpressureException;
 import com.echo.backend.model.User;
 import com.echo.backend.security.JwtTokenProvider;
+import com.echo.backend.service.AccountDeletionService;
 import com.echo.backend.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -16,6 +21,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -32,17 +38,21 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
     @PostMapping("/signup")
     @Operation(summary = "Register a new user", description = "Creates a new user account")
     public ResponseEntity<?> signup(@Valid @RequestBody AuthRequest authRequest) {
         try {
-            // Check if user already exists
-            if (userService.existsByEmail(authRequest.getEmail())) {
+            // Check if user already exists (email and username in one lookup)
+            List<User> conflicts = userService.findConflicting(authRequest.getEmail(), authRequest.getUsername());
+            if (conflicts.stream().anyMatch(u -> u.getEmail().equals(authRequest.getEmail()))) {
                 return ResponseEntity.badRequest()
                         .body(AuthResponse.failure("User with this email already exists"));
             }
 
-            if (userService.existsByUsername(authRequest.getUsername())) {
+            if (!conflicts.isEmpty()) {
                 return ResponseEntity.badRequest()
                         .body(AuthResponse.failure("Username already taken"));
             }
@@ -73,6 +83,8 @@ public class AuthController {
 
             return ResponseEntity.ok(AuthResponse.success(token, userDto));
 
+        } catch (BackpressureException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(AuthResponse.failure("Failed to create user: " + e.getMessage()));
@@ -83,17 +95,11 @@ public class AuthController {
     @Operation(summary = "Login user", description = "Authenticates user and returns JWT token")
     public ResponseEntity<?> login(@Valid @RequestBody AuthRequest authRequest) {
         try {
-            // Validate user credentials
-            if (!userService.validateUser(authRequest.getEmail(), authRequest.getPassword())) {
-                return ResponseEntity.badRequest()
-                        .body(AuthResponse.failure("Invalid email or password"));
-            }
-
-            // Get user details
-            User user = userService.getUserByEmail(authRequest.getEmail());
+            // Validate user credentials (single user fetch)
+            User user = userService.authenticate(authRequest.getEmail(), authRequest.getPassword()).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest()
-                        .body(AuthResponse.failure("User not found"));
+                        .body(AuthResponse.failure("Invalid email or password"));
             }
 
             // Generate JWT token
@@ -111,6 +117,8 @@ public class AuthController {
 
             return ResponseEntity.ok(AuthResponse.success(token, userDto));
 
+        } catch (BackpressureException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(AuthResponse.failure("Login failed: " + e.getMessage()));
@@ -129,7 +137,7 @@ public class AuthController {
                     UUID userId = tokenProvider.getUserIdFromToken(jwt);
                     
                     User user = userService.findById(userId).orElse(null);
-                    if (user != null) {
+                    if (user != null && user.getDeletionRequestedAt() == null) {
                         AuthResponse.UserDto userDto = new AuthResponse.UserDto(
                                 user.getId(),
                                 user.getUsername(),
@@ -152,6 +160,56 @@ public class AuthController {
         }
     }
 
+    @DeleteMapping("/me")
+    @Operation(summary = "Delete account", description = "Disables the current account and deletes it and all its data in the background")
+    public ResponseEntity<?> deleteAccount(@RequestHeader("Authorization") String token) {
+        try {
+            if (token != null && token.startsWith("Bearer ")) {
+                String jwt = token.substring(7);
+
+                if (tokenProvider.validateToken(jwt)) {
+                    UUID userId = tokenProvider.getUserIdFromToken(jwt);
+
+                    User user = userService.findById(userId).orElse(null);
+                    if (user != null) {
+                        AccountDeletionStatus status = accountDeletionService.requestDeletion(user.getId());
+                        return ResponseEntity.accepted().body(status);
+                    }
+                }
+            }
+
+            return ResponseEntity.badRequest()
+                    .body(AuthResponse.failure("Invalid or expired token"));
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(AuthResponse.failure("Failed to delete account: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/deletions/{id}")
+    @Operation(summary = "Get account deletion progress", description = "Returns the phase and number of rows deleted so far for the caller's account deletion")
+    public ResponseEntity<?> getDeletionStatus(@PathVariable UUID id,
+                                               @RequestHeader(value = "Authorization", required = false) String token) {
+        try {
+            // Checked here rather than by the filter chain, which no longer accepts a disabled account
+            if (token == null || !token.startsWith("Bearer ") || !tokenProvider.validateToken(token.substring(7))) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(AuthResponse.failure("Invalid or expired token"));
+            }
+            UUID userId = tokenProvider.getUserIdFromToken(token.substring(7));
+
+            // Another user's deletion is reported as missing, so ids cannot be probed
+            return accountDeletionService.findStatus(id, userId)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(AuthResponse.failure("Failed to get deletion status: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/logout")
     @Operation(summary = "Logout user", description = "Logs out the current user")
     public ResponseEntity<?> logout() {
@@ -160,4 +218,10 @@ public class AuthController {
         AuthResponse response = new AuthResponse(true, "Logged out successfully");
         return ResponseEntity.ok(response);
     }
+
+    private ResponseEntity<?> busy(BackpressureException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(AuthResponse.failure(e.getMessage()));
+    }
 }
@@ -1,15 +1,27 @@
 package com.echo.backend.controller;
 
-import com.echo.backend.service.MemoryService;
+import com.echo.backend.exception.BackpressureException;
+import com.echo.backend.model.User;
+import com.echo.backend.security.JwtTokenProvider;
+import com.echo.backend.service.CoalescedReads;
+import com.echo.backend.service.EmotionClassifier;
+import com.echo.backend.service.EmotionProfileService;
+import com.echo.backend.service.EmotionReclassificationService;
+import com.echo.backend.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/emotions")
@@ -17,23 +29,112 @@ import java.util.Map;
 public class EmotionController {
 
     @Autowired
-    private MemoryService memoryService;
+    private CoalescedReads coalescedReads;
+
+    @Autowired
+    private EmotionClassifier emotionClassifier;
+
+    @Autowired
+    private EmotionReclassificationService emotionReclassificationService;
+
+    @Autowired
+    private EmotionProfileService emotionProfileService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Value("${moderation.moderators:}")
+    private Set<String> moderators;
 
     @GetMapping("/map")
     @Operation(summary = "Get emotion map data", description = "Retrieves global emotion data for map visualization")
     public ResponseEntity<?> getEmotionMapData() {
         try {
-            List<Object[]> emotionCounts = memoryService.countMemoriesByEmotion();
-            List<?> memoriesForMap = memoryService.findMemoriesForEmotionMap();
+            return ResponseEntity.ok(Map.of("data", coalescedReads.emotionMap()));
+
+        } catch (BackpressureException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Failed to get emotion map data: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/profile")
+    @Operation(summary = "Get emotion profile", description = "Running emotion statistics for the current user: counts, recency-weighted shares, mean confidence and location centroid per emotion")
+    public ResponseEntity<?> getEmotionProfile(@RequestHeader("Authorization") String token) {
+        try {
+            if (token == null || !token.startsWith("Bearer ")) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid token"));
+            }
+            UUID userId = tokenProvider.getUserIdFromToken(token.substring(7));
+            return ResponseEntity.ok(Map.of("data", emotionProfileService.currentProfile(userId)));
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Failed to get emotion profile: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/classify")
+    @Operation(summary = "Classify text", description = "Scores text against the emotion lexicon and returns the detected emotion, its confidence and per-emotion shares")
+    public ResponseEntity<?> classify(@RequestBody Map<String, String> request) {
+        try {
+            EmotionClassifier.Result result = emotionClassifier.classify(request.get("text"));
 
             Map<String, Object> response = new HashMap<>();
-            response.put("emotionCounts", emotionCounts);
-            response.put("memories", memoriesForMap);
+            response.put("emotion", result.getEmotion());
+            response.put("confidence", result.getConfidence());
+            response.put("scores", result.getScores());
 
             return ResponseEntity.ok(Map.of("data", response));
 
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Failed to get emotion map data: " + e.getMessage()));
+            return ResponseEntity.badRequest().body(Map.of("error", "Failed to classify text: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/reclassify")
+    @Operation(summary = "Reclassify memories", description = "Moderators only. Starts a background run of the emotion classifier over all memories; overwrite replaces client-supplied emotions too")
+    public ResponseEntity<?> reclassify(@RequestParam(defaultValue = "false") boolean overwrite,
+                                        @RequestHeader("Authorization") String token) {
+        try {
+            if (!isModerator(token)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Only moderators can reclassify memories"));
+            }
+            if (!emotionReclassificationService.start(overwrite)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "A reclassification is already running"));
+            }
+            return ResponseEntity.accepted().body(Map.of("data", emotionReclassificationService.status()));
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Failed to start reclassification: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/reclassify")
+    @Operation(summary = "Get reclassification progress", description = "Moderators only. Progress of the current or last reclassification run")
+    public ResponseEntity<?> getReclassifyStatus(@RequestHeader("Authorization") String token) {
+        try {
+            if (!isModerator(token)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Only moderators can view reclassification progress"));
+            }
+            return ResponseEntity.ok(Map.of("data", emotionReclassificationService.status()));
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Failed to get reclassification progress: " + e.getMessage()));
+        }
+    }
+
+    private boolean isModerator(String token) {
+        if (token == null || !token.startsWith("Bearer ")) {
+            return false;
         }
+        UUID userId = tokenProvider.getUserIdFromToken(token.substring(7));
+        User user = userService.findById(userId).orElse(null);
+        return user != null && moderators.contains(user.getUsername());
     }
 }
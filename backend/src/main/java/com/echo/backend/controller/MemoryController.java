@@ -1,23 +1,43 @@
 package com.echo.backend.controller;
 
+import com.echo.backend.discovery.DiscoveryFeed;
+import com.echo.backend.dto.BulkMemoryUpdateRequest;
 import com.echo.backend.dto.MemoryRequest;
+import com.echo.backend.dto.MemoryResponse;
+import com.echo.backend.dto.MemoryUnlockResponse;
+import com.echo.backend.exception.BackpressureException;
+import com.echo.backend.exception.DuplicateUnlockException;
+import com.echo.backend.exception.MemoryUnavailableException;
 import com.echo.backend.model.Memory;
 import com.echo.backend.model.MemoryUnlock;
 import com.echo.backend.model.User;
+import com.echo.backend.realtime.NearbyMemoryBroadcaster;
 import com.echo.backend.security.JwtTokenProvider;
+import com.echo.backend.service.CoalescedReads;
+import com.echo.backend.service.ExportService;
 import com.echo.backend.service.MemoryService;
 import com.echo.backend.service.MemoryUnlockService;
 import com.echo.backend.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -37,6 +57,25 @@ public class MemoryController {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private NearbyMemoryBroadcaster nearbyMemoryBroadcaster;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private CoalescedReads coalescedReads;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DiscoveryFeed discoveryFeed;
+
+    // Usernames allowed to run bulk changes across all users' memories
+    @Value("${moderation.moderators:}")
+    private Set<String> moderators;
+
     @PostMapping
     @Operation(summary = "Create a new memory", description = "Creates a new voice memory with location and emotion")
     public ResponseEntity<?> createMemory(@Valid @RequestBody MemoryRequest memoryRequest,
@@ -66,7 +105,7 @@ public class MemoryController {
             memory.setIsActive(memoryRequest.getIsActive());
 
             Memory savedMemory = memoryService.createMemory(memory);
-            return ResponseEntity.ok(Map.of("memory", savedMemory));
+            return ResponseEntity.ok(Map.of("memory", MemoryResponse.from(savedMemory)));
 
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Failed to create memory: " + e.getMessage()));
@@ -83,13 +122,61 @@ public class MemoryController {
             UUID userId = getUserIdFromToken(token);
             
             List<Memory> memories = memoryService.findNearbyMemories(userId, lat, lng, radius);
-            return ResponseEntity.ok(Map.of("data", memories));
+            return ResponseEntity.ok(Map.of("data", MemoryResponse.fromAll(memories)));
 
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Failed to get nearby memories: " + e.getMessage()));
         }
     }
 
+    @GetMapping("/discover")
+    @Operation(summary = "Discover memories", description = "Ranked page of public memories by distance, match with the viewer's emotion profile, recency and unlocks")
+    public ResponseEntity<?> discoverMemories(@RequestParam(required = false) Double lat,
+                                            @RequestParam(required = false) Double lng,
+                                            @RequestParam(required = false) String emotion,
+                                            @RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(defaultValue = "20") int size,
+                                            @RequestHeader("Authorization") String token) {
+        try {
+            UUID userId = getUserIdFromToken(token);
+            if (page < 0 || size < 1 || size > 100) {
+                return ResponseEntity.badRequest().body(Map.of("error", "page must be >= 0 and size between 1 and 100"));
+            }
+
+            DiscoveryFeed.RankedPage ranked = discoveryFeed.rank(userId, lat, lng, emotion, page, size);
+            List<Memory> memories = memoryService.findPublicByIdsInOrder(ranked.ids());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("data", MemoryResponse.fromAll(memories));
+            response.put("page", page);
+            response.put("size", size);
+            response.put("hasMore", ranked.hasMore());
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Failed to discover memories: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/nearby/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream nearby memories", description = "Server-Sent Events stream of new public memories created near the specified location")
+    public ResponseEntity<?> streamNearbyMemories(@RequestParam Double lat,
+                                                @RequestParam Double lng,
+                                                @RequestParam(defaultValue = "10.0") Double radius,
+                                                @RequestHeader("Authorization") String token) {
+        try {
+            UUID userId = getUserIdFromToken(token);
+
+            SseEmitter emitter = nearbyMemoryBroadcaster.subscribe(userId, lat, lng, radius);
+            return ResponseEntity.ok(emitter);
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "Failed to subscribe to nearby memories: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/user")
     @Operation(summary = "Get user memories", description = "Retrieves all memories created by the current user")
     public ResponseEntity<?> getUserMemories(@RequestHeader("Authorization") String token) {
@@ -102,18 +189,42 @@ public class MemoryController {
             }
 
             List<Memory> memories = memoryService.findByUser(user);
-            return ResponseEntity.ok(Map.of("memories", memories));
+            return ResponseEntity.ok(Map.of("memories", MemoryResponse.fromAll(memories)));
 
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Failed to get user memories: " + e.getMessage()));
         }
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export my data", description = "Streams the current user's memories, unlocks received and unlocks given as gzip'd JSON lines")
+    public ResponseEntity<StreamingResponseBody> exportMemories(@RequestHeader("Authorization") String token) {
+        try {
+            UUID userId = getUserIdFromToken(token);
+            User user = userService.findById(userId).orElse(null);
+
+            if (user == null) {
+                return streamedError(HttpStatus.BAD_REQUEST, "User not found");
+            }
+
+            Timestamp accountCreatedAt = Timestamp.valueOf(user.getCreatedAt());
+            StreamingResponseBody body = out -> exportService.writeExport(user.getId(), accountCreatedAt, out);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"echo-export-" + LocalDate.now() + ".jsonl.gz\"")
+                    .contentType(MediaType.parseMediaType("application/gzip"))
+                    .body(body);
+
+        } catch (Exception e) {
+            return streamedError(HttpStatus.BAD_REQUEST, "Failed to export memories: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get memory by ID", description = "Retrieves a specific memory by its ID")
     public ResponseEntity<?> getMemoryById(@PathVariable UUID id) {
         try {
-            Memory memory = memoryService.findById(id).orElse(null);
+            MemoryResponse memory = coalescedReads.memory(id).orElse(null);
             
             if (memory == null) {
                 return ResponseEntity.notFound().build();
@@ -121,11 +232,56 @@ public class MemoryController {
 
             return ResponseEntity.ok(Map.of("memory", memory));
 
+        } catch (BackpressureException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Failed to get memory: " + e.getMessage()));
         }
     }
 
+    @PatchMapping("/bulk/active")
+    @Operation(summary = "Bulk activate or deactivate memories", description = "Sets isActive on memories selected by ids, user, emotion or region in a single update. Non-moderators only affect their own memories")
+    public ResponseEntity<?> bulkSetActive(@Valid @RequestBody BulkMemoryUpdateRequest request,
+                                         @RequestHeader("Authorization") String token) {
+        try {
+            UUID userId = getUserIdFromToken(token);
+            User user = userService.findById(userId).orElse(null);
+
+            if (user == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
+            }
+            if (request.selectorCount() != 1) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Specify exactly one of ids, userId, emotion or a region"));
+            }
+
+            boolean moderator = moderators.contains(user.getUsername());
+            UUID ownerId = moderator ? null : user.getId();
+            boolean active = request.getActive();
+            int updated;
+
+            if (request.getIds() != null && !request.getIds().isEmpty()) {
+                updated = memoryService.setActive(request.getIds(), active, ownerId);
+            } else if (request.getUserId() != null) {
+                if (!moderator && !request.getUserId().equals(user.getId())) {
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Only moderators can change other users' memories"));
+                }
+                updated = memoryService.setActiveByUser(request.getUserId(), active);
+            } else if (request.getEmotion() != null && !request.getEmotion().isBlank()) {
+                updated = memoryService.setActiveByEmotion(request.getEmotion(), active, ownerId);
+            } else if (request.hasRegion()) {
+                updated = memoryService.setActiveInRegion(request.getLatitude(), request.getLongitude(),
+                        request.getRadius(), active, ownerId);
+            } else {
+                return ResponseEntity.badRequest().body(Map.of("error", "A region needs latitude, longitude and a positive radius"));
+            }
+
+            return ResponseEntity.ok(Map.of("updated", updated));
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Failed to update memories: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/{id}/unlock")
     @Operation(summary = "Unlock memory", description = "Unlocks a memory and creates an echo response")
     public ResponseEntity<?> unlockMemory(@PathVariable UUID id,
@@ -143,34 +299,66 @@ public class MemoryController {
             if (memory == null) {
                 return ResponseEntity.notFound().build();
             }
+            if (!Boolean.TRUE.equals(memory.getIsActive())) {
+                return gone();
+            }
+
+            if (memoryUnlockService.hasUnlocked(memory.getId(), user.getId())) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Memory already unlocked"));
+            }
 
             String echoContent = unlockRequest.get("echoContent");
             String echoAudioUrl = unlockRequest.get("echoAudioUrl");
 
+            // Also counts the unlock, and refuses a memory that is archived rather than active
             MemoryUnlock unlock = memoryUnlockService.createUnlock(memory, user, echoContent, echoAudioUrl);
-            
-            // Increment unlock count
-            memoryService.incrementUnlockCount(id);
 
-            return ResponseEntity.ok(Map.of("unlock", unlock));
+            return ResponseEntity.ok(Map.of("unlock", MemoryUnlockResponse.from(unlock)));
 
+        } catch (DuplicateUnlockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Memory already unlocked"));
+        } catch (MemoryUnavailableException e) {
+            return gone();
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Failed to unlock memory: " + e.getMessage()));
         }
     }
 
+    private ResponseEntity<?> gone() {
+        return ResponseEntity.status(HttpStatus.GONE).body(Map.of("error", "Memory is no longer available"));
+    }
+
     @GetMapping("/{id}/unlocks")
     @Operation(summary = "Get memory unlocks", description = "Retrieves all unlocks for a specific memory")
     public ResponseEntity<?> getMemoryUnlocks(@PathVariable UUID id) {
         try {
-            List<MemoryUnlock> unlocks = memoryUnlockService.findByMemoryId(id);
+            List<MemoryUnlockResponse> unlocks = coalescedReads.unlocks(id).orElse(null);
+            if (unlocks == null) {
+                return ResponseEntity.notFound().build();
+            }
+
             return ResponseEntity.ok(Map.of("unlocks", unlocks));
 
+        } catch (BackpressureException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Failed to get memory unlocks: " + e.getMessage()));
         }
     }
 
+    private ResponseEntity<?> busy(BackpressureException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    // Streaming endpoints must return a StreamingResponseBody even for errors
+    private ResponseEntity<StreamingResponseBody> streamedError(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, Map.of("error", message)));
+    }
+
     private UUID getUserIdFromToken(String token) {
         if (token != null && token.startsWith("Bearer ")) {
             String jwt = token.substring(7);
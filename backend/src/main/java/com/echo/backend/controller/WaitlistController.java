@@ -1,11 +1,14 @@
 package com.echo.backend.controller;
 
+import com.echo.backend.exception.BackpressureException;
 import com.echo.backend.model.WaitlistUser;
 import com.echo.backend.service.WaitlistService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -33,6 +36,10 @@ public class WaitlistController {
             WaitlistUser waitlistUser = waitlistService.addToWaitlist(email, source);
             return ResponseEntity.ok(Map.of("success", true, "message", "Successfully joined waitlist"));
 
+        } catch (BackpressureException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Failed to join waitlist: " + e.getMessage()));
         }
@@ -0,0 +1,37 @@
+package com.echo.backend.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes read-only transactions to a healthy replica and everything else to the primary.
+ *
+ * Must sit behind a {@code LazyConnectionDataSourceProxy}: the transaction manager marks a
+ * transaction read-only only after it has begun, so the physical connection has to be
+ * fetched lazily on the first statement for the flag to be visible here.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWrites) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWrites.recordWriteForCurrentActor();
+            return PRIMARY;
+        }
+        if (readYourWrites.currentActorRecentlyWrote()) {
+            return PRIMARY;
+        }
+        String replica = lagMonitor.nextHealthyReplica();
+        return replica != null ? replica : PRIMARY;
+    }
+}
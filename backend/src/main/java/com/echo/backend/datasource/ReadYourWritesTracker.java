@@ -0,0 +1,69 @@
+package com.echo.backend.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Remembers which actors (usernames) wrote recently so their reads can be pinned to the
+ * primary until replicas have had time to catch up.
+ *
+ * The actor for the current thread is bound by {@code JwtAuthenticationFilter} for the
+ * duration of a request; writes made while an actor is bound are recorded automatically
+ * by {@link ReadWriteRoutingDataSource}.
+ */
+public class ReadYourWritesTracker {
+
+    private static final ThreadLocal<String> CURRENT_ACTOR = new ThreadLocal<>();
+
+    private final long windowMs;
+    private final Map<String, Long> lastWriteAt = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    public void bindActor(String actor) {
+        CURRENT_ACTOR.set(actor);
+    }
+
+    public void clearActor() {
+        CURRENT_ACTOR.remove();
+    }
+
+    public String currentActor() {
+        return CURRENT_ACTOR.get();
+    }
+
+    public void recordWrite(String actor) {
+        if (actor != null && windowMs > 0) {
+            lastWriteAt.put(actor, System.currentTimeMillis());
+        }
+    }
+
+    public void recordWriteForCurrentActor() {
+        recordWrite(CURRENT_ACTOR.get());
+    }
+
+    /**
+     * True when the current actor wrote within the read-your-writes window.
+     */
+    public boolean currentActorRecentlyWrote() {
+        String actor = CURRENT_ACTOR.get();
+        if (actor == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteAt.get(actor);
+        return writtenAt != null && System.currentTimeMillis() - writtenAt < windowMs;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.read-your-writes-window-ms:5000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - windowMs;
+        lastWriteAt.values().removeIf(writtenAt -> writtenAt < cutoff);
+    }
+
+    public int trackedActorCount() {
+        return lastWriteAt.size();
+    }
+}
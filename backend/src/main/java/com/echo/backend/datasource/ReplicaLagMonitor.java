@@ -0,0 +1,113 @@
+package com.echo.backend.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Periodically measures replay lag on every replica and exposes the ones that are close
+ * enough to the primary to serve reads. A replica that cannot be reached, or whose lag
+ * exceeds the configured bound, is skipped until a later probe finds it healthy again.
+ * Until the first probe, which runs at startup, no replica is considered healthy.
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // Null when the standby's WAL receiver is not streaming: having replayed everything it received
+    // says nothing about freshness once it receives nothing. Otherwise zero when it has replayed
+    // everything it received (or is not a standby at all), else the age of the last replayed transaction.
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final List<String> replicaKeys;
+    private final List<DataSource> replicas;
+    private final double maxLagSeconds;
+
+    private volatile List<String> healthyKeys = List.of();
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    public ReplicaLagMonitor(List<String> replicaKeys, List<DataSource> replicas, double maxLagSeconds) {
+        this.replicaKeys = List.copyOf(replicaKeys);
+        this.replicas = List.copyOf(replicas);
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    // Reads go to the primary until a replica has been checked, so probe once before serving
+    @PostConstruct
+    public void init() {
+        probe();
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-ms:2000}")
+    public void probe() {
+        List<String> healthy = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = replicaKeys.get(i);
+            try (Connection connection = replicas.get(i).getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                double lagSeconds = Double.MAX_VALUE;
+                boolean streaming = true;
+                if (rs.next()) {
+                    lagSeconds = rs.getDouble(1);
+                    streaming = !rs.wasNull();
+                }
+                if (!streaming) {
+                    logger.warn("Replica {} is not streaming from the primary, routing its reads to the primary", key);
+                } else if (lagSeconds <= maxLagSeconds) {
+                    healthy.add(key);
+                } else {
+                    logger.warn("Replica {} is {}s behind, routing its reads to the primary", key, lagSeconds);
+                }
+            } catch (Exception e) {
+                logger.warn("Replica {} unreachable, routing its reads to the primary: {}", key, e.getMessage());
+            }
+        }
+        healthyKeys = Collections.unmodifiableList(healthy);
+    }
+
+    /**
+     * Picks a healthy replica round-robin, or returns null when none is usable.
+     */
+    public String nextHealthyReplica() {
+        List<String> snapshot = healthyKeys;
+        if (snapshot.isEmpty()) {
+            return null;
+        }
+        return snapshot.get(Math.floorMod(cursor.getAndIncrement(), snapshot.size()));
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyKeys;
+    }
+
+    public List<String> getReplicaKeys() {
+        return replicaKeys;
+    }
+
+    public List<DataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
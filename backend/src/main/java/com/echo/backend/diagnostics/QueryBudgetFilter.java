@@ -0,0 +1,81 @@
+package com.echo.backend.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Records the SQL statements each request issues, counted by {@link StatementCountingInspector}
+ * from before authentication until the response is written, in {@code echo.http.statements}.
+ * Requests over {@code query-budget.max-statements} are logged and counted in
+ * {@code echo.http.statements.over-budget}; they are never failed. N+1 regressions are caught by
+ * the statement-count tests instead.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    @Autowired
+    private StatementCountingInspector inspector;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${query-budget.enabled:true}")
+    private boolean enabled;
+
+    @Value("${query-budget.max-statements:10}")
+    private int maxStatements;
+
+    private DistributionSummary statements;
+    private Counter overBudget;
+
+    @PostConstruct
+    public void init() {
+        statements = DistributionSummary.builder("echo.http.statements")
+                .description("SQL statements issued per HTTP request")
+                .register(meterRegistry);
+        overBudget = Counter.builder("echo.http.statements.over-budget")
+                .description("HTTP requests that issued more SQL statements than query-budget.max-statements")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        inspector.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int count = inspector.end();
+            statements.record(count);
+            if (count > maxStatements) {
+                overBudget.increment();
+                logger.warn("{} {} issued {} SQL statements (budget {})",
+                        request.getMethod(), request.getRequestURI(), count, maxStatements);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.echo.backend.diagnostics;
+
+import java.util.Locale;
+
+/**
+ * Per-phase durations of the current request, collected on the request thread for requests that
+ * {@link RequestTimingFilter} sampled. Instrumented code brackets a phase with {@link #start()}
+ * and {@link #stop}; both are a thread-local read when the request is not sampled.
+ *
+ * Phases may overlap: db also counts statements issued while loading the user or serializing.
+ */
+public final class RequestTiming {
+
+    public enum Phase {
+        AUTH("auth"),      // JWT parsing and verification
+        USER("user"),      // user details lookup for the token
+        APP("app"),        // controller and service work, until the response body starts
+        DB("db"),          // JDBC statement execution through Hibernate
+        SERIALIZE("ser");  // Jackson writing the response body
+
+        private final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+
+        public String metric() {
+            return metric;
+        }
+    }
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt = System.nanoTime();
+    private final long[] nanos = new long[Phase.values().length];
+    private int statements;
+    private long appStartedAt;
+    private long firstByteAt;
+    private String user;
+
+    private RequestTiming() {}
+
+    static RequestTiming begin() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /** The timing of the request on this thread, or null when it is not being timed. */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /** A start mark for {@link #stop}, or 0 when the request on this thread is not being timed. */
+    public static long start() {
+        return CURRENT.get() != null ? System.nanoTime() : 0;
+    }
+
+    public static void stop(Phase phase, long start) {
+        if (start != 0) {
+            RequestTiming timing = CURRENT.get();
+            if (timing != null) {
+                timing.nanos[phase.ordinal()] += System.nanoTime() - start;
+            }
+        }
+    }
+
+    void statementExecuted(long nanos) {
+        this.nanos[Phase.DB.ordinal()] += nanos;
+        statements++;
+    }
+
+    void appStarted() {
+        appStartedAt = System.nanoTime();
+    }
+
+    void appFinished() {
+        if (appStartedAt != 0) {
+            nanos[Phase.APP.ordinal()] += System.nanoTime() - appStartedAt;
+            appStartedAt = 0;
+        }
+    }
+
+    /** Ends the app phase at the first byte of the body; later calls are ignored. */
+    void firstByte() {
+        if (firstByteAt == 0) {
+            firstByteAt = System.nanoTime();
+            appFinished();
+        }
+    }
+
+    public void setUser(String user) {
+        this.user = user;
+    }
+
+    String user() {
+        return user;
+    }
+
+    int statements() {
+        return statements;
+    }
+
+    double millis(Phase phase) {
+        return nanos[phase.ordinal()] / 1e6;
+    }
+
+    double firstByteMillis() {
+        return firstByteAt == 0 ? -1 : (firstByteAt - startedAt) / 1e6;
+    }
+
+    double elapsedMillis() {
+        return (System.nanoTime() - startedAt) / 1e6;
+    }
+
+    /** The Server-Timing header value for the phases so far; total is the time until now. */
+    String serverTiming() {
+        StringBuilder header = new StringBuilder(160);
+        for (Phase phase : Phase.values()) {
+            if (nanos[phase.ordinal()] > 0 || phase == Phase.DB) {
+                header.append(phase.metric()).append(";dur=").append(format(millis(phase)));
+                if (phase == Phase.DB) {
+                    header.append(";desc=\"").append(statements).append(" statements\"");
+                }
+                header.append(", ");
+            }
+        }
+        return header.append("total;dur=").append(format(elapsedMillis())).toString();
+    }
+
+    static String format(double millis) {
+        return String.format(Locale.ROOT, "%.2f", millis);
+    }
+}
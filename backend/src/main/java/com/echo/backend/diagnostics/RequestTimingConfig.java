@@ -0,0 +1,82 @@
+package com.echo.backend.diagnostics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * The instrumentation points of {@link RequestTiming} outside the security filters: JDBC
+ * execution in Hibernate, the handler (app) and Jackson serialization of response bodies.
+ */
+@Configuration
+public class RequestTimingConfig implements WebMvcConfigurer {
+
+    @Value("${request-timing.enabled:true}")
+    private boolean enabled;
+
+    @Bean
+    public HibernatePropertiesCustomizer timedSessionEvents() {
+        return properties -> {
+            if (enabled) {
+                properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, TimedSessionEvents.class.getName());
+            }
+        };
+    }
+
+    /** Replaces Boot's default JSON converter with one that times writes. */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                long start = RequestTiming.start();
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    RequestTiming.stop(RequestTiming.Phase.SERIALIZE, start);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                RequestTiming timing = RequestTiming.current();
+                if (timing != null) {
+                    timing.appStarted();
+                }
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                        Exception ex) {
+                RequestTiming timing = RequestTiming.current();
+                if (timing != null) {
+                    timing.appFinished();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,159 @@
+package com.echo.backend.diagnostics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Times a sample ({@code request-timing.sample-rate}) of requests phase by phase, see
+ * {@link RequestTiming}. The phases finished when the response body starts are sent in a
+ * {@code Server-Timing} header; the full breakdown, including serialization and the total, is
+ * logged as one JSON line to the {@code echo.access} logger when the request completes.
+ *
+ * Requests that are not sampled, and all requests when {@code request-timing.enabled=false}, pay
+ * only for a thread-local read at each instrumentation point.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("echo.access");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${request-timing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${request-timing.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${request-timing.server-timing-header:true}")
+    private boolean serverTimingHeader;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RequestTiming timing = RequestTiming.begin();
+        TimedResponse timed = new TimedResponse(response, timing);
+        try {
+            filterChain.doFilter(request, timed);
+        } finally {
+            RequestTiming.end();
+            timed.beforeBody(); // bodiless responses
+            log(request, response, timing);
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, RequestTiming timing) {
+        if (!accessLog.isInfoEnabled()) {
+            return;
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("method", request.getMethod());
+        entry.put("path", request.getRequestURI());
+        entry.put("status", response.getStatus());
+        entry.put("user", timing.user());
+        entry.put("total_ms", round(timing.elapsedMillis()));
+        entry.put("first_byte_ms", round(timing.firstByteMillis()));
+        for (RequestTiming.Phase phase : RequestTiming.Phase.values()) {
+            entry.put(phase.metric() + "_ms", round(timing.millis(phase)));
+        }
+        entry.put("statements", timing.statements());
+        try {
+            accessLog.info(objectMapper.writeValueAsString(entry));
+        } catch (IOException e) {
+            accessLog.info(entry.toString());
+        }
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 100) / 100.0;
+    }
+
+    /** Marks the first byte of the body, and adds the Server-Timing header while it still can. */
+    private final class TimedResponse extends HttpServletResponseWrapper {
+
+        private final RequestTiming timing;
+        private boolean started;
+
+        private TimedResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        void beforeBody() {
+            if (started) {
+                return;
+            }
+            started = true;
+            timing.firstByte();
+            if (serverTimingHeader && !isCommitted()) {
+                addHeader("Server-Timing", timing.serverTiming());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            beforeBody();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            beforeBody();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            beforeBody();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            beforeBody();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            beforeBody();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            beforeBody();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.echo.backend.diagnostics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #begin} and
+ * {@link #end}, for the per-request statement metrics. Statements issued through JdbcTemplate are
+ * not seen.
+ */
+@Component
+public class StatementCountingInspector implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    public void begin() {
+        CURRENT.set(new int[1]);
+    }
+
+    /** Stops counting on this thread and returns the number of statements since {@link #begin}. */
+    public int end() {
+        int[] count = CURRENT.get();
+        CURRENT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = CURRENT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+}
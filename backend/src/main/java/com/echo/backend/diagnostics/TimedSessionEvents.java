@@ -0,0 +1,46 @@
+package com.echo.backend.diagnostics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds the time Hibernate spends executing JDBC statements to the current {@link RequestTiming}.
+ * Hibernate creates one per session (hibernate.session.events.auto, set by
+ * {@link RequestTimingConfig}). Like {@link StatementCountingInspector}, it does not see
+ * statements issued through JdbcTemplate.
+ */
+public class TimedSessionEvents extends BaseSessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = RequestTiming.current() != null ? System.nanoTime() : 0;
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(statementStart);
+        statementStart = 0;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = RequestTiming.current() != null ? System.nanoTime() : 0;
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(batchStart);
+        batchStart = 0;
+    }
+
+    private static void record(long start) {
+        if (start != 0) {
+            RequestTiming timing = RequestTiming.current();
+            if (timing != null) {
+                timing.statementExecuted(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.echo.backend.discovery;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Immutable snapshot of discovery candidates, bucketed into regions of a uniform latitude/longitude
+ * grid. Each region holds its newest {@code perRegionLimit} memories, also split by emotion, so
+ * a feed request only visits the handful of regions around the viewer, or a single emotion's
+ * slice of them. A separate global pool serves viewers without a location.
+ *
+ * Built off the request path by {@link DiscoveryFeed#refresh()} and swapped in whole, so readers
+ * never lock.
+ */
+public class CandidatePool {
+
+    private static final DiscoveryCandidate[] NONE = new DiscoveryCandidate[0];
+
+    private final double regionSize;
+    private final int rows;
+    private final int columns;
+    private final Map<Long, Region> regions;
+    private final Region global;
+    private final int size;
+    private final long builtAt;
+
+    private static final class Region {
+        final DiscoveryCandidate[] all;
+        final Map<String, DiscoveryCandidate[]> byEmotion;
+
+        Region(List<DiscoveryCandidate> candidates) {
+            this.all = candidates.toArray(NONE);
+            Map<String, List<DiscoveryCandidate>> grouped = new LinkedHashMap<>();
+            for (DiscoveryCandidate candidate : candidates) {
+                grouped.computeIfAbsent(candidate.emotion(), key -> new ArrayList<>()).add(candidate);
+            }
+            this.byEmotion = new HashMap<>();
+            grouped.forEach((emotion, list) -> byEmotion.put(emotion, list.toArray(NONE)));
+        }
+
+        DiscoveryCandidate[] slice(String emotion) {
+            return emotion == null ? all : byEmotion.getOrDefault(emotion, NONE);
+        }
+    }
+
+    private CandidatePool(double regionSize, Map<Long, Region> regions, Region global, int size, long builtAt) {
+        this.regionSize = regionSize;
+        this.rows = (int) Math.ceil(180 / regionSize);
+        this.columns = (int) Math.ceil(360 / regionSize);
+        this.regions = regions;
+        this.global = global;
+        this.size = size;
+        this.builtAt = builtAt;
+    }
+
+    public static CandidatePool empty(double regionSize) {
+        return new CandidatePool(regionSize, Map.of(), new Region(List.of()), 0, 0);
+    }
+
+    /**
+     * candidates must be newest first; each region keeps the first perRegionLimit it is given.
+     * global is the location-independent pool, in any order.
+     */
+    public static CandidatePool build(List<DiscoveryCandidate> candidates, List<DiscoveryCandidate> global,
+                                      double regionSize, int perRegionLimit) {
+        CandidatePool layout = empty(regionSize);
+        Map<Long, List<DiscoveryCandidate>> grouped = new HashMap<>();
+        int size = 0;
+        for (DiscoveryCandidate candidate : candidates) {
+            List<DiscoveryCandidate> region = grouped.computeIfAbsent(
+                    layout.regionKey(candidate.latitude(), candidate.longitude()), key -> new ArrayList<>());
+            if (region.size() < perRegionLimit) {
+                region.add(candidate);
+                size++;
+            }
+        }
+        Map<Long, Region> regions = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((key, list) -> regions.put(key, new Region(list)));
+        return new CandidatePool(regionSize, regions, new Region(global), size, System.currentTimeMillis());
+    }
+
+    /**
+     * Visits every candidate (optionally of one emotion) in the regions overlapping the square of
+     * radiusDegrees around the point, wrapping across the antimeridian. Returns how many were visited.
+     */
+    public int forEachNear(double latitude, double longitude, double radiusDegrees, String emotion,
+                           Consumer<DiscoveryCandidate> action) {
+        int fromRow = Math.max(0, row(latitude - radiusDegrees));
+        int toRow = Math.min(rows - 1, row(latitude + radiusDegrees));
+        long fromColumn = (long) Math.floor((longitude - radiusDegrees + 180) / regionSize);
+        long toColumn = (long) Math.floor((longitude + radiusDegrees + 180) / regionSize);
+        if (toColumn - fromColumn + 1 >= columns) {
+            fromColumn = 0;
+            toColumn = columns - 1;
+        }
+        int visited = 0;
+        for (int row = fromRow; row <= toRow; row++) {
+            for (long column = fromColumn; column <= toColumn; column++) {
+                Region region = regions.get((long) row * columns + Math.floorMod(column, columns));
+                if (region != null) {
+                    visited += visit(region.slice(emotion), action);
+                }
+            }
+        }
+        return visited;
+    }
+
+    /** Visits the global pool (optionally one emotion's slice). Returns how many were visited. */
+    public int forEachGlobal(String emotion, Consumer<DiscoveryCandidate> action) {
+        return visit(global.slice(emotion), action);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int regionCount() {
+        return regions.size();
+    }
+
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    private static int visit(DiscoveryCandidate[] candidates, Consumer<DiscoveryCandidate> action) {
+        for (DiscoveryCandidate candidate : candidates) {
+            action.accept(candidate);
+        }
+        return candidates.length;
+    }
+
+    private long regionKey(double latitude, double longitude) {
+        int row = Math.max(0, Math.min(rows - 1, row(latitude)));
+        int column = Math.floorMod((long) Math.floor((longitude + 180) / regionSize), columns);
+        return (long) row * columns + column;
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor((latitude + 90) / regionSize);
+    }
+}
@@ -0,0 +1,11 @@
+package com.echo.backend.discovery;
+
+import java.util.UUID;
+
+/**
+ * The fields of a public memory the discovery feed scores on, kept in memory by
+ * {@link CandidatePool}. createdAt is epoch millis; emotion is interned.
+ */
+public record DiscoveryCandidate(UUID id, UUID userId, String emotion, double latitude, double longitude,
+                                 int unlockCount, long createdAt) {
+}
@@ -0,0 +1,344 @@
+package com.echo.backend.discovery;
+
+import com.echo.backend.cache.CacheEvent;
+import com.echo.backend.cache.CacheInvalidationListener;
+import com.echo.backend.jfr.NearbyQueryEvent;
+import com.echo.backend.service.EmotionProfileService;
+import com.echo.backend.util.DiscoveryWindow;
+import com.echo.backend.util.TopK;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Ranks public memories for the discover screen. Candidates come from an in-memory
+ * {@link CandidatePool} of recent public memories by region, rebuilt every
+ * {@code discovery.refresh-interval-ms}; a request visits the regions around the viewer (or
+ * the global pool), scores each candidate and keeps the best in a bounded {@link TopK} heap,
+ * so no database work happens while ranking.
+ *
+ * A candidate's score is a weighted sum of terms in [0, 1]: distance, 1 / (1 + km / distance-scale-km);
+ * emotion, the viewer's recent share of the candidate's emotion in their EmotionProfile;
+ * recency, halving every recency-half-life-days; and popularity, u / (u + popularity-half-unlocks).
+ *
+ * Memories updated or deactivated on any node (via {@link com.echo.backend.cache.CacheInvalidationBus})
+ * are hidden until a refresh that started after the change; new memories appear at the next refresh.
+ * After a warm start ({@link com.echo.backend.snapshot.WarmStartSnapshot}) the pool is restored
+ * from disk and the first refresh only reads what was created since.
+ */
+@Service
+public class DiscoveryFeed implements CacheInvalidationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiscoveryFeed.class);
+
+    private static final double KM_PER_DEGREE = 111.32;
+
+    // Served by the partial index idx_memories_public_created (V3)
+    private static final String CANDIDATES_SQL = "SELECT id, user_id, emotion, latitude, longitude, unlock_count, created_at"
+            + " FROM memories WHERE is_active AND access_type = 'PUBLIC' AND created_at >= ?"
+            + " ORDER BY created_at DESC LIMIT ?";
+
+    // Rows committed this long after a newer one was written may be missing from a snapshot
+    private static final long CATCH_UP_OVERLAP_MS = 10_000;
+
+    /** One ranked page: memory ids best first, and whether more ranked results follow. */
+    public record RankedPage(List<UUID> ids, boolean hasMore, int scanned) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmotionProfileService emotionProfileService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${memories.discovery-window-days:0}")
+    private long windowDays;
+
+    @Value("${discovery.max-candidates:200000}")
+    private int maxCandidates;
+
+    @Value("${discovery.region-size-degrees:2.0}")
+    private double regionSize;
+
+    @Value("${discovery.per-region-limit:2000}")
+    private int perRegionLimit;
+
+    @Value("${discovery.global-pool-size:5000}")
+    private int globalPoolSize;
+
+    @Value("${discovery.search-radius-degrees:3.0}")
+    private double searchRadiusDegrees;
+
+    @Value("${discovery.max-results:500}")
+    private int maxResults;
+
+    @Value("${discovery.distance-scale-km:50}")
+    private double distanceScaleKm;
+
+    @Value("${discovery.recency-half-life-days:7}")
+    private double recencyHalfLifeDays;
+
+    @Value("${discovery.popularity-half-unlocks:10}")
+    private double popularityHalfUnlocks;
+
+    @Value("${discovery.weights.distance:0.35}")
+    private double distanceWeight;
+
+    @Value("${discovery.weights.emotion:0.25}")
+    private double emotionWeight;
+
+    @Value("${discovery.weights.recency:0.25}")
+    private double recencyWeight;
+
+    @Value("${discovery.weights.popularity:0.15}")
+    private double popularityWeight;
+
+    private volatile CandidatePool pool;
+    private volatile List<DiscoveryCandidate> candidates = List.of();
+    // created_at of the newest restored candidate, until the catch-up refresh; guarded by this
+    private long restoredWatermark;
+    // Memory id -> when it was invalidated
+    private final Map<UUID, Long> hidden = new ConcurrentHashMap<>();
+    private Timer rankTimer;
+
+    @PostConstruct
+    public void init() {
+        pool = CandidatePool.empty(regionSize);
+        rankTimer = Timer.builder("echo.discovery.rank")
+                .description("Time to rank one discovery page, excluding loading the memories")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        meterRegistry.gauge("echo.discovery.candidates", this, feed -> feed.pool.size());
+    }
+
+    @Scheduled(fixedDelayString = "${discovery.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        try {
+            long started = System.currentTimeMillis();
+            long windowStart = Timestamp.valueOf(DiscoveryWindow.start(windowDays)).getTime();
+            List<DiscoveryCandidate> loaded;
+            if (restoredWatermark > 0) {
+                // First refresh after a warm start: read only what was created since the snapshot
+                long since = Math.max(windowStart, restoredWatermark - CATCH_UP_OVERLAP_MS);
+                loaded = merge(load(since), candidates, windowStart);
+                logger.info("Discovery pool caught up from snapshot: {} candidates", loaded.size());
+                restoredWatermark = 0;
+            } else {
+                loaded = load(windowStart);
+            }
+            install(loaded, started);
+        } catch (Exception e) {
+            logger.error("Discovery pool refresh failed; keeping the previous pool", e);
+        }
+    }
+
+    /** The candidates in the pool, newest first, without those hidden since it was built. */
+    public List<DiscoveryCandidate> candidates() {
+        List<DiscoveryCandidate> current = candidates;
+        if (hidden.isEmpty()) {
+            return current;
+        }
+        return current.stream().filter(candidate -> !hidden.containsKey(candidate.id())).toList();
+    }
+
+    /**
+     * Fills the pool from a snapshot taken at builtAt, unless a refresh got there first. The next
+     * refresh only reads memories created since then; the ones after that are full again.
+     */
+    public synchronized void restore(List<DiscoveryCandidate> saved, long builtAt) {
+        if (!candidates.isEmpty() || saved.isEmpty()) {
+            return;
+        }
+        install(saved, builtAt);
+        restoredWatermark = saved.get(0).createdAt();
+    }
+
+    private List<DiscoveryCandidate> load(long since) {
+        Map<String, String> emotions = new HashMap<>();
+        return jdbcTemplate.query(CANDIDATES_SQL, (rs, rowNum) ->
+                new DiscoveryCandidate(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("user_id", UUID.class),
+                        emotions.computeIfAbsent(rs.getString("emotion").toLowerCase(), key -> key),
+                        rs.getDouble("latitude"),
+                        rs.getDouble("longitude"),
+                        rs.getInt("unlock_count"),
+                        rs.getTimestamp("created_at").getTime()),
+                new Timestamp(since), maxCandidates);
+    }
+
+    // New rows first, then the carried ones they do not replace, newest first like CANDIDATES_SQL
+    private List<DiscoveryCandidate> merge(List<DiscoveryCandidate> fresh, List<DiscoveryCandidate> carried, long windowStart) {
+        Set<UUID> seen = new HashSet<>();
+        List<DiscoveryCandidate> merged = new ArrayList<>(Math.min(maxCandidates, fresh.size() + carried.size()));
+        for (DiscoveryCandidate candidate : fresh) {
+            if (seen.add(candidate.id())) {
+                merged.add(candidate);
+            }
+        }
+        for (DiscoveryCandidate candidate : carried) {
+            if (merged.size() >= maxCandidates) {
+                break;
+            }
+            if (candidate.createdAt() >= windowStart && seen.add(candidate.id())) {
+                merged.add(candidate);
+            }
+        }
+        merged.sort(Comparator.comparingLong(DiscoveryCandidate::createdAt).reversed());
+        return merged;
+    }
+
+    private void install(List<DiscoveryCandidate> loaded, long builtAt) {
+        long now = System.currentTimeMillis();
+        TopK<DiscoveryCandidate> global = new TopK<>(Math.max(1, globalPoolSize));
+        for (DiscoveryCandidate candidate : loaded) {
+            global.offer(candidate, recencyWeight * recency(candidate, now) + popularityWeight * popularity(candidate));
+        }
+
+        CandidatePool rebuilt = CandidatePool.build(loaded, global.toSortedList(), regionSize, perRegionLimit);
+        pool = rebuilt;
+        candidates = loaded;
+        hidden.values().removeIf(invalidatedAt -> invalidatedAt < builtAt);
+        logger.debug("Rebuilt discovery pool: {} candidates in {} regions in {} ms",
+                rebuilt.size(), rebuilt.regionCount(), System.currentTimeMillis() - now);
+    }
+
+    /**
+     * Ranks the page-th page of size results for the viewer. Latitude and longitude may be null,
+     * in which case the global pool is ranked without the distance term. emotion, when given,
+     * restricts candidates to that emotion.
+     */
+    public RankedPage rank(UUID viewerId, Double latitude, Double longitude, String emotion, int page, int size) {
+        NearbyQueryEvent event = new NearbyQueryEvent();
+        event.start();
+        Map<String, Double> shares = viewerId != null ? emotionProfileService.emotionShares(viewerId) : Map.of();
+        RankedPage ranked = rankTimer.record(() -> rankCandidates(viewerId, latitude, longitude,
+                emotion != null && !emotion.isBlank() ? emotion.toLowerCase() : null, shares, page, size));
+        if (event.isEnabled()) {
+            event.source = "discover";
+            event.latitude = latitude != null ? latitude : Double.NaN;
+            event.longitude = longitude != null ? longitude : Double.NaN;
+            event.radius = latitude != null && longitude != null ? searchRadiusDegrees : Double.NaN;
+            event.emotion = emotion;
+            event.candidates = ranked.scanned();
+            event.results = ranked.ids().size();
+            event.finish();
+        }
+        return ranked;
+    }
+
+    private RankedPage rankCandidates(UUID viewerId, Double latitude, Double longitude, String emotion,
+                                      Map<String, Double> shares, int page, int size) {
+        CandidatePool snapshot = pool;
+        Predicate<DiscoveryCandidate> eligible = hidden.isEmpty()
+                ? candidate -> !candidate.userId().equals(viewerId)
+                : candidate -> !candidate.userId().equals(viewerId) && !hidden.containsKey(candidate.id());
+        int wanted = Math.min(maxResults, (page + 1) * size + 1); // one extra to tell whether more follow
+        TopK<DiscoveryCandidate> top = new TopK<>(Math.max(1, wanted));
+        long now = System.currentTimeMillis();
+        int scanned;
+
+        if (latitude != null && longitude != null) {
+            double cosLatitude = Math.cos(Math.toRadians(latitude));
+            // Only needed to skip duplicates when topping up, which happens only below wanted
+            Set<UUID> near = new HashSet<>();
+            scanned = snapshot.forEachNear(latitude, longitude, searchRadiusDegrees, emotion, candidate -> {
+                if (eligible.test(candidate)) {
+                    if (near.size() <= wanted) {
+                        near.add(candidate.id());
+                    }
+                    top.offer(candidate, score(candidate, latitude, longitude, cosLatitude, shares, now));
+                }
+            });
+            // Sparse area: top up from the global pool
+            if (near.size() < wanted) {
+                scanned += snapshot.forEachGlobal(emotion, candidate -> {
+                    if (eligible.test(candidate) && !near.contains(candidate.id())) {
+                        top.offer(candidate, score(candidate, latitude, longitude, cosLatitude, shares, now));
+                    }
+                });
+            }
+        } else {
+            scanned = snapshot.forEachGlobal(emotion, candidate -> {
+                if (eligible.test(candidate)) {
+                    top.offer(candidate, score(candidate, null, null, 0, shares, now));
+                }
+            });
+        }
+
+        List<DiscoveryCandidate> ranked = top.toSortedList();
+        int from = Math.min(ranked.size(), page * size);
+        int to = Math.min(ranked.size(), from + size);
+        List<UUID> ids = new ArrayList<>(to - from);
+        for (DiscoveryCandidate candidate : ranked.subList(from, to)) {
+            ids.add(candidate.id());
+        }
+        return new RankedPage(ids, ranked.size() > to, scanned);
+    }
+
+    @Override
+    public void invalidate(Collection<CacheEvent> events) {
+        long now = System.currentTimeMillis();
+        for (CacheEvent event : events) {
+            // An updated memory may no longer be public; the next refresh brings it back if it is
+            if (event.type() == CacheEvent.Type.MEMORY_UPDATED || event.type() == CacheEvent.Type.MEMORY_DEACTIVATED) {
+                hidden.put(event.id(), now);
+            }
+        }
+    }
+
+    @Override
+    public void resync() {
+        CompletableFuture.runAsync(this::refresh);
+    }
+
+    private double score(DiscoveryCandidate candidate, Double latitude, Double longitude, double cosLatitude,
+                         Map<String, Double> shares, long now) {
+        double score = recencyWeight * recency(candidate, now) + popularityWeight * popularity(candidate);
+        if (latitude != null) {
+            double dLat = candidate.latitude() - latitude;
+            double dLng = Math.abs(candidate.longitude() - longitude);
+            dLng = Math.min(dLng, 360 - dLng) * cosLatitude;
+            double km = KM_PER_DEGREE * Math.sqrt(dLat * dLat + dLng * dLng);
+            score += distanceWeight / (1 + km / distanceScaleKm);
+        }
+        Double share = shares.get(candidate.emotion());
+        if (share != null) {
+            score += emotionWeight * share;
+        }
+        return score;
+    }
+
+    private double recency(DiscoveryCandidate candidate, long now) {
+        double ageDays = Math.max(0, now - candidate.createdAt()) / 86_400_000.0;
+        return Math.pow(0.5, ageDays / recencyHalfLifeDays);
+    }
+
+    private double popularity(DiscoveryCandidate candidate) {
+        int unlocks = Math.max(0, candidate.unlockCount());
+        return unlocks / (unlocks + popularityHalfUnlocks);
+    }
+}
@@ -0,0 +1,89 @@
+package com.echo.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of an account deletion. Phase names the kind of rows currently being deleted.
+ */
+public class AccountDeletionStatus {
+
+    private UUID id;
+    private String status;
+    private String phase;
+    private long rowsDeleted;
+    private LocalDateTime requestedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public AccountDeletionStatus() {}
+
+    public AccountDeletionStatus(UUID id, String status, String phase, long rowsDeleted,
+                                 LocalDateTime requestedAt, LocalDateTime updatedAt, LocalDateTime completedAt) {
+        this.id = id;
+        this.status = status;
+        this.phase = phase;
+        this.rowsDeleted = rowsDeleted;
+        this.requestedAt = requestedAt;
+        this.updatedAt = updatedAt;
+        this.completedAt = completedAt;
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    public long getRowsDeleted() {
+        return rowsDeleted;
+    }
+
+    public void setRowsDeleted(long rowsDeleted) {
+        this.rowsDeleted = rowsDeleted;
+    }
+
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    public void setRequestedAt(LocalDateTime requestedAt) {
+        this.requestedAt = requestedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
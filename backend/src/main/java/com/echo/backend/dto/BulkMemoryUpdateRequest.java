@@ -0,0 +1,99 @@
+package com.echo.backend.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Selects memories for a bulk activate/deactivate. Exactly one selector is used: ids, userId,
+ * emotion, or a region given by latitude, longitude and radius.
+ */
+public class BulkMemoryUpdateRequest {
+
+    @Size(max = 10000, message = "At most 10000 ids per request")
+    private List<UUID> ids;
+
+    private UUID userId;
+    private String emotion;
+    private Double latitude;
+    private Double longitude;
+    private Double radius;
+
+    @NotNull(message = "Active is required")
+    private Boolean active;
+
+    // Constructors
+    public BulkMemoryUpdateRequest() {}
+
+    public int selectorCount() {
+        int count = 0;
+        if (ids != null && !ids.isEmpty()) count++;
+        if (userId != null) count++;
+        if (emotion != null && !emotion.isBlank()) count++;
+        if (latitude != null || longitude != null || radius != null) count++;
+        return count;
+    }
+
+    public boolean hasRegion() {
+        return latitude != null && longitude != null && radius != null && radius > 0;
+    }
+
+    // Getters and Setters
+    public List<UUID> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<UUID> ids) {
+        this.ids = ids;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public String getEmotion() {
+        return emotion;
+    }
+
+    public void setEmotion(String emotion) {
+        this.emotion = emotion;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Double getRadius() {
+        return radius;
+    }
+
+    public void setRadius(Double radius) {
+        this.radius = radius;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+}
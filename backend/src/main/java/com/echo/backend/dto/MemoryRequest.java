@@ -14,7 +14,7 @@ public class MemoryRequest {
     private String audioData;
     private String audioUrl;
 
-    @NotBlank(message = "Emotion is required")
+    // Classified from content and description when left out
     private String emotion;
 
     private Double emotionConfidence;
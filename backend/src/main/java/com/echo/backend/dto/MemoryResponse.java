@@ -0,0 +1,217 @@
+package com.echo.backend.dto;
+
+import com.echo.backend.model.Memory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * API representation of a {@link Memory}. Built while the author is already loaded (entity graph
+ * or batch fetch), so serialization never touches a lazy proxy.
+ *
+ * Listings use {@link #preview}, which leaves out audioData; clients draw the waveform from
+ * waveformPeaks (base64 min/max pairs) and fetch the recording from {@code GET /memories/{id}}.
+ */
+public class MemoryResponse {
+
+    private UUID id;
+    private UserSummary user;
+    private String title;
+    private String description;
+    private String content;
+    private String audioData;
+    private String audioUrl;
+    private String emotion;
+    private Double emotionConfidence;
+    private Double latitude;
+    private Double longitude;
+    private String locationName;
+    private Integer duration;
+    private byte[] waveformPeaks;
+    private Memory.AccessType accessType;
+    private Boolean isActive;
+    private Integer unlockCount;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public MemoryResponse() {}
+
+    public static MemoryResponse from(Memory memory) {
+        MemoryResponse response = new MemoryResponse();
+        response.id = memory.getId();
+        response.user = UserSummary.from(memory.getUser());
+        response.title = memory.getTitle();
+        response.description = memory.getDescription();
+        response.content = memory.getContent();
+        response.audioData = memory.getAudioData();
+        response.audioUrl = memory.getAudioUrl();
+        response.emotion = memory.getEmotion();
+        response.emotionConfidence = memory.getEmotionConfidence();
+        response.latitude = memory.getLatitude();
+        response.longitude = memory.getLongitude();
+        response.locationName = memory.getLocationName();
+        response.duration = memory.getDuration();
+        response.waveformPeaks = memory.getWaveformPeaks();
+        response.accessType = memory.getAccessType();
+        response.isActive = memory.getIsActive();
+        response.unlockCount = memory.getUnlockCount();
+        response.createdAt = memory.getCreatedAt();
+        return response;
+    }
+
+    public static MemoryResponse preview(Memory memory) {
+        MemoryResponse response = from(memory);
+        response.audioData = null;
+        return response;
+    }
+
+    public static List<MemoryResponse> fromAll(List<Memory> memories) {
+        return memories.stream().map(MemoryResponse::preview).toList();
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UserSummary getUser() {
+        return user;
+    }
+
+    public void setUser(UserSummary user) {
+        this.user = user;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public String getAudioData() {
+        return audioData;
+    }
+
+    public void setAudioData(String audioData) {
+        this.audioData = audioData;
+    }
+
+    public String getAudioUrl() {
+        return audioUrl;
+    }
+
+    public void setAudioUrl(String audioUrl) {
+        this.audioUrl = audioUrl;
+    }
+
+    public String getEmotion() {
+        return emotion;
+    }
+
+    public void setEmotion(String emotion) {
+        this.emotion = emotion;
+    }
+
+    public Double getEmotionConfidence() {
+        return emotionConfidence;
+    }
+
+    public void setEmotionConfidence(Double emotionConfidence) {
+        this.emotionConfidence = emotionConfidence;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public String getLocationName() {
+        return locationName;
+    }
+
+    public void setLocationName(String locationName) {
+        this.locationName = locationName;
+    }
+
+    public Integer getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Integer duration) {
+        this.duration = duration;
+    }
+
+    public byte[] getWaveformPeaks() {
+        return waveformPeaks;
+    }
+
+    public void setWaveformPeaks(byte[] waveformPeaks) {
+        this.waveformPeaks = waveformPeaks;
+    }
+
+    public Memory.AccessType getAccessType() {
+        return accessType;
+    }
+
+    public void setAccessType(Memory.AccessType accessType) {
+        this.accessType = accessType;
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
+    public void setIsActive(Boolean isActive) {
+        this.isActive = isActive;
+    }
+
+    public Integer getUnlockCount() {
+        return unlockCount;
+    }
+
+    public void setUnlockCount(Integer unlockCount) {
+        this.unlockCount = unlockCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,88 @@
+package com.echo.backend.dto;
+
+import com.echo.backend.model.MemoryUnlock;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * API representation of a {@link MemoryUnlock}. Only the memory id is exposed, which Hibernate
+ * reads from the proxy without initializing it.
+ */
+public class MemoryUnlockResponse {
+
+    private UUID id;
+    private UUID memoryId;
+    private UserSummary unlockedBy;
+    private String echoContent;
+    private String echoAudioUrl;
+    private LocalDateTime unlockedAt;
+
+    // Constructors
+    public MemoryUnlockResponse() {}
+
+    public static MemoryUnlockResponse from(MemoryUnlock unlock) {
+        MemoryUnlockResponse response = new MemoryUnlockResponse();
+        response.id = unlock.getId();
+        response.memoryId = unlock.getMemory() != null ? unlock.getMemory().getId() : null;
+        response.unlockedBy = UserSummary.from(unlock.getUnlockedBy());
+        response.echoContent = unlock.getEchoContent();
+        response.echoAudioUrl = unlock.getEchoAudioUrl();
+        response.unlockedAt = unlock.getUnlockedAt();
+        return response;
+    }
+
+    public static List<MemoryUnlockResponse> fromAll(List<MemoryUnlock> unlocks) {
+        return unlocks.stream().map(MemoryUnlockResponse::from).toList();
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getMemoryId() {
+        return memoryId;
+    }
+
+    public void setMemoryId(UUID memoryId) {
+        this.memoryId = memoryId;
+    }
+
+    public UserSummary getUnlockedBy() {
+        return unlockedBy;
+    }
+
+    public void setUnlockedBy(UserSummary unlockedBy) {
+        this.unlockedBy = unlockedBy;
+    }
+
+    public String getEchoContent() {
+        return echoContent;
+    }
+
+    public void setEchoContent(String echoContent) {
+        this.echoContent = echoContent;
+    }
+
+    public String getEchoAudioUrl() {
+        return echoAudioUrl;
+    }
+
+    public void setEchoAudioUrl(String echoAudioUrl) {
+        this.echoAudioUrl = echoAudioUrl;
+    }
+
+    public LocalDateTime getUnlockedAt() {
+        return unlockedAt;
+    }
+
+    public void setUnlockedAt(LocalDateTime unlockedAt) {
+        this.unlockedAt = unlockedAt;
+    }
+}
@@ -0,0 +1,53 @@
+package com.echo.backend.dto;
+
+import com.echo.backend.model.User;
+
+import java.util.UUID;
+
+/**
+ * Public view of a user embedded in memory and unlock responses; never includes email or password.
+ */
+public class UserSummary {
+
+    private UUID id;
+    private String username;
+    private String avatar;
+
+    // Constructors
+    public UserSummary() {}
+
+    public UserSummary(UUID id, String username, String avatar) {
+        this.id = id;
+        this.username = username;
+        this.avatar = avatar;
+    }
+
+    public static UserSummary from(User user) {
+        return user == null ? null : new UserSummary(user.getId(), user.getUsername(), user.getAvatar());
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getAvatar() {
+        return avatar;
+    }
+
+    public void setAvatar(String avatar) {
+        this.avatar = avatar;
+    }
+}
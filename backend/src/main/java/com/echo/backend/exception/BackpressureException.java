@@ -0,0 +1,19 @@
+package com.echo.backend.exception;
+
+/**
+ * Thrown when a bounded queue or worker pool is saturated and the caller should retry later.
+ * Controllers map it to {@code 503 Service Unavailable} with a {@code Retry-After} header.
+ */
+public class BackpressureException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public BackpressureException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
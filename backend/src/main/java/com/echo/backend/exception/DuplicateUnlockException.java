@@ -0,0 +1,12 @@
+package com.echo.backend.exception;
+
+/**
+ * Thrown when a user unlocks a memory they already unlocked, typically by a concurrent request
+ * that won the race past the up-front check. Controllers map it to {@code 409 Conflict}.
+ */
+public class DuplicateUnlockException extends RuntimeException {
+
+    public DuplicateUnlockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.echo.backend.exception;
+
+/**
+ * Thrown when a memory that can still be found by id, in the archive or deactivated, is asked to
+ * take part in something only active memories can, such as an unlock. Controllers map it to
+ * {@code 410 Gone}.
+ */
+public class MemoryUnavailableException extends RuntimeException {
+
+    public MemoryUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.echo.backend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One cache lookup; a miss lasts until the value is loaded, so its duration is the miss penalty. */
+@Name("echo.CacheLookup")
+@Label("Cache Lookup")
+@Category({"ECHO", "Caches"})
+public class CacheLookupEvent extends OperationEvent {
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Hit")
+    @Description("Answered without going to the database")
+    public boolean hit;
+}
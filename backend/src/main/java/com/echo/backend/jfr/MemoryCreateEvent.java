@@ -0,0 +1,25 @@
+package com.echo.backend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("echo.MemoryCreate")
+@Label("Memory Create")
+@Category({"ECHO", "Memories"})
+public class MemoryCreateEvent extends OperationEvent {
+
+    @Label("Emotion")
+    public String emotion;
+
+    @Label("Classified")
+    public boolean classified;
+
+    @Label("Access Type")
+    public String accessType;
+
+    @Label("Audio Size")
+    @DataAmount
+    public long audioBytes;
+}
@@ -0,0 +1,19 @@
+package com.echo.backend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("echo.MemoryUnlock")
+@Label("Memory Unlock")
+@Category({"ECHO", "Memories"})
+public class MemoryUnlockEvent extends OperationEvent {
+
+    @Label("Memory Id")
+    public String memoryId;
+
+    @Label("Outcome")
+    @Description("created, duplicate or failed")
+    public String outcome;
+}
@@ -0,0 +1,36 @@
+package com.echo.backend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("echo.NearbyQuery")
+@Label("Nearby Query")
+@Category({"ECHO", "Memories"})
+public class NearbyQueryEvent extends OperationEvent {
+
+    @Label("Source")
+    @Description("nearby: the database query behind /memories/nearby; discover: ranking the in-memory pool")
+    public String source;
+
+    @Label("Latitude")
+    public double latitude;
+
+    @Label("Longitude")
+    public double longitude;
+
+    @Label("Radius")
+    @Description("Search radius in degrees")
+    public double radius;
+
+    @Label("Emotion")
+    public String emotion;
+
+    @Label("Candidates")
+    @Description("Memories examined: rows the database returned (nearby) or pool entries scored (discover)")
+    public int candidates;
+
+    @Label("Results")
+    public int results;
+}
@@ -0,0 +1,58 @@
+package com.echo.backend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Base of the application's JFR events: a timed operation on one thread that also records the
+ * bytes that thread allocated during it. Use as
+ * <pre>
+ *     SomeEvent event = new SomeEvent();
+ *     event.start();
+ *     ...
+ *     event.field = value;
+ *     event.finish();
+ * </pre>
+ * When the event is disabled (no recording, or not in its settings) both calls return at once.
+ */
+@Category({"ECHO"})
+public abstract class OperationEvent extends Event {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean ALLOCATION_SUPPORTED = THREADS instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported();
+
+    @Label("Allocated")
+    @Description("Bytes allocated by the thread during the operation")
+    @DataAmount
+    protected long allocated;
+
+    private transient long allocatedAtStart;
+
+    public void start() {
+        if (isEnabled()) {
+            allocatedAtStart = allocatedBytes();
+            begin();
+        }
+    }
+
+    public void finish() {
+        if (isEnabled()) {
+            end();
+            if (shouldCommit()) {
+                allocated = allocatedAtStart < 0 ? 0 : allocatedBytes() - allocatedAtStart;
+                commit();
+            }
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ALLOCATION_SUPPORTED ? ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes() : -1;
+    }
+}
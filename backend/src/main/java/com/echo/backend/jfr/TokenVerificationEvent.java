@@ -0,0 +1,14 @@
+package com.echo.backend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("echo.TokenVerification")
+@Label("Token Verification")
+@Category({"ECHO", "Security"})
+public class TokenVerificationEvent extends OperationEvent {
+
+    @Label("Valid")
+    public boolean valid;
+}
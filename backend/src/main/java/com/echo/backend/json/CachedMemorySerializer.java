@@ -0,0 +1,66 @@
+package com.echo.backend.json;
+
+import com.echo.backend.dto.MemoryResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Serializes {@link MemoryResponse} through {@link MemoryJsonCache}, falling back to the bean
+ * serializer Jackson built for it; the cache encodes its entries with that same serializer, so
+ * cached and uncached output are byte for byte the same.
+ */
+final class CachedMemorySerializer extends StdSerializer<MemoryResponse>
+        implements ContextualSerializer, ResolvableSerializer {
+
+    private final MemoryJsonCache cache;
+    private final JsonSerializer<Object> serializer;
+
+    CachedMemorySerializer(MemoryJsonCache cache, JsonSerializer<Object> serializer) {
+        super(MemoryResponse.class);
+        this.cache = cache;
+        this.serializer = serializer;
+    }
+
+    @Override
+    public void serialize(MemoryResponse value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        if (!cache.write(value, generator, provider, serializer)) {
+            serializer.serialize(value, generator, provider);
+        }
+    }
+
+    @Override
+    public void serializeWithType(MemoryResponse value, JsonGenerator generator, SerializerProvider provider,
+                                  TypeSerializer typeSerializer) throws IOException {
+        serializer.serializeWithType(value, generator, provider, typeSerializer);
+    }
+
+    @Override
+    public void resolve(SerializerProvider provider) throws JsonMappingException {
+        if (serializer instanceof ResolvableSerializer resolvable) {
+            resolvable.resolve(provider);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        if (serializer instanceof ContextualSerializer contextual) {
+            JsonSerializer<?> created = contextual.createContextual(provider, property);
+            if (created != serializer) {
+                return new CachedMemorySerializer(cache, (JsonSerializer<Object>) created);
+            }
+        }
+        return this;
+    }
+}
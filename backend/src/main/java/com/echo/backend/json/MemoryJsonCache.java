@@ -0,0 +1,212 @@
+package com.echo.backend.json;
+
+import com.echo.backend.cache.CacheEvent;
+import com.echo.backend.cache.CacheInvalidationListener;
+import com.echo.backend.dto.MemoryResponse;
+import com.echo.backend.dto.UserSummary;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Pre-encoded JSON of memory previews, keyed by memory id. Everything but isActive and
+ * unlockCount rarely changes after a memory is written, so a preview is encoded once into the bytes
+ * before and after those two fields; later responses copy the bytes to the output and write just
+ * the two live values between them. Listings and the emotion map repeat the same memories across
+ * many requests, and most of their serialization time goes to escaping and encoding the same
+ * strings and waveforms again.
+ *
+ * Each entry carries a fingerprint of the fields it encodes and is only used for a response with
+ * the same fingerprint, so an edited memory or a renamed author is re-encoded even if the
+ * invalidation never arrives; MEMORY_UPDATED and MEMORY_DEACTIVATED events only free the space
+ * early. Entries are weighed by their encoded size, and once {@code json-cache.max-bytes} is
+ * reached the memories least likely to be read again are evicted to make room.
+ */
+@Component
+public class MemoryJsonCache implements CacheInvalidationListener {
+
+    private static final byte[] ACTIVE_FIELD = "\"isActive\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CREATED_FIELD = "\"createdAt\":".getBytes(StandardCharsets.UTF_8);
+
+    private record Entry(long fingerprint, int features, RawUtf8 head, RawUtf8 tail) {
+        int size() {
+            return head.length() + tail.length();
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${json-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${json-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    private Cache<UUID, Entry> entries;
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void init() {
+        entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((UUID id, Entry entry) -> entry.size())
+                .build();
+        hits = Counter.builder("echo.cache.json").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("echo.cache.json").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("echo.cache.json.bytes", this, MemoryJsonCache::weightedSize).register(meterRegistry);
+    }
+
+    /**
+     * Writes a preview from its cached bytes, encoding and caching them with {@code serializer}
+     * first if needed. Returns false, having written nothing, for responses the cache does not
+     * cover (full memories with audio, pretty-printed or custom-escaped output, JSON views).
+     */
+    boolean write(MemoryResponse response, JsonGenerator generator, SerializerProvider provider,
+                  JsonSerializer<Object> serializer) throws IOException {
+        if (!enabled || response.getId() == null || response.getAudioData() != null
+                || generator.getCodec() == null || generator.getPrettyPrinter() != null
+                || generator.getCharacterEscapes() != null || provider.getActiveView() != null) {
+            return false;
+        }
+        long fingerprint = fingerprint(response);
+        int features = generator.getFeatureMask();
+        Entry entry = entries.getIfPresent(response.getId());
+        if (entry != null && entry.fingerprint() == fingerprint && entry.features() == features) {
+            hits.increment();
+            writeSpliced(entry, response, generator);
+            return true;
+        }
+        misses.increment();
+
+        byte[] json = encode(response, generator, provider, serializer);
+        Entry encoded = split(json, response, fingerprint, features);
+        if (encoded == null) {
+            generator.writeRawValue(new RawUtf8(json)); // field layout not as expected; do not cache
+            return true;
+        }
+        entries.put(response.getId(), encoded);
+        writeSpliced(encoded, response, generator);
+        return true;
+    }
+
+    private static void writeSpliced(Entry entry, MemoryResponse response, JsonGenerator generator)
+            throws IOException {
+        generator.writeRawValue(entry.head());
+        generator.writeRaw(liveFields(response));
+        generator.writeRaw(entry.tail());
+    }
+
+    // What the bean serializer writes for the two mutable fields, including the trailing comma
+    private static String liveFields(MemoryResponse response) {
+        return "\"isActive\":" + response.getIsActive() + ",\"unlockCount\":" + response.getUnlockCount() + ",";
+    }
+
+    // The response as the bean serializer writes it, with the caller's generator features
+    private static byte[] encode(MemoryResponse response, JsonGenerator generator, SerializerProvider provider,
+                                 JsonSerializer<Object> serializer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        try (JsonGenerator encoder = generator.getCodec().getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            encoder.overrideStdFeatures(generator.getFeatureMask(), -1);
+            serializer.serialize(response, encoder, provider);
+        }
+        return out.toByteArray();
+    }
+
+    // Cuts out the live fields, which sit between isActive and createdAt in declaration order
+    private static Entry split(byte[] json, MemoryResponse response, long fingerprint, int features) {
+        int active = lastIndexOf(json, ACTIVE_FIELD);
+        int created = lastIndexOf(json, CREATED_FIELD);
+        if (active < 0 || created < active) {
+            return null;
+        }
+        byte[] live = liveFields(response).getBytes(StandardCharsets.UTF_8);
+        if (!Arrays.equals(json, active, created, live, 0, live.length)) {
+            return null;
+        }
+        return new Entry(fingerprint, features, new RawUtf8(Arrays.copyOfRange(json, 0, active)),
+                new RawUtf8(Arrays.copyOfRange(json, created, json.length)));
+    }
+
+    // Field names cannot occur inside encoded strings, where every quote is escaped
+    private static int lastIndexOf(byte[] json, byte[] field) {
+        outer:
+        for (int i = json.length - field.length; i >= 0; i--) {
+            for (int j = 0; j < field.length; j++) {
+                if (json[i + j] != field[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    // Every encoded field; isActive, unlockCount and audioData (always null here) are left out
+    private static long fingerprint(MemoryResponse response) {
+        UserSummary user = response.getUser();
+        long hash = mix(17, response.getId());
+        hash = mix(hash, user != null ? user.getId() : null);
+        hash = mix(hash, user != null ? user.getUsername() : null);
+        hash = mix(hash, user != null ? user.getAvatar() : null);
+        hash = mix(hash, response.getTitle());
+        hash = mix(hash, response.getDescription());
+        hash = mix(hash, response.getContent());
+        hash = mix(hash, response.getAudioUrl());
+        hash = mix(hash, response.getEmotion());
+        hash = mix(hash, response.getEmotionConfidence());
+        hash = mix(hash, response.getLatitude());
+        hash = mix(hash, response.getLongitude());
+        hash = mix(hash, response.getLocationName());
+        hash = mix(hash, response.getDuration());
+        hash = mix(hash, Arrays.hashCode(response.getWaveformPeaks()));
+        hash = mix(hash, response.getAccessType());
+        return mix(hash, response.getCreatedAt());
+    }
+
+    private static long mix(long hash, Object value) {
+        return (hash ^ Objects.hashCode(value)) * 0x9E3779B97F4A7C15L;
+    }
+
+    @Override
+    public void invalidate(Collection<CacheEvent> events) {
+        for (CacheEvent event : events) {
+            if (event.type() == CacheEvent.Type.MEMORY_UPDATED || event.type() == CacheEvent.Type.MEMORY_DEACTIVATED) {
+                entries.invalidate(event.id());
+            }
+        }
+    }
+
+    @Override
+    public void resync() {
+        entries.invalidateAll();
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    // Bytes held by the cached entries
+    public long weightedSize() {
+        return entries.policy().eviction().orElseThrow().weightedSize().orElse(0);
+    }
+}
@@ -0,0 +1,33 @@
+package com.echo.backend.json;
+
+import com.echo.backend.dto.MemoryResponse;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Puts {@link MemoryJsonCache} in front of the {@link MemoryResponse} serializer of Boot's ObjectMapper. */
+@Configuration
+public class MemoryJsonConfig {
+
+    @Bean
+    public Module memoryJsonModule(MemoryJsonCache cache) {
+        SimpleModule module = new SimpleModule("MemoryJsonCache");
+        module.setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription description,
+                                                      JsonSerializer<?> serializer) {
+                if (description.getBeanClass() == MemoryResponse.class) {
+                    return new CachedMemorySerializer(cache, (JsonSerializer<Object>) serializer);
+                }
+                return serializer;
+            }
+        });
+        return module;
+    }
+}
@@ -13,7 +13,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 public class EmotionProfile {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @NotNull
@@ -25,6 +25,10 @@ public class EmotionProfile {
     @Column(name = "emotion_data", columnDefinition = "jsonb")
     private String emotionData; // JSON string containing emotion analysis data
 
+    // Packed EmotionProfileStats; emotionData is rendered from it
+    @Column(name = "stats")
+    private byte[] stats;
+
     @LastModifiedDate
     @Column(name = "last_updated", nullable = false)
     private LocalDateTime lastUpdated;
@@ -62,6 +66,14 @@ public class EmotionProfile {
         this.emotionData = emotionData;
     }
 
+    public byte[] getStats() {
+        return stats;
+    }
+
+    public void setStats(byte[] stats) {
+        this.stats = stats;
+    }
+
     public LocalDateTime getLastUpdated() {
         return lastUpdated;
     }
@@ -14,7 +14,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 public class Memory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @NotNull
@@ -59,6 +59,10 @@ public class Memory {
     @Column(name = "duration")
     private Integer duration = 0;
 
+    // Min/max pairs from WaveformPeaks, computed once at upload
+    @Column(name = "waveform_peaks")
+    private byte[] waveformPeaks;
+
     @Column(name = "access_type", nullable = false)
     @Enumerated(EnumType.STRING)
     private AccessType accessType = AccessType.PUBLIC;
@@ -66,6 +70,10 @@ public class Memory {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
 
+    // Set when isActive turns false, cleared when it turns true; ArchivalService archives on it
+    @Column(name = "deactivated_at")
+    private LocalDateTime deactivatedAt;
+
     @Column(name = "unlock_count")
     private Integer unlockCount = 0;
 
@@ -193,6 +201,14 @@ public class Memory {
         this.duration = duration;
     }
 
+    public byte[] getWaveformPeaks() {
+        return waveformPeaks;
+    }
+
+    public void setWaveformPeaks(byte[] waveformPeaks) {
+        this.waveformPeaks = waveformPeaks;
+    }
+
     public AccessType getAccessType() {
         return accessType;
     }
@@ -206,9 +222,22 @@ public class Memory {
     }
 
     public void setIsActive(Boolean isActive) {
+        if (Boolean.FALSE.equals(isActive) && !Boolean.FALSE.equals(this.isActive)) {
+            deactivatedAt = LocalDateTime.now();
+        } else if (!Boolean.FALSE.equals(isActive)) {
+            deactivatedAt = null;
+        }
         this.isActive = isActive;
     }
 
+    public LocalDateTime getDeactivatedAt() {
+        return deactivatedAt;
+    }
+
+    public void setDeactivatedAt(LocalDateTime deactivatedAt) {
+        this.deactivatedAt = deactivatedAt;
+    }
+
     public Integer getUnlockCount() {
         return unlockCount;
     }
@@ -12,8 +12,11 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @EntityListeners(AuditingEntityListener.class)
 public class MemoryUnlock {
 
+    // One unlock per (memory, user); enforced through memory_unlock_keys since the table is partitioned
+    public static final String UNIQUE_MEMORY_USER_CONSTRAINT = "uk_memory_unlocks_memory_user";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @NotNull
@@ -0,0 +1,37 @@
+package com.echo.backend.model;
+
+import com.fasterxml.uuid.Generators;
+import com.fasterxml.uuid.impl.TimeBasedEpochGenerator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+
+/**
+ * RFC 9562 version 7 UUIDs: a 48-bit Unix millisecond timestamp followed by random bits, so ids
+ * sort by creation time in Postgres (which compares uuids bytewise) while staying unguessable.
+ * Ids from the same millisecond still increase. Rows inserted through JDBC use {@link #next()}
+ * so that every key in a table comes from the same sequence.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final TimeBasedEpochGenerator GENERATOR = Generators.timeBasedEpochGenerator();
+
+    public static UUID next() {
+        return GENERATOR.generate();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
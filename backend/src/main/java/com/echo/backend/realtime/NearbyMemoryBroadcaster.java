@@ -0,0 +1,245 @@
+package com.echo.backend.realtime;
+
+import com.echo.backend.model.Memory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes newly created public memories to SSE subscribers whose region contains them.
+ *
+ * Connections are held as async servlet responses, so an idle subscriber costs one
+ * {@link SseEmitter} and a few index entries, never a thread. Matching runs on a single
+ * fan-out thread fed by a bounded queue; when it overflows the oldest pending push is
+ * dropped and clients fall back to their next {@code /memories/nearby} read.
+ *
+ * Neither fan-out nor heartbeats write to sockets: they append to each subscriber's
+ * bounded outbox, which a small writer pool drains, one writer per subscriber at a time.
+ * A client that stops reading ties up at most one writer, and once its outbox is full it
+ * is dropped and reconnects.
+ */
+@Service
+public class NearbyMemoryBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearbyMemoryBroadcaster.class);
+
+    // Events a writer sends to one subscriber before yielding to the others
+    private static final int DRAIN_BATCH = 16;
+
+    @Value("${realtime.cell-size-degrees:0.5}")
+    private double cellSizeDegrees;
+
+    @Value("${realtime.max-cells-per-subscription:1024}")
+    private int maxCellsPerSubscription;
+
+    @Value("${realtime.max-subscriptions:50000}")
+    private int maxSubscriptions;
+
+    @Value("${realtime.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${realtime.fanout-queue-capacity:10000}")
+    private int fanoutQueueCapacity;
+
+    @Value("${realtime.subscriber-queue-capacity:64}")
+    private int subscriberQueueCapacity;
+
+    @Value("${realtime.writer-threads:4}")
+    private int writerThreads;
+
+    private SpatialSubscriptionIndex index;
+    private ThreadPoolExecutor fanoutExecutor;
+    private ExecutorService writerExecutor;
+
+    private final Map<UUID, NearbySubscription> subscriptions = new ConcurrentHashMap<>();
+    // Slots taken against max-subscriptions, reserved before a subscriber is added so concurrent
+    // subscribes cannot all pass the check
+    private final AtomicInteger reservedSlots = new AtomicInteger();
+
+    @PostConstruct
+    public void init() {
+        index = new SpatialSubscriptionIndex(cellSizeDegrees, maxCellsPerSubscription);
+        fanoutExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(fanoutQueueCapacity),
+                daemonThreads("nearby-fanout"),
+                new ThreadPoolExecutor.DiscardOldestPolicy());
+        // Each subscriber has at most one drain task queued, so this queue is bounded by max-subscriptions
+        writerExecutor = Executors.newFixedThreadPool(writerThreads, daemonThreads("nearby-writer-"));
+    }
+
+    public SseEmitter subscribe(UUID userId, double latitude, double longitude, double radius) {
+        if (!(radius > 0) || Double.isInfinite(radius)) {
+            throw new IllegalArgumentException("Radius must be a positive number");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        register(new NearbySubscription(userId, latitude, longitude, radius, emitter));
+        return emitter;
+    }
+
+    void register(NearbySubscription subscription) {
+        if (reservedSlots.incrementAndGet() > maxSubscriptions) {
+            reservedSlots.decrementAndGet();
+            throw new IllegalStateException("Too many live subscriptions, poll /memories/nearby instead");
+        }
+        SseEmitter emitter = subscription.getEmitter();
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+
+        subscriptions.put(subscription.getId(), subscription);
+        index.add(subscription);
+
+        enqueue(subscription, SseEmitter.event()
+                .name("subscribed")
+                .data(Map.of("subscriptionId", subscription.getId(), "radius", subscription.getRadius())));
+    }
+
+    /**
+     * Queues a memory for delivery to matching subscribers. Only active PUBLIC memories are
+     * pushed, and never back to their author, mirroring the nearby query.
+     */
+    public void publish(Memory memory) {
+        if (memory == null || memory.getAccessType() != Memory.AccessType.PUBLIC
+                || !Boolean.TRUE.equals(memory.getIsActive())
+                || memory.getLatitude() == null || memory.getLongitude() == null) {
+            return;
+        }
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+
+        UUID authorId = memory.getUser() != null ? memory.getUser().getId() : null;
+        Map<String, Object> payload = toPayload(memory);
+        double latitude = memory.getLatitude();
+        double longitude = memory.getLongitude();
+
+        fanoutExecutor.execute(() -> {
+            List<NearbySubscription> matches = index.match(latitude, longitude);
+            for (NearbySubscription subscription : matches) {
+                if (subscription.getUserId() != null && subscription.getUserId().equals(authorId)) {
+                    continue;
+                }
+                enqueue(subscription, SseEmitter.event().name("memory").data(payload));
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${realtime.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        for (NearbySubscription subscription : subscriptions.values()) {
+            enqueue(subscription, SseEmitter.event().comment("keepalive"));
+        }
+    }
+
+    public int subscriptionCount() {
+        return subscriptions.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanoutExecutor.shutdownNow();
+        writerExecutor.shutdownNow();
+        for (NearbySubscription subscription : subscriptions.values()) {
+            subscription.close();
+            subscription.getEmitter().complete();
+        }
+        subscriptions.clear();
+        reservedSlots.set(0);
+    }
+
+    private void unsubscribe(NearbySubscription subscription) {
+        if (subscriptions.remove(subscription.getId()) != null) {
+            index.remove(subscription);
+            reservedSlots.decrementAndGet();
+        }
+    }
+
+    private void enqueue(NearbySubscription subscription, SseEmitter.SseEventBuilder event) {
+        if (subscription.isClosed()) {
+            return;
+        }
+        if (!subscription.offer(event, subscriberQueueCapacity)) {
+            // A writer is still busy with this client; it completes the emitter once its send returns
+            logger.debug("Dropping slow nearby subscription {}", subscription.getId());
+            unsubscribe(subscription);
+            subscription.close();
+            return;
+        }
+        if (subscription.startDraining()) {
+            writerExecutor.execute(() -> drain(subscription));
+        }
+    }
+
+    private void drain(NearbySubscription subscription) {
+        SseEmitter.SseEventBuilder event;
+        int sent = 0;
+        while (!subscription.isClosed() && sent < DRAIN_BATCH && (event = subscription.poll()) != null) {
+            send(subscription, event);
+            sent++;
+        }
+        if (subscription.isClosed()) {
+            subscription.getEmitter().complete();
+            return;
+        }
+        subscription.stopDraining();
+        // Picks up events queued while stopping, and requeues a subscriber that used up its batch
+        if (subscription.hasPending() && subscription.startDraining()) {
+            writerExecutor.execute(() -> drain(subscription));
+        }
+    }
+
+    private void send(NearbySubscription subscription, SseEmitter.SseEventBuilder event) {
+        try {
+            subscription.getEmitter().send(event);
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping nearby subscription {}: {}", subscription.getId(), e.getMessage());
+            unsubscribe(subscription);
+            subscription.close();
+            subscription.getEmitter().completeWithError(e);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name.endsWith("-") ? name + count.incrementAndGet() : name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private Map<String, Object> toPayload(Memory memory) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", memory.getId());
+        payload.put("title", memory.getTitle());
+        payload.put("description", memory.getDescription());
+        payload.put("emotion", memory.getEmotion());
+        payload.put("emotionConfidence", memory.getEmotionConfidence());
+        payload.put("latitude", memory.getLatitude());
+        payload.put("longitude", memory.getLongitude());
+        payload.put("locationName", memory.getLocationName());
+        payload.put("duration", memory.getDuration());
+        payload.put("audioUrl", memory.getAudioUrl());
+        payload.put("waveformPeaks", memory.getWaveformPeaks());
+        payload.put("createdAt", memory.getCreatedAt());
+        return payload;
+    }
+}
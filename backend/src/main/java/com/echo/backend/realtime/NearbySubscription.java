@@ -0,0 +1,116 @@
+package com.echo.backend.realtime;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * A client's standing interest in new public memories within {@code radius} of a point.
+ */
+public class NearbySubscription {
+
+    private final UUID id = UUID.randomUUID();
+    private final UUID userId;
+    private final double latitude;
+    private final double longitude;
+    private final double radius;
+    private final SseEmitter emitter;
+
+    // Events waiting for a writer thread; at most one writer drains it at a time
+    private final Queue<SseEmitter.SseEventBuilder> outbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    public NearbySubscription(UUID userId, double latitude, double longitude, double radius, SseEmitter emitter) {
+        this.userId = userId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.radius = radius;
+        this.emitter = emitter;
+    }
+
+    public boolean contains(double lat, double lng) {
+        double dLat = lat - latitude;
+        double dLng = lng - longitude;
+        return dLat * dLat + dLng * dLng <= radius * radius;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+
+    public SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Queues an event unless {@code capacity} events are already waiting.
+     */
+    boolean offer(SseEmitter.SseEventBuilder event, int capacity) {
+        if (pending.incrementAndGet() > capacity) {
+            pending.decrementAndGet();
+            return false;
+        }
+        outbox.add(event);
+        return true;
+    }
+
+    SseEmitter.SseEventBuilder poll() {
+        SseEmitter.SseEventBuilder event = outbox.poll();
+        if (event != null) {
+            pending.decrementAndGet();
+        }
+        return event;
+    }
+
+    boolean hasPending() {
+        return !outbox.isEmpty();
+    }
+
+    boolean startDraining() {
+        return draining.compareAndSet(false, true);
+    }
+
+    void stopDraining() {
+        draining.set(false);
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public String toString() {
+        return "NearbySubscription{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", radius=" + radius +
+                '}';
+    }
+}
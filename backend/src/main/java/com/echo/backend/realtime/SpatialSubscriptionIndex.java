@@ -0,0 +1,108 @@
+package com.echo.backend.realtime;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Uniform grid over latitude/longitude that maps each cell to the subscriptions whose
+ * search circle overlaps it. Lookups for a point touch a single cell, so fanning a new
+ * memory out costs O(subscribers near the point) rather than O(all subscribers).
+ *
+ * Distances use the same planar degree metric as {@code MemoryRepository.findNearbyMemories}
+ * so a pushed memory is exactly one the client would have seen by polling.
+ */
+public class SpatialSubscriptionIndex {
+
+    private final double cellSize;
+    private final int maxCellsPerSubscription;
+
+    private final ConcurrentHashMap<Long, Set<NearbySubscription>> cells = new ConcurrentHashMap<>();
+
+    // Subscriptions whose radius would span too many cells are matched by a linear scan instead
+    private final Set<NearbySubscription> wide = ConcurrentHashMap.newKeySet();
+
+    public SpatialSubscriptionIndex(double cellSize, int maxCellsPerSubscription) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSize = cellSize;
+        this.maxCellsPerSubscription = maxCellsPerSubscription;
+    }
+
+    public void add(NearbySubscription subscription) {
+        if (isWide(subscription)) {
+            wide.add(subscription);
+            return;
+        }
+        forEachCell(subscription, key -> cells.compute(key, (k, set) -> {
+            Set<NearbySubscription> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscription);
+            return target;
+        }));
+    }
+
+    public void remove(NearbySubscription subscription) {
+        if (wide.remove(subscription)) {
+            return;
+        }
+        forEachCell(subscription, key -> cells.computeIfPresent(key, (k, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        }));
+    }
+
+    /**
+     * Returns every subscription whose circle contains the given point.
+     */
+    public List<NearbySubscription> match(double latitude, double longitude) {
+        List<NearbySubscription> matches = new ArrayList<>();
+        Set<NearbySubscription> cell = cells.get(cellKey(cellIndex(latitude), cellIndex(longitude)));
+        if (cell != null) {
+            collectContaining(cell, latitude, longitude, matches);
+        }
+        collectContaining(wide, latitude, longitude, matches);
+        return matches;
+    }
+
+    public int cellCount() {
+        return cells.size();
+    }
+
+    private void collectContaining(Collection<NearbySubscription> candidates, double latitude, double longitude,
+                                   List<NearbySubscription> out) {
+        for (NearbySubscription subscription : candidates) {
+            if (subscription.contains(latitude, longitude)) {
+                out.add(subscription);
+            }
+        }
+    }
+
+    private boolean isWide(NearbySubscription subscription) {
+        long span = (long) Math.ceil(2 * subscription.getRadius() / cellSize) + 1;
+        return span * span > maxCellsPerSubscription;
+    }
+
+    private void forEachCell(NearbySubscription subscription, LongConsumer action) {
+        int minLat = cellIndex(subscription.getLatitude() - subscription.getRadius());
+        int maxLat = cellIndex(subscription.getLatitude() + subscription.getRadius());
+        int minLng = cellIndex(subscription.getLongitude() - subscription.getRadius());
+        int maxLng = cellIndex(subscription.getLongitude() + subscription.getRadius());
+        for (int i = minLat; i <= maxLat; i++) {
+            for (int j = minLng; j <= maxLng; j++) {
+                action.accept(cellKey(i, j));
+            }
+        }
+    }
+
+    private int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / cellSize);
+    }
+
+    private static long cellKey(int latIndex, int lngIndex) {
+        return ((long) latIndex << 32) | (lngIndex & 0xFFFFFFFFL);
+    }
+}
@@ -2,11 +2,16 @@ package com.echo.backend.repository;
 
 import com.echo.backend.model.Memory;
 import com.echo.backend.model.User;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,69 +19,177 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface MemoryRepository extends JpaRepository<Memory, UUID> {
 
+    // Memories are always rendered with their author, so every finder loads it in the same query
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Optional<Memory> findById(UUID id);
+
+    // Memories moved to cold storage by ArchivalService; same column layout as memories
+    @Query(value = "SELECT id, user_id, title, description, content, audio_data, audio_url, emotion, " +
+                   "emotion_confidence, latitude, longitude, location_name, duration, access_type, is_active, " +
+                   "unlock_count, waveform_peaks, deactivated_at, created_at FROM memories_archive WHERE id = :id", nativeQuery = true)
+    Optional<Memory> findArchivedById(@Param("id") UUID id);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT m FROM Memory m WHERE m.id IN :ids")
+    List<Memory> findAllWithUserByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @EntityGraph(attributePaths = "user")
     List<Memory> findByUser(User user);
     
+    @EntityGraph(attributePaths = "user")
     List<Memory> findByUserOrderByCreatedAtDesc(User user);
     
+    @EntityGraph(attributePaths = "user")
     List<Memory> findByIsActiveTrue();
     
+    @EntityGraph(attributePaths = "user")
     List<Memory> findByEmotion(String emotion);
     
-    @Query("SELECT m FROM Memory m WHERE m.isActive = true AND m.accessType = 'PUBLIC'")
-    List<Memory> findPublicMemories();
+    // memories is range-partitioned on created_at; every listing below carries a lower bound
+    // on it so the planner can skip older partitions.
     
+    // A user's memories cannot predate the account, so this bound prunes without changing results
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT m FROM Memory m WHERE m.user = :user AND m.createdAt >= :since")
+    List<Memory> findByUserSince(@Param("user") User user, @Param("since") LocalDateTime since);
+    
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT m FROM Memory m WHERE m.isActive = true AND m.accessType = 'PUBLIC' AND " +
+           "m.createdAt >= :since")
+    List<Memory> findPublicMemories(@Param("since") LocalDateTime since);
+    
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT m FROM Memory m WHERE m.isActive = true AND " +
            "m.accessType = 'PUBLIC' AND " +
-           "m.emotion = :emotion")
-    List<Memory> findPublicMemoriesByEmotion(@Param("emotion") String emotion);
+           "m.emotion = :emotion AND " +
+           "m.createdAt >= :since")
+    List<Memory> findPublicMemoriesByEmotion(@Param("emotion") String emotion, @Param("since") LocalDateTime since);
     
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT m FROM Memory m WHERE m.isActive = true AND " +
            "m.accessType = 'PUBLIC' AND " +
-           "m.user.id != :userId")
-    List<Memory> findPublicMemoriesExcludingUser(@Param("userId") UUID userId);
+           "m.user.id != :userId AND " +
+           "m.createdAt >= :since")
+    List<Memory> findPublicMemoriesExcludingUser(@Param("userId") UUID userId, @Param("since") LocalDateTime since);
     
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT m FROM Memory m WHERE m.isActive = true AND " +
            "m.accessType = 'PUBLIC' AND " +
            "m.user.id != :userId AND " +
-           "m.emotion = :emotion")
+           "m.emotion = :emotion AND " +
+           "m.createdAt >= :since")
     List<Memory> findPublicMemoriesByEmotionExcludingUser(
             @Param("userId") UUID userId, 
-            @Param("emotion") String emotion);
+            @Param("emotion") String emotion,
+            @Param("since") LocalDateTime since);
     
-    // Geospatial queries for nearby memories
+    // Geospatial queries for nearby memories; the bounding box is index-friendly, the distance is exact
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT m FROM Memory m WHERE m.isActive = true AND " +
            "m.accessType = 'PUBLIC' AND " +
            "m.user.id != :userId AND " +
+           "m.createdAt >= :since AND " +
+           "m.latitude BETWEEN :lat - :radius AND :lat + :radius AND " +
+           "m.longitude BETWEEN :lng - :radius AND :lng + :radius AND " +
            "SQRT(POWER(m.latitude - :lat, 2) + POWER(m.longitude - :lng, 2)) <= :radius")
     List<Memory> findNearbyMemories(
             @Param("userId") UUID userId,
             @Param("lat") Double latitude,
             @Param("lng") Double longitude,
-            @Param("radius") Double radius);
+            @Param("radius") Double radius,
+            @Param("since") LocalDateTime since);
     
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT m FROM Memory m WHERE m.isActive = true AND " +
            "m.accessType = 'PUBLIC' AND " +
            "m.user.id != :userId AND " +
            "m.emotion = :emotion AND " +
+           "m.createdAt >= :since AND " +
+           "m.latitude BETWEEN :lat - :radius AND :lat + :radius AND " +
+           "m.longitude BETWEEN :lng - :radius AND :lng + :radius AND " +
            "SQRT(POWER(m.latitude - :lat, 2) + POWER(m.longitude - :lng, 2)) <= :radius")
     List<Memory> findNearbyMemoriesByEmotion(
             @Param("userId") UUID userId,
             @Param("lat") Double latitude,
             @Param("lng") Double longitude,
             @Param("radius") Double radius,
-            @Param("emotion") String emotion);
+            @Param("emotion") String emotion,
+            @Param("since") LocalDateTime since);
     
     // Get memories for emotion map (global view)
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT m FROM Memory m WHERE m.isActive = true AND " +
-           "m.accessType = 'PUBLIC'")
-    List<Memory> findMemoriesForEmotionMap();
+           "m.accessType = 'PUBLIC' AND " +
+           "m.createdAt >= :since")
+    List<Memory> findMemoriesForEmotionMap(@Param("since") LocalDateTime since);
     
     // Count memories by emotion for analytics
     @Query("SELECT m.emotion, COUNT(m) FROM Memory m WHERE m.isActive = true GROUP BY m.emotion")
     List<Object[]> countMemoriesByEmotion();
     
     // Get recent memories
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT m FROM Memory m WHERE m.isActive = true AND " +
-           "m.accessType = 'PUBLIC' ORDER BY m.createdAt DESC")
-    Page<Memory> findRecentPublicMemories(Pageable pageable);
+           "m.accessType = 'PUBLIC' AND m.createdAt >= :since ORDER BY m.createdAt DESC")
+    Page<Memory> findRecentPublicMemories(@Param("since") LocalDateTime since, Pageable pageable);
+    
+    // Set-based state changes. Rows already in the target state are skipped, so the returned count
+    // is the number of memories actually changed. The ...ForOwner variants only touch that user's memories.
+    // Each also stamps deactivatedAt, which ArchivalService's retention window counts from.
+    String DEACTIVATED_AT = "m.deactivatedAt = CASE WHEN :active = true THEN NULL ELSE LOCAL DATETIME END";
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Memory m SET m.isActive = :active, " + DEACTIVATED_AT +
+           " WHERE m.id IN :ids AND m.isActive <> :active")
+    int updateActiveByIds(@Param("ids") Collection<UUID> ids, @Param("active") boolean active);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Memory m SET m.isActive = :active, " + DEACTIVATED_AT +
+           " WHERE m.id IN :ids AND m.isActive <> :active AND " +
+           "m.user.id = :ownerId")
+    int updateActiveByIdsForOwner(@Param("ids") Collection<UUID> ids, @Param("active") boolean active,
+                                  @Param("ownerId") UUID ownerId);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Memory m SET m.isActive = :active, " + DEACTIVATED_AT +
+           " WHERE m.user.id = :userId AND m.isActive <> :active")
+    int updateActiveByUser(@Param("userId") UUID userId, @Param("active") boolean active);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Memory m SET m.isActive = :active, " + DEACTIVATED_AT +
+           " WHERE m.emotion = :emotion AND m.isActive <> :active")
+    int updateActiveByEmotion(@Param("emotion") String emotion, @Param("active") boolean active);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Memory m SET m.isActive = :active, " + DEACTIVATED_AT +
+           " WHERE m.emotion = :emotion AND m.isActive <> :active AND " +
+           "m.user.id = :ownerId")
+    int updateActiveByEmotionForOwner(@Param("emotion") String emotion, @Param("active") boolean active,
+                                      @Param("ownerId") UUID ownerId);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Memory m SET m.isActive = :active, " + DEACTIVATED_AT +
+           " WHERE m.isActive <> :active AND " +
+           "m.latitude BETWEEN :lat - :radius AND :lat + :radius AND " +
+           "m.longitude BETWEEN :lng - :radius AND :lng + :radius AND " +
+           "SQRT(POWER(m.latitude - :lat, 2) + POWER(m.longitude - :lng, 2)) <= :radius")
+    int updateActiveInRegion(@Param("lat") Double latitude, @Param("lng") Double longitude,
+                             @Param("radius") Double radius, @Param("active") boolean active);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Memory m SET m.isActive = :active, " + DEACTIVATED_AT +
+           " WHERE m.isActive <> :active AND m.user.id = :ownerId AND " +
+           "m.latitude BETWEEN :lat - :radius AND :lat + :radius AND " +
+           "m.longitude BETWEEN :lng - :radius AND :lng + :radius AND " +
+           "SQRT(POWER(m.latitude - :lat, 2) + POWER(m.longitude - :lng, 2)) <= :radius")
+    int updateActiveInRegionForOwner(@Param("lat") Double latitude, @Param("lng") Double longitude,
+                                     @Param("radius") Double radius, @Param("active") boolean active,
+                                     @Param("ownerId") UUID ownerId);
+    
+    // Atomic, so concurrent unlocks of the same memory cannot lose increments. Matches no row once the
+    // memory is deactivated or archived, which is how an unlock finds out it has nothing to count
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Memory m SET m.unlockCount = COALESCE(m.unlockCount, 0) + 1 WHERE m.id = :id AND m.isActive = true")
+    int incrementUnlockCount(@Param("id") UUID id);
 }
@@ -3,32 +3,66 @@ package com.echo.backend.repository;
 import com.echo.backend.model.Memory;
 import com.echo.backend.model.MemoryUnlock;
 import com.echo.backend.model.User;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface MemoryUnlockRepository extends JpaRepository<MemoryUnlock, UUID> {
 
+    // Listings load the unlocking user with the row; the memory stays lazy since responses only
+    // carry its id, which is available from the proxy
+    @EntityGraph(attributePaths = "unlockedBy")
     List<MemoryUnlock> findByMemory(Memory memory);
     
+    @EntityGraph(attributePaths = "unlockedBy")
     List<MemoryUnlock> findByUnlockedBy(User user);
     
+    @EntityGraph(attributePaths = "unlockedBy")
     List<MemoryUnlock> findByMemoryOrderByUnlockedAtDesc(Memory memory);
     
+    @EntityGraph(attributePaths = "unlockedBy")
     List<MemoryUnlock> findByUnlockedByOrderByUnlockedAtDesc(User user);
     
+    @EntityGraph(attributePaths = "unlockedBy")
     @Query("SELECT mu FROM MemoryUnlock mu WHERE mu.memory.id = :memoryId")
     List<MemoryUnlock> findByMemoryId(@Param("memoryId") UUID memoryId);
     
+    // memory_unlocks is range-partitioned on unlocked_at. Unlocks cannot predate the memory (or
+    // the unlocking account), so passing that instant as the bound prunes without changing results.
+    @EntityGraph(attributePaths = "unlockedBy")
+    @Query("SELECT mu FROM MemoryUnlock mu WHERE mu.memory = :memory AND mu.unlockedAt >= :since")
+    List<MemoryUnlock> findByMemorySince(@Param("memory") Memory memory, @Param("since") LocalDateTime since);
+    
+    @EntityGraph(attributePaths = "unlockedBy")
+    @Query("SELECT mu FROM MemoryUnlock mu WHERE mu.unlockedBy = :user AND mu.unlockedAt >= :since")
+    List<MemoryUnlock> findByUnlockedBySince(@Param("user") User user, @Param("since") LocalDateTime since);
+    
+    @EntityGraph(attributePaths = "unlockedBy")
     @Query("SELECT mu FROM MemoryUnlock mu WHERE mu.unlockedBy.id = :userId")
     List<MemoryUnlock> findByUserId(@Param("userId") UUID userId);
     
     boolean existsByMemoryAndUnlockedBy(Memory memory, User user);
     
+    // memory_unlock_keys also covers unlocks moved to memory_unlocks_archive
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM memory_unlock_keys WHERE memory_id = :memoryId AND unlocked_by = :userId)",
+           nativeQuery = true)
+    boolean existsByMemoryIdAndUserId(@Param("memoryId") UUID memoryId, @Param("userId") UUID userId);
+    
+    // Every (memoryId, userId) pair, streamed for seeding the duplicate-unlock Bloom filter
+    @Query("SELECT mu.memory.id, mu.unlockedBy.id FROM MemoryUnlock mu")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    Stream<Object[]> streamUnlockPairs();
+    
     @Query("SELECT COUNT(mu) FROM MemoryUnlock mu WHERE mu.memory.id = :memoryId")
     long countByMemoryId(@Param("memoryId") UUID memoryId);
     
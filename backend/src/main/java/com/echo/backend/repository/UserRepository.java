@@ -1,9 +1,11 @@
 package com.echo.backend.repository;
 
 import com.echo.backend.model.User;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -19,6 +21,12 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     
     boolean existsByUsername(String username);
     
+    List<User> findByEmailOrUsername(String email, String username);
+    
     @Query("SELECT u FROM User u WHERE u.email = :email AND u.password = :password")
     Optional<User> findByEmailAndPassword(@Param("email") String email, @Param("password") String password);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.hasCompletedOnboarding = true WHERE u.id = :id AND u.hasCompletedOnboarding = false")
+    int markOnboardingComplete(@Param("id") UUID id);
 }
@@ -1,9 +1,14 @@
 package com.echo.backend.repository;
 
 import com.echo.backend.model.WaitlistUser;
+import jakarta.persistence.QueryHint;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -12,4 +17,9 @@ public interface WaitlistUserRepository extends JpaRepository<WaitlistUser, UUID
     Optional<WaitlistUser> findByEmail(String email);
     
     boolean existsByEmail(String email);
+    
+    // All emails, streamed for seeding the ingestion dedupe filter
+    @Query("SELECT w.email FROM WaitlistUser w")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    Stream<String> streamEmails();
 }
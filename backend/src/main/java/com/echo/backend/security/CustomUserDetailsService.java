@@ -19,6 +19,19 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return toUserDetails(findUser(username), true);
+    }
+
+    /**
+     * The user behind a validated token, for {@link UserDetailsCache}. The details carry no
+     * password hash, since token authentication never checks it.
+     */
+    public UserDetailsCache.Loaded loadForToken(String username) throws UsernameNotFoundException {
+        User user = findUser(username);
+        return new UserDetailsCache.Loaded(user.getId(), toUserDetails(user, false));
+    }
+
+    private User findUser(String username) {
         User user = userService.findByUsername(username).orElse(null);
         
         if (user == null) {
@@ -29,10 +42,18 @@ public class CustomUserDetailsService implements UserDetailsService {
         if (user == null) {
             throw new UsernameNotFoundException("User not found with username or email: " + username);
         }
+        return user;
+    }
 
+    private UserDetails toUserDetails(User user, boolean withPassword) {
+        // Accounts queued for deletion are disabled
         return new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
-                user.getPassword(),
+                withPassword ? user.getPassword() : "",
+                user.getDeletionRequestedAt() == null,
+                true,
+                true,
+                true,
                 Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
         );
     }
@@ -1,5 +1,6 @@
 package com.echo.backend.security;
 
+import com.echo.backend.jfr.TokenVerificationEvent;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import java.util.Date;
@@ -85,14 +86,19 @@ public class JwtTokenProvider {
     }
 
     public boolean validateToken(String token) {
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.start();
         try {
             Jwts.parser()
                     .verifyWith(getSigningKey())
                     .build()
                     .parseSignedClaims(token);
+            event.valid = true;
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
+        } finally {
+            event.finish();
         }
     }
 
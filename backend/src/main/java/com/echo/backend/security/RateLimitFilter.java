@@ -0,0 +1,123 @@
+package com.echo.backend.security;
+
+import com.echo.backend.config.RateLimitProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Applies the per-route token buckets from {@link RateLimitProperties} before any JWT parsing
+ * or BCrypt work happens, answering {@code 429} with {@code Retry-After} when a bucket is empty.
+ *
+ * USER-keyed routes use the verified {@code userId} claim of the bearer token and fall back to
+ * the client IP for anonymous callers. The IP is {@code request.getRemoteAddr()}, which honours
+ * {@code X-Forwarded-For} from the nginx tier via {@code server.forward-headers-strategy}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    private TokenBucketRateLimiter limiter;
+
+    @PostConstruct
+    public void init() {
+        limiter = new TokenBucketRateLimiter(properties.getStripes(), properties.getMaxBuckets(),
+                properties.getIdleEvictionMs());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!properties.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String path = urlPathHelper.getPathWithinApplication(request);
+        String userKey = null;
+        List<RateLimitProperties.Route> routes = properties.getRoutes();
+        for (int i = 0; i < routes.size(); i++) {
+            RateLimitProperties.Route route = routes.get(i);
+            if (!matches(route, request.getMethod(), path)) {
+                continue;
+            }
+
+            String key;
+            if (route.getKey() == RateLimitProperties.KeyType.USER) {
+                if (userKey == null) {
+                    userKey = resolveUserKey(request);
+                }
+                key = userKey;
+            } else {
+                key = "ip:" + request.getRemoteAddr();
+            }
+
+            long waitNanos = limiter.tryAcquire(i + "|" + key, route.getCapacity(), route.getRefillPerMinute());
+            if (waitNanos > 0) {
+                reject(response, waitNanos);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${ratelimit.idle-eviction-ms:60000}")
+    public void evictIdleBuckets() {
+        limiter.evictIdle();
+    }
+
+    private boolean matches(RateLimitProperties.Route route, String method, String path) {
+        if (!route.getMethods().isEmpty() && route.getMethods().stream().noneMatch(method::equalsIgnoreCase)) {
+            return false;
+        }
+        return pathMatcher.match(route.getPath(), path);
+    }
+
+    private String resolveUserKey(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
+            try {
+                UUID userId = tokenProvider.getUserIdFromToken(header.substring(7));
+                if (userId != null) {
+                    return "user:" + userId;
+                }
+            } catch (Exception ignored) {
+                // Invalid tokens are rejected later by the security chain; limit them by IP here
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests, retry in " + retryAfterSeconds + "s\"}");
+    }
+}
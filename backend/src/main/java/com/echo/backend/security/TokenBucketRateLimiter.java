@@ -0,0 +1,96 @@
+package com.echo.backend.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token buckets, one per key, kept in a fixed number of independent stripes.
+ *
+ * Each bucket is a single {@link AtomicLong} holding its "theoretical arrival time" (the GCRA
+ * formulation of a token bucket): the instant at which the bucket would be full again. Taking
+ * a token is one CAS that pushes that instant forward by one emission interval. A bucket whose
+ * instant is in the past is indistinguishable from a brand-new one, so idle buckets can be
+ * dropped at any time without changing behaviour, which is what keeps memory bounded.
+ */
+public class TokenBucketRateLimiter {
+
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+    private final int maxBucketsPerStripe;
+    private final long idleEvictionNanos;
+
+    @SuppressWarnings("unchecked")
+    public TokenBucketRateLimiter(int stripeCount, int maxBuckets, long idleEvictionMs) {
+        this.stripes = new ConcurrentHashMap[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.maxBucketsPerStripe = Math.max(1, maxBuckets / stripes.length);
+        this.idleEvictionNanos = idleEvictionMs * 1_000_000L;
+    }
+
+    /**
+     * Tries to take one token from the bucket for {@code key}.
+     *
+     * @return 0 when the request is allowed, otherwise the number of nanoseconds until a token
+     *         becomes available
+     */
+    public long tryAcquire(String key, int capacity, int refillPerMinute) {
+        long intervalNanos = 60_000_000_000L / Math.max(1, refillPerMinute);
+        long burstNanos = intervalNanos * Math.max(1, capacity);
+        long now = System.nanoTime();
+
+        ConcurrentHashMap<String, AtomicLong> stripe = stripeFor(key);
+        AtomicLong tat = stripe.get(key);
+        if (tat == null) {
+            if (stripe.size() >= maxBucketsPerStripe) {
+                evictIdle(stripe, now);
+                if (stripe.size() >= maxBucketsPerStripe) {
+                    // Under a key flood we fail open rather than grow without bound
+                    return 0;
+                }
+            }
+            tat = stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, now);
+            long next = base + intervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have been full for longer than the idle window.
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            evictIdle(stripe, now);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private void evictIdle(ConcurrentHashMap<String, AtomicLong> stripe, long now) {
+        stripe.values().removeIf(tat -> now - tat.get() > idleEvictionNanos);
+    }
+
+    private ConcurrentHashMap<String, AtomicLong> stripeFor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[Math.floorMod(h, stripes.length)];
+    }
+}
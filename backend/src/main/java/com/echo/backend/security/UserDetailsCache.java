@@ -0,0 +1,118 @@
+package com.echo.backend.security;
+
+import com.echo.backend.cache.CacheEvent;
+import com.echo.backend.cache.CacheInvalidationListener;
+import com.echo.backend.jfr.CacheLookupEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caches the user the JWT filter looks up on every authenticated request, keyed by the name in
+ * the token. USER_UPDATED events from {@link com.echo.backend.cache.CacheInvalidationBus} drop the
+ * user's entries on every node, so an account queued for deletion stops authenticating
+ * everywhere at once; {@code user-cache.ttl-ms} bounds staleness if an event is ever lost. Past
+ * {@code user-cache.max-entries} the least likely users to authenticate again are evicted one at a
+ * time, so a full cache never sends every request back to the database at once.
+ */
+@Component
+public class UserDetailsCache implements CacheInvalidationListener {
+
+    /** What a cache miss loads: the user's id, for invalidation, and their details. */
+    public record Loaded(UUID userId, UserDetails details) {}
+
+    private record Entry(UUID userId, UserDetails details) {}
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${user-cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    private Cache<String, Entry> entries;
+    // Bumped by every invalidation, so a load that raced one is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void init() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+        hits = Counter.builder("echo.cache.users").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("echo.cache.users").tag("result", "miss").register(meterRegistry);
+    }
+
+    public UserDetails get(String name, Function<String, Loaded> loader) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.start();
+        event.cache = "users";
+        Entry cached = entries.getIfPresent(name);
+        if (cached != null) {
+            hits.increment();
+            event.hit = true;
+            event.finish();
+            return cached.details();
+        }
+        misses.increment();
+
+        long seen = generation.get();
+        Loaded loaded = loader.apply(name);
+        Entry entry = new Entry(loaded.userId(), loaded.details());
+        entries.put(name, entry);
+        if (generation.get() != seen) {
+            entries.asMap().remove(name, entry);
+        }
+        event.finish();
+        return loaded.details();
+    }
+
+    @Override
+    public void invalidate(Collection<CacheEvent> events) {
+        Set<UUID> users = new HashSet<>();
+        for (CacheEvent event : events) {
+            if (event.type() == CacheEvent.Type.USER_UPDATED) {
+                users.add(event.id());
+            }
+        }
+        if (!users.isEmpty()) {
+            generation.incrementAndGet();
+            List<String> names = entries.asMap().entrySet().stream()
+                    .filter(cached -> users.contains(cached.getValue().userId()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            entries.invalidateAll(names);
+        }
+    }
+
+    @Override
+    public void resync() {
+        generation.incrementAndGet();
+        entries.invalidateAll();
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+}
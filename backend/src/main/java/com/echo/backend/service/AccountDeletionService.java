@@ -0,0 +1,310 @@
+package com.echo.backend.service;
+
+import com.echo.backend.cache.CacheEvent;
+import com.echo.backend.cache.CacheInvalidationBus;
+import com.echo.backend.dto.AccountDeletionStatus;
+import com.echo.backend.model.UuidV7Generator;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Deletes accounts without locking large row sets: {@link #requestDeletion} disables the account
+ * and records a job in account_deletions; a background worker then works through {@link Phase}
+ * in batches of {@code account-deletion.batch-size} rows, one short transaction per batch.
+ *
+ * Each batch locks the job row, deletes, and advances the recorded phase and row count in the
+ * same transaction, so after a crash the next run resumes exactly where the last commit left off
+ * and concurrent instances never work the same job at once. Between batches the worker sleeps so
+ * it uses at most {@code account-deletion.max-duty-cycle} of the time, and backs off further
+ * while foreground requests are waiting for database connections.
+ */
+@Service
+public class AccountDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountDeletionService.class);
+
+    private static final String RUNNING = "RUNNING";
+    private static final String DONE = "DONE";
+
+    private static final String USER_MEMORY_IDS = "(SELECT id FROM memories WHERE user_id = :userId"
+            + " UNION ALL SELECT id FROM memories_archive WHERE user_id = :userId)";
+
+    // Unlocks given by the user also come off the unlocked memories' unlock_count
+    private static final String DECREMENT_UNLOCK_COUNTS =
+            ", counts AS (SELECT memory_id, count(*) AS n FROM deleted GROUP BY memory_id)"
+            + ", hot AS (UPDATE memories m SET unlock_count = greatest(coalesce(m.unlock_count, 0) - counts.n, 0)"
+            + "   FROM counts WHERE m.id = counts.memory_id)"
+            + ", cold AS (UPDATE memories_archive a SET unlock_count = greatest(coalesce(a.unlock_count, 0) - counts.n, 0)"
+            + "   FROM counts WHERE a.id = counts.memory_id)";
+
+    /** Deletion order; each phase's SQL deletes at most :limit rows and selects how many it deleted. */
+    public enum Phase {
+        UNLOCKS_GIVEN("WITH deleted AS (DELETE FROM memory_unlocks mu USING ("
+                + " SELECT id, unlocked_at FROM memory_unlocks WHERE unlocked_by = :userId LIMIT :limit) d"
+                + " WHERE mu.id = d.id AND mu.unlocked_at = d.unlocked_at RETURNING mu.memory_id)"
+                + DECREMENT_UNLOCK_COUNTS + " SELECT count(*) FROM deleted"),
+        ARCHIVED_UNLOCKS_GIVEN("WITH deleted AS (DELETE FROM memory_unlocks_archive WHERE id IN ("
+                + " SELECT id FROM memory_unlocks_archive WHERE unlocked_by = :userId LIMIT :limit) RETURNING memory_id)"
+                + DECREMENT_UNLOCK_COUNTS + " SELECT count(*) FROM deleted"),
+        UNLOCK_KEYS_GIVEN("WITH deleted AS (DELETE FROM memory_unlock_keys k USING ("
+                + " SELECT memory_id, unlocked_by FROM memory_unlock_keys WHERE unlocked_by = :userId LIMIT :limit) d"
+                + " WHERE k.memory_id = d.memory_id AND k.unlocked_by = d.unlocked_by RETURNING 1)"
+                + " SELECT count(*) FROM deleted"),
+        UNLOCKS_RECEIVED("WITH deleted AS (DELETE FROM memory_unlocks mu USING ("
+                + " SELECT id, unlocked_at FROM memory_unlocks WHERE memory_id IN " + USER_MEMORY_IDS + " LIMIT :limit) d"
+                + " WHERE mu.id = d.id AND mu.unlocked_at = d.unlocked_at RETURNING 1)"
+                + " SELECT count(*) FROM deleted"),
+        ARCHIVED_UNLOCKS_RECEIVED("WITH deleted AS (DELETE FROM memory_unlocks_archive WHERE id IN ("
+                + " SELECT id FROM memory_unlocks_archive WHERE memory_id IN " + USER_MEMORY_IDS + " LIMIT :limit)"
+                + " RETURNING 1) SELECT count(*) FROM deleted"),
+        UNLOCK_KEYS_RECEIVED("WITH deleted AS (DELETE FROM memory_unlock_keys k USING ("
+                + " SELECT memory_id, unlocked_by FROM memory_unlock_keys WHERE memory_id IN " + USER_MEMORY_IDS
+                + " LIMIT :limit) d WHERE k.memory_id = d.memory_id AND k.unlocked_by = d.unlocked_by RETURNING 1)"
+                + " SELECT count(*) FROM deleted"),
+        MEMORIES("WITH deleted AS (DELETE FROM memories m USING ("
+                + " SELECT id, created_at FROM memories WHERE user_id = :userId LIMIT :limit) d"
+                + " WHERE m.id = d.id AND m.created_at = d.created_at RETURNING 1)"
+                + " SELECT count(*) FROM deleted"),
+        ARCHIVED_MEMORIES("WITH deleted AS (DELETE FROM memories_archive WHERE id IN ("
+                + " SELECT id FROM memories_archive WHERE user_id = :userId LIMIT :limit) RETURNING 1)"
+                + " SELECT count(*) FROM deleted"),
+        EMOTION_PROFILES("WITH deleted AS (DELETE FROM emotion_profiles WHERE id IN ("
+                + " SELECT id FROM emotion_profiles WHERE user_id = :userId LIMIT :limit) RETURNING 1)"
+                + " SELECT count(*) FROM deleted"),
+        USER("WITH deleted AS (DELETE FROM users WHERE id = :userId RETURNING 1) SELECT count(*) FROM deleted");
+
+        private final String sql;
+
+        Phase(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private static final RowMapper<AccountDeletionStatus> STATUS_MAPPER = (rs, rowNum) -> new AccountDeletionStatus(
+            rs.getObject("id", UUID.class),
+            rs.getString("status"),
+            rs.getString("phase"),
+            rs.getLong("rows_deleted"),
+            toLocalDateTime(rs.getTimestamp("requested_at")),
+            toLocalDateTime(rs.getTimestamp("updated_at")),
+            toLocalDateTime(rs.getTimestamp("completed_at")));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${account-deletion.enabled:true}")
+    private boolean enabled;
+
+    @Value("${account-deletion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${account-deletion.max-duty-cycle:0.25}")
+    private double maxDutyCycle;
+
+    @Value("${account-deletion.min-pause-ms:20}")
+    private long minPauseMs;
+
+    @Value("${account-deletion.busy-backoff-ms:1000}")
+    private long busyBackoffMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService worker;
+    private Counter rowsDeleted;
+
+    @PostConstruct
+    public void init() {
+        worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "account-deletion");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rowsDeleted = Counter.builder("echo.account.deletion.rows")
+                .description("Rows removed by the account deletion pipeline")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Disables the account and queues its deletion. Returns the existing job when one is already
+     * running for this user.
+     */
+    public AccountDeletionStatus requestDeletion(UUID userId) {
+        AccountDeletionStatus status = transactionTemplate.execute(tx -> {
+            Optional<AccountDeletionStatus> existing = jdbcTemplate.query(
+                    "SELECT * FROM account_deletions WHERE user_id = ? AND status = 'RUNNING'", STATUS_MAPPER, userId)
+                    .stream().findFirst();
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+            jdbcTemplate.update("UPDATE users SET deletion_requested_at = now() WHERE id = ?", userId);
+            // Cached logins of this user stop working on every node
+            cacheInvalidationBus.publish(CacheEvent.Type.USER_UPDATED, userId);
+            UUID id = UuidV7Generator.next();
+            jdbcTemplate.update("INSERT INTO account_deletions (id, user_id, status, phase, requested_at, updated_at)"
+                    + " VALUES (?, ?, 'RUNNING', ?, now(), now())", id, userId, Phase.values()[0].name());
+            return findStatus(id).orElseThrow();
+        });
+        triggerWorker();
+        return status;
+    }
+
+    public Optional<AccountDeletionStatus> findStatus(UUID deletionId) {
+        return jdbcTemplate.query("SELECT * FROM account_deletions WHERE id = ?", STATUS_MAPPER, deletionId)
+                .stream().findFirst();
+    }
+
+    /** The deletion's progress if it is the given user's deletion. */
+    public Optional<AccountDeletionStatus> findStatus(UUID deletionId, UUID userId) {
+        return jdbcTemplate.query("SELECT * FROM account_deletions WHERE id = ? AND user_id = ?", STATUS_MAPPER,
+                        deletionId, userId)
+                .stream().findFirst();
+    }
+
+    // Also picks up jobs left RUNNING by a crash or restart
+    @Scheduled(fixedDelayString = "${account-deletion.poll-interval-ms:30000}")
+    public void triggerWorker() {
+        if (enabled && running.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                try {
+                    processPending();
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    private void processPending() {
+        List<UUID> pending = jdbcTemplate.queryForList(
+                "SELECT id FROM account_deletions WHERE status = 'RUNNING' ORDER BY requested_at LIMIT 100", UUID.class);
+        for (UUID deletionId : pending) {
+            try {
+                runToCompletion(deletionId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Account deletion {} failed; it will resume on the next run", deletionId, e);
+            }
+        }
+    }
+
+    private void runToCompletion(UUID deletionId) throws InterruptedException {
+        while (true) {
+            long started = System.nanoTime();
+            Boolean more;
+            try {
+                more = transactionTemplate.execute(tx -> step(deletionId));
+            } catch (DataIntegrityViolationException e) {
+                // Something was written for the user while they were being deleted; sweep again
+                logger.warn("Account deletion {} found new dependent rows; restarting its phases", deletionId);
+                jdbcTemplate.update("UPDATE account_deletions SET phase = ?, updated_at = now() WHERE id = ?",
+                        Phase.values()[0].name(), deletionId);
+                more = true;
+            }
+            if (more == null || !more) {
+                return;
+            }
+            throttle(System.nanoTime() - started);
+        }
+    }
+
+    /** Runs one batch; returns false once the job is done or owned by another instance. */
+    private boolean step(UUID deletionId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT user_id, phase FROM account_deletions WHERE id = ? AND status = 'RUNNING' FOR UPDATE SKIP LOCKED",
+                deletionId);
+        if (rows.isEmpty()) {
+            return false;
+        }
+        UUID userId = (UUID) rows.get(0).get("user_id");
+        Phase phase = Phase.valueOf((String) rows.get(0).get("phase"));
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("limit", batchSize);
+        Integer deleted = namedParameterJdbcTemplate.queryForObject(phase.sql, params, Integer.class);
+        int count = deleted == null ? 0 : deleted;
+        rowsDeleted.increment(count);
+
+        boolean phaseComplete = count < batchSize;
+        boolean done = phaseComplete && phase == Phase.USER;
+        Phase next = phaseComplete && !done ? Phase.values()[phase.ordinal() + 1] : phase;
+
+        jdbcTemplate.update("UPDATE account_deletions SET phase = ?, status = ?, rows_deleted = rows_deleted + ?,"
+                        + " updated_at = now(), completed_at = CASE WHEN ? THEN now() END WHERE id = ?",
+                next.name(), done ? DONE : RUNNING, count, done, deletionId);
+        if (phaseComplete && phase == Phase.ARCHIVED_MEMORIES) {
+            // The user's memories are gone and unlock counts adjusted; read models and caches
+            // still hold them and are told at commit, on every node
+            cacheInvalidationBus.publishResync();
+        }
+        if (done) {
+            logger.info("Account deletion {} finished for user {}", deletionId, userId);
+        } else if (next != phase) {
+            logger.debug("Account deletion {} moved to phase {}", deletionId, next);
+        }
+        return !done;
+    }
+
+    private void throttle(long batchNanos) throws InterruptedException {
+        long batchMs = batchNanos / 1_000_000;
+        long pauseMs = Math.max(minPauseMs, (long) (batchMs * (1 - maxDutyCycle) / maxDutyCycle));
+        HikariPoolMXBean pool = primaryDataSource.getHikariPoolMXBean();
+        if (pool != null && pool.getThreadsAwaitingConnection() > 0) {
+            pauseMs = Math.max(pauseMs, busyBackoffMs);
+        }
+        Thread.sleep(pauseMs);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
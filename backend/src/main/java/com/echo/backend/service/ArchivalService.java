@@ -0,0 +1,176 @@
+package com.echo.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Moves cold rows out of the hot partitioned tables into memories_archive and
+ * memory_unlocks_archive (migration V4): memories deactivated more than
+ * {@code archive.inactive-memory-days} ago (deactivated_at, V9) and unlocks older than
+ * {@code archive.unlock-retention-days}.
+ *
+ * Rows move in chunks, each a single DELETE ... RETURNING / INSERT in its own short transaction,
+ * with SKIP LOCKED so the job never waits on user traffic or on another instance running it.
+ * Archived memories stay readable through {@link MemoryService#findById} and are restored when
+ * reactivated, by id or by any of the bulk selectors.
+ */
+@Service
+public class ArchivalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchivalService.class);
+
+    private static final String MEMORY_COLUMNS = "id, user_id, title, description, content, audio_data, audio_url, "
+            + "emotion, emotion_confidence, latitude, longitude, location_name, duration, access_type, is_active, "
+            + "unlock_count, waveform_peaks, deactivated_at, created_at";
+
+    private static final String UNLOCK_COLUMNS = "id, memory_id, unlocked_by, echo_content, echo_audio_url, unlocked_at";
+
+    private static final String ARCHIVE_MEMORIES_SQL =
+            "WITH moved AS ("
+            + " DELETE FROM memories m USING ("
+            + "   SELECT id, created_at FROM memories WHERE NOT is_active AND deactivated_at < ?"
+            + "   LIMIT ? FOR UPDATE SKIP LOCKED) batch"
+            + " WHERE m.id = batch.id AND m.created_at = batch.created_at"
+            + " RETURNING m.*)"
+            + " INSERT INTO memories_archive (" + MEMORY_COLUMNS + ") SELECT " + MEMORY_COLUMNS + " FROM moved";
+
+    private static final String ARCHIVE_UNLOCKS_SQL =
+            "WITH moved AS ("
+            + " DELETE FROM memory_unlocks mu USING ("
+            + "   SELECT id, unlocked_at FROM memory_unlocks WHERE unlocked_at < ?"
+            + "   LIMIT ? FOR UPDATE SKIP LOCKED) batch"
+            + " WHERE mu.id = batch.id AND mu.unlocked_at = batch.unlocked_at"
+            + " RETURNING mu.*)"
+            + " INSERT INTO memory_unlocks_archive (" + UNLOCK_COLUMNS + ") SELECT " + UNLOCK_COLUMNS + " FROM moved";
+
+    // %s is the selector; every restore is limited to :ownerId's memories when it is not null
+    private static final String RESTORE_MEMORIES_SQL =
+            "WITH restored AS (DELETE FROM memories_archive WHERE %s"
+            + " AND (CAST(:ownerId AS uuid) IS NULL OR user_id = CAST(:ownerId AS uuid)) RETURNING " + MEMORY_COLUMNS + ")"
+            + " INSERT INTO memories (" + MEMORY_COLUMNS + ") SELECT " + MEMORY_COLUMNS + " FROM restored";
+
+    // Same selectors as the MemoryRepository.updateActive* queries
+    private static final String BY_IDS = "id IN (:ids)";
+    private static final String BY_USER = "user_id = :userId";
+    private static final String BY_EMOTION = "emotion = :emotion";
+    private static final String IN_REGION = "latitude BETWEEN :lat - :radius AND :lat + :radius"
+            + " AND longitude BETWEEN :lng - :radius AND :lng + :radius"
+            + " AND sqrt(power(latitude - :lat, 2) + power(longitude - :lng, 2)) <= :radius";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${archive.inactive-memory-days:30}")
+    private long inactiveMemoryDays;
+
+    @Value("${archive.unlock-retention-days:730}")
+    private long unlockRetentionDays;
+
+    @Value("${archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${archive.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${archive.pause-between-chunks-ms:50}")
+    private long pauseBetweenChunksMs;
+
+    @Scheduled(cron = "${archive.cron:0 45 3 * * *}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int memories = moveInChunks(ARCHIVE_MEMORIES_SQL, now.minusDays(inactiveMemoryDays));
+            int unlocks = moveInChunks(ARCHIVE_UNLOCKS_SQL, now.minusDays(unlockRetentionDays));
+            if (memories > 0 || unlocks > 0) {
+                logger.info("Archived {} memories and {} unlocks", memories, unlocks);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Archival run failed", e);
+        }
+    }
+
+    /**
+     * Moves the given memories back from the archive into the hot table, limited to ownerId's
+     * memories when it is not null. Joins the caller's transaction, so a following UPDATE in the
+     * same transaction sees the restored rows.
+     */
+    public int restoreMemories(Collection<UUID> ids, UUID ownerId) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return restore(BY_IDS, new MapSqlParameterSource("ids", ids), ownerId);
+    }
+
+    /** Like {@link #restoreMemories}, for all of a user's archived memories. */
+    public int restoreMemoriesByUser(UUID userId) {
+        return restore(BY_USER, new MapSqlParameterSource().addValue("userId", userId, Types.OTHER), null);
+    }
+
+    /** Like {@link #restoreMemories}, for the archived memories with the given emotion. */
+    public int restoreMemoriesByEmotion(String emotion, UUID ownerId) {
+        return restore(BY_EMOTION, new MapSqlParameterSource("emotion", emotion), ownerId);
+    }
+
+    /** Like {@link #restoreMemories}, for the archived memories within radius degrees of a point. */
+    public int restoreMemoriesInRegion(Double latitude, Double longitude, Double radius, UUID ownerId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lat", latitude)
+                .addValue("lng", longitude)
+                .addValue("radius", radius);
+        return restore(IN_REGION, params, ownerId);
+    }
+
+    private int restore(String selector, MapSqlParameterSource params, UUID ownerId) {
+        params.addValue("ownerId", ownerId, Types.OTHER);
+        return namedParameterJdbcTemplate.update(String.format(RESTORE_MEMORIES_SQL, selector), params);
+    }
+
+    private int moveInChunks(String sql, LocalDateTime cutoff) throws InterruptedException {
+        Timestamp before = Timestamp.valueOf(cutoff);
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            Integer moved = transactionTemplate.execute(status -> {
+                // Keeps memory_unlock_keys rows for archived unlocks (see V4 trigger)
+                jdbcTemplate.queryForObject("SELECT set_config('echo.archiving', 'on', true)", String.class);
+                return jdbcTemplate.update(sql, before, chunkSize);
+            });
+            if (moved == null || moved == 0) {
+                break;
+            }
+            total += moved;
+            if (moved < chunkSize) {
+                break;
+            }
+            Thread.sleep(pauseBetweenChunksMs);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,118 @@
+package com.echo.backend.service;
+
+import com.echo.backend.datasource.ReadYourWritesTracker;
+import com.echo.backend.dto.MemoryResponse;
+import com.echo.backend.dto.MemoryUnlockResponse;
+import com.echo.backend.exception.BackpressureException;
+import com.echo.backend.jfr.CacheLookupEvent;
+import com.echo.backend.model.Memory;
+import com.echo.backend.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Hot public reads that many clients request at the same moment: a shared memory, its unlocks,
+ * and the emotion map. Concurrent identical requests share one database round trip through a
+ * {@link SingleFlight} per endpoint and receive the same response objects, which callers must
+ * not modify.
+ *
+ * Callers who wrote within the read-your-writes window bypass coalescing, so they never receive
+ * a result that was read before their own write committed.
+ */
+@Service
+public class CoalescedReads {
+
+    private static final String MAP_KEY = "map";
+
+    @Autowired
+    private MemoryService memoryService;
+
+    @Autowired
+    private MemoryUnlockService memoryUnlockService;
+
+    @Autowired
+    private EmotionMapReadModel emotionMapReadModel;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${coalescing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${coalescing.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    private SingleFlight<UUID, Optional<MemoryResponse>> memories;
+    private SingleFlight<UUID, Optional<List<MemoryUnlockResponse>>> unlocks;
+    private SingleFlight<String, Map<String, Object>> emotionMap;
+
+    @PostConstruct
+    public void init() {
+        memories = new SingleFlight<>("memory", waitTimeoutMs, meterRegistry);
+        unlocks = new SingleFlight<>("memory-unlocks", waitTimeoutMs, meterRegistry);
+        emotionMap = new SingleFlight<>("emotion-map", waitTimeoutMs, meterRegistry);
+    }
+
+    public Optional<MemoryResponse> memory(UUID id) {
+        return coalesce(memories, id, () -> memoryService.findById(id).map(MemoryResponse::from));
+    }
+
+    /** The memory's unlocks, or empty when the memory does not exist. */
+    public Optional<List<MemoryUnlockResponse>> unlocks(UUID memoryId) {
+        return coalesce(unlocks, memoryId, () -> {
+            Optional<Memory> memory = memoryService.findById(memoryId);
+            return memory.map(m -> MemoryUnlockResponse.fromAll(memoryUnlockService.findByMemory(m)));
+        });
+    }
+
+    /**
+     * Served from {@link EmotionMapReadModel} once it is built or restored, except to callers who
+     * just wrote, since the model trails the database by up to one catch-up interval.
+     */
+    public Map<String, Object> emotionMap() {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.start();
+        event.cache = "emotion-map";
+        Map<String, Object> current = emotionMapReadModel.current();
+        if (current != null && !readYourWritesTracker.currentActorRecentlyWrote()) {
+            event.hit = true;
+            event.finish();
+            return current;
+        }
+        try {
+            return coalesce(emotionMap, MAP_KEY, () -> {
+                Map<String, Object> data = new HashMap<>();
+                data.put("emotionCounts", memoryService.countMemoriesByEmotion());
+                data.put("memories", MemoryResponse.fromAll(memoryService.findMemoriesForEmotionMap()));
+                return data;
+            });
+        } finally {
+            event.finish();
+        }
+    }
+
+    private <K, V> V coalesce(SingleFlight<K, V> flight, K key, Supplier<V> loader) {
+        if (!enabled || readYourWritesTracker.currentActorRecentlyWrote()) {
+            return loader.get();
+        }
+        try {
+            return flight.execute(key, loader);
+        } catch (TimeoutException e) {
+            throw new BackpressureException("Server is busy, please retry shortly", 1);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.echo.backend.service;
+
+import com.echo.backend.model.Memory;
+import com.echo.backend.util.AhoCorasick;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process text emotion classifier. Terms from {@code emotion-classifier.lexicon} are compiled
+ * into one {@link AhoCorasick} automaton, so scoring a memory is a single pass over its text and
+ * takes microseconds. Each term found on word boundaries, and not just after a negator, adds its
+ * weight to its emotion. The highest total wins, with confidence being its share of all weight
+ * found (smoothed, so a single weak term never scores 1.0).
+ */
+@Service
+public class EmotionClassifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmotionClassifier.class);
+
+    // Stored when neither the client nor the lexicon supplies an emotion; the client's own fallback
+    public static final String FALLBACK_EMOTION = "neutral";
+
+    private static final int NEGATOR = -1;
+    // Max characters between the end of a negator and the start of a term it cancels in the same clause
+    private static final int NEGATION_WINDOW = 12;
+    private static final float SMOOTHING = 1.0f;
+
+    @Value("${emotion-classifier.enabled:true}")
+    private boolean enabled;
+
+    @Value("${emotion-classifier.lexicon:classpath:emotion/lexicon.tsv}")
+    private Resource lexicon;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AhoCorasick automaton;
+    private String[] emotions;
+    private int[] emotionOf;
+    private float[] weightOf;
+    private Counter agreements;
+    private Counter disagreements;
+
+    @PostConstruct
+    public void load() throws IOException {
+        AhoCorasick.Builder builder = AhoCorasick.builder();
+        Map<String, Integer> emotionIndex = new LinkedHashMap<>();
+        List<int[]> terms = new ArrayList<>();
+        List<Float> weights = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(lexicon.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (fields.length != 3) {
+                    throw new IllegalStateException("Malformed lexicon line: " + line);
+                }
+                int emotion = "-".equals(fields[1])
+                        ? NEGATOR
+                        : emotionIndex.computeIfAbsent(fields[1].trim(), key -> emotionIndex.size());
+                terms.add(new int[]{builder.add(fields[0].trim()), emotion});
+                weights.add(Float.parseFloat(fields[2].trim()));
+            }
+        }
+
+        automaton = builder.build();
+        emotions = emotionIndex.keySet().toArray(new String[0]);
+        emotionOf = new int[automaton.patternCount()];
+        weightOf = new float[automaton.patternCount()];
+        for (int i = 0; i < terms.size(); i++) {
+            emotionOf[terms.get(i)[0]] = terms.get(i)[1];
+            weightOf[terms.get(i)[0]] = weights.get(i);
+        }
+
+        agreements = Counter.builder("echo.emotion.classifier.checks").tag("outcome", "agree")
+                .description("Client-supplied emotions the lexicon agreed with").register(meterRegistry);
+        disagreements = Counter.builder("echo.emotion.classifier.checks").tag("outcome", "disagree")
+                .description("Client-supplied emotions the lexicon scored differently").register(meterRegistry);
+        logger.info("Loaded emotion lexicon with {} terms for {} emotions", terms.size(), emotions.length);
+    }
+
+    /** Scores the given texts together; null entries are skipped. */
+    public Result classify(String... texts) {
+        float[] scores = new float[emotions.length];
+        for (String text : texts) {
+            if (text != null && !text.isEmpty()) {
+                score(text, scores);
+            }
+        }
+        return new Result(emotions, scores);
+    }
+
+    /**
+     * Fills in emotion and emotionConfidence when the client left them out. A client-supplied
+     * emotion is kept, since the user picked it, but is checked against the lexicon and given the
+     * lexicon's confidence for it if none was sent.
+     */
+    public void applyTo(Memory memory) {
+        Result result = enabled ? classify(memory.getContent(), memory.getDescription()) : Result.EMPTY;
+        if (memory.getEmotion() == null || memory.getEmotion().isBlank()) {
+            memory.setEmotion(result.isEmpty() ? FALLBACK_EMOTION : result.getEmotion());
+            memory.setEmotionConfidence(result.getConfidence());
+            return;
+        }
+        if (memory.getEmotionConfidence() == null) {
+            memory.setEmotionConfidence(result.confidenceFor(memory.getEmotion()));
+        }
+        if (!result.isEmpty()) {
+            (result.getEmotion().equalsIgnoreCase(memory.getEmotion()) ? agreements : disagreements).increment();
+        }
+    }
+
+    private void score(String text, float[] scores) {
+        int[] negatorEnd = {Integer.MIN_VALUE};
+        automaton.match(text, (pattern, start, end) -> {
+            if (!isWordBoundary(text, start, end)) {
+                return;
+            }
+            int emotion = emotionOf[pattern];
+            if (emotion == NEGATOR) {
+                negatorEnd[0] = end;
+            } else if (!isNegated(text, negatorEnd[0], start)) {
+                scores[emotion] += weightOf[pattern];
+            }
+        });
+    }
+
+    private static boolean isNegated(String text, int negatorEnd, int start) {
+        if (start < negatorEnd || start > negatorEnd + NEGATION_WINDOW) {
+            return false;
+        }
+        for (int i = negatorEnd; i < start; i++) {
+            if (",.;:!?".indexOf(text.charAt(i)) >= 0) {
+                return false; // negation ends with the clause
+            }
+        }
+        return true;
+    }
+
+    // Only edges that are letters or digits need a boundary, so "'t" still matches inside "don't"
+    private static boolean isWordBoundary(String text, int start, int end) {
+        boolean startOk = start == 0 || !Character.isLetterOrDigit(text.charAt(start))
+                || !Character.isLetterOrDigit(text.charAt(start - 1));
+        boolean endOk = end == text.length() || !Character.isLetterOrDigit(text.charAt(end - 1))
+                || !Character.isLetterOrDigit(text.charAt(end));
+        return startOk && endOk;
+    }
+
+    public static final class Result {
+
+        static final Result EMPTY = new Result(new String[0], new float[0]);
+
+        private final String[] emotions;
+        private final float[] scores;
+        private final float total;
+        private final int top;
+
+        Result(String[] emotions, float[] scores) {
+            this.emotions = emotions;
+            this.scores = scores;
+            float sum = 0;
+            int best = -1;
+            for (int i = 0; i < scores.length; i++) {
+                sum += scores[i];
+                if (scores[i] > 0 && (best < 0 || scores[i] > scores[best])) {
+                    best = i;
+                }
+            }
+            this.total = sum;
+            this.top = best;
+        }
+
+        public boolean isEmpty() {
+            return top < 0;
+        }
+
+        /** Highest-scoring emotion, or null when no lexicon term was found. */
+        public String getEmotion() {
+            return top < 0 ? null : emotions[top];
+        }
+
+        public double getConfidence() {
+            return top < 0 ? 0.0 : share(scores[top]);
+        }
+
+        public double confidenceFor(String emotion) {
+            for (int i = 0; i < emotions.length; i++) {
+                if (emotions[i].equalsIgnoreCase(emotion)) {
+                    return share(scores[i]);
+                }
+            }
+            return 0.0;
+        }
+
+        public Map<String, Double> getScores() {
+            Map<String, Double> result = new LinkedHashMap<>();
+            for (int i = 0; i < emotions.length; i++) {
+                if (scores[i] > 0) {
+                    result.put(emotions[i], share(scores[i]));
+                }
+            }
+            return result;
+        }
+
+        private double share(float score) {
+            return Math.round(score / (total + SMOOTHING) * 1000) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.echo.backend.service;
+
+import com.echo.backend.cache.CacheEvent;
+import com.echo.backend.cache.CacheInvalidationListener;
+import com.echo.backend.dto.MemoryResponse;
+import com.echo.backend.model.Memory;
+import com.echo.backend.repository.MemoryRepository;
+import com.echo.backend.util.DiscoveryWindow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the emotion map ({@code GET /emotions/map}): counts of active memories per
+ * emotion, and previews of the public memories in the discovery window. Every
+ * {@code read-model.emotion-map.catch-up-interval-ms} it reads only memories created since its
+ * created_at watermark, plus any the cache bus reported as changed; every
+ * {@code rebuild-interval-ms} it rebuilds in full, which is when unlock counts, changed
+ * private memories and the moving window catch up.
+ *
+ * {@link com.echo.backend.snapshot.WarmStartSnapshot} saves it and restores it at startup, so
+ * a restarted node serves the map at once and only catches up on what it missed.
+ */
+@Service
+public class EmotionMapReadModel implements CacheInvalidationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmotionMapReadModel.class);
+
+    private static final String COUNTS_SQL = "SELECT emotion, count(*) FROM memories WHERE is_active GROUP BY emotion";
+
+    private static final String NEWEST_SQL = "SELECT max(created_at) FROM memories WHERE is_active";
+
+    // Served by idx_memories_active_created (V8)
+    private static final String CREATED_SINCE_SQL = "SELECT id, emotion, access_type, created_at FROM memories"
+            + " WHERE is_active AND created_at > ? ORDER BY created_at";
+
+    // Keeps IN lists well below the driver's bind parameter limit
+    private static final int FETCH_CHUNK = 1000;
+
+    /**
+     * Everything the model holds, as saved in and restored from a snapshot. nearWatermark maps the
+     * ids counted within overlap-ms of the watermark to their created_at, so catch-up skips them.
+     * rebuiltAt is when the last full rebuild started, the point the state is exact as of.
+     */
+    public record State(Map<String, Long> counts, List<MemoryResponse> points, long watermark,
+                        Map<UUID, Long> nearWatermark, long rebuiltAt) {}
+
+    private record Created(UUID id, String emotion, boolean isPublic, long createdAt) {}
+
+    private static final RowMapper<Created> CREATED_MAPPER = (rs, rowNum) -> new Created(
+            rs.getObject("id", UUID.class),
+            rs.getString("emotion"),
+            Memory.AccessType.PUBLIC.name().equals(rs.getString("access_type")),
+            rs.getTimestamp("created_at").getTime());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MemoryRepository memoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${read-model.emotion-map.enabled:true}")
+    private boolean enabled;
+
+    @Value("${memories.discovery-window-days:0}")
+    private long windowDays;
+
+    @Value("${read-model.emotion-map.rebuild-interval-ms:600000}")
+    private long rebuildIntervalMs;
+
+    // How far behind the watermark catch-up looks again, for rows whose transaction committed late
+    @Value("${read-model.emotion-map.overlap-ms:10000}")
+    private long overlapMs;
+
+    // Guarded by this
+    private final Map<String, Long> counts = new HashMap<>();
+    private final Map<UUID, MemoryResponse> points = new LinkedHashMap<>();
+    private final Map<UUID, Long> countedNearWatermark = new HashMap<>(); // ids within overlapMs of the watermark
+    private long watermark; // epoch millis of the newest created_at counted
+    private long lastRebuildAt;
+
+    private final Set<UUID> changed = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuildRequested;
+    private volatile Map<String, Object> data; // null until built or restored
+    private Timer rebuildTimer;
+    private Timer catchUpTimer;
+
+    @PostConstruct
+    public void init() {
+        rebuildTimer = Timer.builder("echo.readmodel.refresh").tag("model", "emotion-map").tag("type", "rebuild")
+                .register(meterRegistry);
+        catchUpTimer = Timer.builder("echo.readmodel.refresh").tag("model", "emotion-map").tag("type", "catch-up")
+                .register(meterRegistry);
+    }
+
+    /** The map response data, or null while the model has neither been built nor restored. */
+    public Map<String, Object> current() {
+        return enabled ? data : null;
+    }
+
+    @Scheduled(fixedDelayString = "${read-model.emotion-map.catch-up-interval-ms:10000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            boolean full;
+            synchronized (this) {
+                full = data == null || rebuildRequested || System.currentTimeMillis() - lastRebuildAt >= rebuildIntervalMs;
+            }
+            if (full) {
+                rebuildRequested = false;
+                rebuildTimer.record(this::rebuild);
+            } else {
+                catchUpTimer.record(this::catchUp);
+            }
+        } catch (Exception e) {
+            logger.error("Emotion map refresh failed; serving the previous state", e);
+        }
+    }
+
+    @Override
+    public void invalidate(Collection<CacheEvent> events) {
+        for (CacheEvent event : events) {
+            if (event.type() == CacheEvent.Type.MEMORY_UPDATED || event.type() == CacheEvent.Type.MEMORY_DEACTIVATED) {
+                changed.add(event.id());
+            }
+        }
+    }
+
+    @Override
+    public void resync() {
+        rebuildRequested = true;
+    }
+
+    public synchronized State state() {
+        if (data == null) {
+            return null;
+        }
+        return new State(new HashMap<>(counts), new ArrayList<>(points.values()), watermark,
+                new HashMap<>(countedNearWatermark), lastRebuildAt);
+    }
+
+    /**
+     * Serves a saved state from now on. The next refresh catches up from its watermark; the next
+     * full rebuild is due rebuild-interval-ms after the one the state came from, so a state older
+     * than that is rebuilt on the first refresh.
+     */
+    public synchronized void restore(State state) {
+        counts.clear();
+        counts.putAll(state.counts());
+        points.clear();
+        for (MemoryResponse point : state.points()) {
+            points.put(point.getId(), point);
+        }
+        countedNearWatermark.clear();
+        countedNearWatermark.putAll(state.nearWatermark());
+        watermark = state.watermark();
+        lastRebuildAt = state.rebuiltAt();
+        publish();
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        LocalDateTime windowStart = DiscoveryWindow.start(windowDays);
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        // One snapshot for counts, previews and watermark, so catch-up neither misses nor double counts
+        template.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        template.executeWithoutResult(status -> {
+            Map<String, Long> freshCounts = new HashMap<>();
+            jdbcTemplate.query(COUNTS_SQL, rs -> {
+                freshCounts.put(rs.getString(1), rs.getLong(2));
+            });
+            Timestamp newest = jdbcTemplate.queryForObject(NEWEST_SQL, Timestamp.class);
+            long newWatermark = newest != null ? newest.getTime() : 0;
+            List<Created> nearWatermark = jdbcTemplate.query(CREATED_SINCE_SQL, CREATED_MAPPER,
+                    new Timestamp(newWatermark - overlapMs));
+            List<MemoryResponse> previews = MemoryResponse.fromAll(memoryRepository.findMemoriesForEmotionMap(windowStart));
+
+            synchronized (this) {
+                counts.clear();
+                counts.putAll(freshCounts);
+                points.clear();
+                for (MemoryResponse preview : previews) {
+                    points.put(preview.getId(), preview);
+                }
+                countedNearWatermark.clear();
+                for (Created created : nearWatermark) {
+                    countedNearWatermark.put(created.id(), created.createdAt());
+                }
+                watermark = newWatermark;
+                lastRebuildAt = started;
+                publish();
+            }
+        });
+        logger.debug("Rebuilt emotion map with {} points in {} ms", points.size(), System.currentTimeMillis() - started);
+    }
+
+    private void catchUp() {
+        long from;
+        synchronized (this) {
+            from = watermark - overlapMs;
+        }
+        List<Created> created = jdbcTemplate.query(CREATED_SINCE_SQL, CREATED_MAPPER, new Timestamp(from));
+        long windowStart = Timestamp.valueOf(DiscoveryWindow.start(windowDays)).getTime();
+
+        Set<UUID> refetch = new LinkedHashSet<>();
+        for (Iterator<UUID> it = changed.iterator(); it.hasNext(); ) {
+            refetch.add(it.next());
+            it.remove();
+        }
+        Set<UUID> fetch = new LinkedHashSet<>(refetch);
+        boolean counted = false;
+        synchronized (this) {
+            for (Created row : created) {
+                if (countedNearWatermark.putIfAbsent(row.id(), row.createdAt()) == null) {
+                    counts.merge(row.emotion(), 1L, Long::sum);
+                    counted = true;
+                    if (row.isPublic() && row.createdAt() >= windowStart) {
+                        fetch.add(row.id());
+                    }
+                }
+                watermark = Math.max(watermark, row.createdAt());
+            }
+            long keepAfter = watermark - overlapMs;
+            countedNearWatermark.values().removeIf(createdAt -> createdAt <= keepAfter);
+        }
+        if (fetch.isEmpty()) {
+            if (counted) {
+                synchronized (this) {
+                    publish();
+                }
+            }
+            return;
+        }
+
+        Map<UUID, MemoryResponse> loaded = new HashMap<>();
+        for (MemoryResponse preview : load(fetch)) {
+            loaded.put(preview.getId(), preview);
+        }
+        synchronized (this) {
+            // A changed memory that was on the map moves its count with it; other changed memories
+            // (private ones) are only recounted by the next rebuild
+            for (UUID id : refetch) {
+                MemoryResponse previous = points.remove(id);
+                MemoryResponse current = loaded.get(id);
+                if (previous != null) {
+                    counts.merge(previous.getEmotion(), -1L, Long::sum);
+                    if (current != null && Boolean.TRUE.equals(current.getIsActive())) {
+                        counts.merge(current.getEmotion(), 1L, Long::sum);
+                    }
+                }
+            }
+            for (MemoryResponse preview : loaded.values()) {
+                if (Boolean.TRUE.equals(preview.getIsActive()) && preview.getAccessType() == Memory.AccessType.PUBLIC
+                        && Timestamp.valueOf(preview.getCreatedAt()).getTime() >= windowStart) {
+                    points.put(preview.getId(), preview);
+                }
+            }
+            publish();
+        }
+    }
+
+    private List<MemoryResponse> load(Collection<UUID> ids) {
+        List<UUID> all = new ArrayList<>(ids);
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> {
+            List<MemoryResponse> previews = new ArrayList<>(all.size());
+            for (int from = 0; from < all.size(); from += FETCH_CHUNK) {
+                List<UUID> chunk = all.subList(from, Math.min(all.size(), from + FETCH_CHUNK));
+                previews.addAll(MemoryResponse.fromAll(memoryRepository.findAllWithUserByIdIn(chunk)));
+            }
+            return previews;
+        });
+    }
+
+    // Caller holds the lock
+    private void publish() {
+        List<Object[]> countRows = new ArrayList<>(counts.size());
+        counts.forEach((emotion, count) -> {
+            if (count > 0) {
+                countRows.add(new Object[]{emotion, count});
+            }
+        });
+        Map<String, Object> built = new HashMap<>();
+        built.put("emotionCounts", countRows);
+        built.put("memories", List.copyOf(points.values()));
+        data = Collections.unmodifiableMap(built);
+    }
+}
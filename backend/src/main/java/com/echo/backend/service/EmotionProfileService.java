@@ -0,0 +1,220 @@
+package com.echo.backend.service;
+
+import com.echo.backend.model.Memory;
+import com.echo.backend.model.UuidV7Generator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps emotion_profiles current from memory and unlock events without rescanning history.
+ * Events are buffered per user in memory and folded into the stored {@link EmotionProfileStats}
+ * every {@code emotion-profile.flush-interval-ms}, so a burst of writes from one user costs a
+ * single row update. Each flush locks the profile row, so instances sharing the database never
+ * lose each other's events.
+ *
+ * Profiles are derived data: events still buffered when the process dies are not replayed.
+ */
+@Service
+public class EmotionProfileService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmotionProfileService.class);
+
+    // Creates the row on first use; skipped for deleted accounts or ones being deleted
+    private static final String ENSURE_SQL = "INSERT INTO emotion_profiles (id, user_id, emotion_data, last_updated)"
+            + " SELECT ?, u.id, '{}'::jsonb, now() FROM users u WHERE u.id = ? AND u.deletion_requested_at IS NULL"
+            + " ON CONFLICT (user_id) DO NOTHING";
+
+    private static final String LOCK_SQL = "SELECT stats FROM emotion_profiles WHERE user_id = ? FOR UPDATE";
+
+    private static final String UPDATE_SQL = "UPDATE emotion_profiles SET stats = ?, emotion_data = CAST(? AS jsonb),"
+            + " last_updated = now() WHERE user_id = ?";
+
+    private record Event(String emotion, boolean unlock, double confidence, Double latitude, Double longitude, long at) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${emotion-profile.enabled:true}")
+    private boolean enabled;
+
+    @Value("${emotion-profile.half-life-days:30}")
+    private double halfLifeDays;
+
+    @Value("${emotion-profile.users-per-transaction:100}")
+    private int usersPerTransaction;
+
+    private final Map<UUID, List<Event>> pending = new ConcurrentHashMap<>();
+    private Counter events;
+    private Counter writes;
+
+    @PostConstruct
+    public void init() {
+        events = Counter.builder("echo.emotion.profile.events")
+                .description("Memory and unlock events folded into emotion profiles").register(meterRegistry);
+        writes = Counter.builder("echo.emotion.profile.writes")
+                .description("emotion_profiles rows written").register(meterRegistry);
+    }
+
+    /** Records a memory created by its author. Buffered once the surrounding transaction commits. */
+    public void recordMemory(Memory memory) {
+        if (memory.getUser() != null) {
+            record(memory.getUser().getId(), memory, false);
+        }
+    }
+
+    /** Records an unlock against the user who unlocked the memory. */
+    public void recordUnlock(UUID userId, Memory memory) {
+        record(userId, memory, true);
+    }
+
+    /** The user's profile including events not yet flushed. */
+    public Map<String, Object> currentProfile(UUID userId) {
+        return currentStats(userId).render(System.currentTimeMillis(), halfLifeMillis());
+    }
+
+    /** How the user's recent activity splits across emotions; empty for users with no history. */
+    public Map<String, Double> emotionShares(UUID userId) {
+        return currentStats(userId).recentShares();
+    }
+
+    private EmotionProfileStats currentStats(UUID userId) {
+        byte[] stored = jdbcTemplate.query("SELECT stats FROM emotion_profiles WHERE user_id = ?",
+                rs -> rs.next() ? rs.getBytes(1) : null, userId);
+        EmotionProfileStats stats = EmotionProfileStats.fromBytes(stored);
+        List<Event> buffered = pending.get(userId);
+        if (buffered != null) {
+            synchronized (buffered) {
+                buffered.forEach(event -> apply(stats, event));
+            }
+        }
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${emotion-profile.flush-interval-ms:2000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<UUID> users = new ArrayList<>(pending.keySet());
+        // Fixed lock order, so concurrent flushes on other instances cannot deadlock
+        users.sort(null);
+        for (int from = 0; from < users.size(); from += usersPerTransaction) {
+            Map<UUID, List<Event>> drained = new LinkedHashMap<>();
+            for (UUID userId : users.subList(from, Math.min(users.size(), from + usersPerTransaction))) {
+                List<Event> buffered = pending.remove(userId);
+                if (buffered != null) {
+                    drained.put(userId, buffered);
+                }
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> drained.forEach(this::flushUser));
+                writes.increment(drained.size());
+                events.increment(drained.values().stream().mapToInt(List::size).sum());
+            } catch (Exception e) {
+                logger.error("Emotion profile flush failed for {} users; retrying next run", drained.size(), e);
+                drained.forEach(this::requeue);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void record(UUID userId, Memory memory, boolean unlock) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        Event event = new Event(memory.getEmotion(), unlock,
+                memory.getEmotionConfidence() != null ? memory.getEmotionConfidence() : 0.0,
+                memory.getLatitude(), memory.getLongitude(), System.currentTimeMillis());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    buffer(userId, event);
+                }
+            });
+        } else {
+            buffer(userId, event);
+        }
+    }
+
+    private void buffer(UUID userId, Event event) {
+        pending.compute(userId, (key, list) -> {
+            List<Event> events = list != null ? list : new ArrayList<>();
+            synchronized (events) {
+                events.add(event);
+            }
+            return events;
+        });
+    }
+
+    private void flushUser(UUID userId, List<Event> buffered) {
+        jdbcTemplate.update(ENSURE_SQL, UuidV7Generator.next(), userId);
+        List<byte[]> rows = jdbcTemplate.query(LOCK_SQL, (rs, rowNum) -> rs.getBytes(1), userId);
+        if (rows.isEmpty()) {
+            return; // account deleted
+        }
+        EmotionProfileStats stats = EmotionProfileStats.fromBytes(rows.get(0));
+        synchronized (buffered) {
+            buffered.forEach(event -> apply(stats, event));
+        }
+        try {
+            String json = objectMapper.writeValueAsString(stats.render(System.currentTimeMillis(), halfLifeMillis()));
+            jdbcTemplate.update(UPDATE_SQL, stats.toBytes(), json, userId);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Puts events from a failed flush back ahead of any that arrived since
+    private void requeue(UUID userId, List<Event> failed) {
+        pending.merge(userId, failed, (newer, older) -> {
+            synchronized (newer) {
+                newer.addAll(0, older);
+            }
+            return newer;
+        });
+    }
+
+    private void apply(EmotionProfileStats stats, Event event) {
+        stats.apply(event.emotion(), event.unlock(), event.confidence(), event.latitude(), event.longitude(),
+                event.at(), halfLifeMillis());
+    }
+
+    private double halfLifeMillis() {
+        return halfLifeDays * 24 * 60 * 60 * 1000;
+    }
+}
@@ -0,0 +1,208 @@
+package com.echo.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running emotion statistics for one user, updated one event (memory created or unlocked) at a
+ * time so a profile never needs a rescan of the user's history. Per emotion it keeps:
+ * counts, a recency weight that halves every half-life, the sum of confidences, and a
+ * confidence-weighted location centroid accumulated as unit vectors (so it works across the
+ * antimeridian and near the poles).
+ *
+ * Events may be applied out of time order: decay is always relative to the newest event seen.
+ * Not thread-safe; EmotionProfileService applies events under the profile's row lock.
+ */
+public class EmotionProfileStats {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private long lastEventAt; // epoch millis of the newest event applied
+    private final Map<String, EmotionStats> emotions = new LinkedHashMap<>();
+
+    private static final class EmotionStats {
+        int memories;
+        int unlocks;
+        double recency;
+        double confidenceSum;
+        double weightSum; // sum of confidences of events with a location
+        double x, y, z;
+    }
+
+    public boolean isEmpty() {
+        return emotions.isEmpty();
+    }
+
+    public void apply(String emotion, boolean unlock, double confidence, Double latitude, Double longitude,
+                      long at, double halfLifeMillis) {
+        if (emotion == null || emotion.isBlank()) {
+            return;
+        }
+        double weight = 1.0;
+        if (at >= lastEventAt) {
+            double decay = lastEventAt == 0 ? 1.0 : Math.pow(0.5, (at - lastEventAt) / halfLifeMillis);
+            for (EmotionStats stats : emotions.values()) {
+                stats.recency *= decay;
+            }
+            lastEventAt = at;
+        } else {
+            weight = Math.pow(0.5, (lastEventAt - at) / halfLifeMillis);
+        }
+
+        EmotionStats stats = emotions.computeIfAbsent(emotion.toLowerCase(), key -> new EmotionStats());
+        if (unlock) {
+            stats.unlocks++;
+        } else {
+            stats.memories++;
+        }
+        stats.recency += weight;
+        double conf = Math.max(0.0, Math.min(1.0, confidence));
+        stats.confidenceSum += conf;
+        if (latitude != null && longitude != null && conf > 0) {
+            double lat = Math.toRadians(latitude), lng = Math.toRadians(longitude);
+            stats.x += conf * Math.cos(lat) * Math.cos(lng);
+            stats.y += conf * Math.cos(lat) * Math.sin(lng);
+            stats.z += conf * Math.sin(lat);
+            stats.weightSum += conf;
+        }
+    }
+
+    /** Each emotion's share of the total recency weight, 0 to 1. */
+    public Map<String, Double> recentShares() {
+        double total = 0;
+        for (EmotionStats stats : emotions.values()) {
+            total += stats.recency;
+        }
+        Map<String, Double> shares = new LinkedHashMap<>();
+        for (Map.Entry<String, EmotionStats> entry : emotions.entrySet()) {
+            shares.put(entry.getKey(), total > 0 ? entry.getValue().recency / total : 0.0);
+        }
+        return shares;
+    }
+
+    /** Readable summary with recency weights decayed to now, strongest emotion first. */
+    public Map<String, Object> render(long now, double halfLifeMillis) {
+        double decay = lastEventAt == 0 ? 1.0 : Math.pow(0.5, Math.max(0, now - lastEventAt) / halfLifeMillis);
+        double recencyTotal = 0;
+        int memories = 0, unlocks = 0;
+        for (EmotionStats stats : emotions.values()) {
+            recencyTotal += stats.recency * decay;
+            memories += stats.memories;
+            unlocks += stats.unlocks;
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map.Entry<String, EmotionStats> entry : emotions.entrySet()) {
+            EmotionStats stats = entry.getValue();
+            int count = stats.memories + stats.unlocks;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("emotion", entry.getKey());
+            row.put("memories", stats.memories);
+            row.put("unlocks", stats.unlocks);
+            row.put("recencyWeight", round(stats.recency * decay));
+            row.put("recentShare", recencyTotal > 0 ? round(stats.recency * decay / recencyTotal) : 0.0);
+            row.put("meanConfidence", count > 0 ? round(stats.confidenceSum / count) : 0.0);
+            row.put("centroid", centroid(stats));
+            rows.add(row);
+        }
+        rows.sort(Comparator.comparingDouble((Map<String, Object> row) -> (Double) row.get("recencyWeight")).reversed());
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("memories", memories);
+        summary.put("unlocks", unlocks);
+        summary.put("lastEventAt", lastEventAt == 0 ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(lastEventAt), ZoneOffset.UTC).toString());
+        summary.put("emotions", rows);
+        return summary;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + emotions.size() * 72);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(lastEventAt);
+            out.writeShort(emotions.size());
+            for (Map.Entry<String, EmotionStats> entry : emotions.entrySet()) {
+                EmotionStats stats = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeInt(stats.memories);
+                out.writeInt(stats.unlocks);
+                out.writeDouble(stats.recency);
+                out.writeFloat((float) stats.confidenceSum);
+                out.writeFloat((float) stats.weightSum);
+                out.writeFloat((float) stats.x);
+                out.writeFloat((float) stats.y);
+                out.writeFloat((float) stats.z);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Decodes stats written by {@link #toBytes}; null or empty input gives empty stats. */
+    public static EmotionProfileStats fromBytes(byte[] data) {
+        EmotionProfileStats profile = new EmotionProfileStats();
+        if (data == null || data.length == 0) {
+            return profile;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unknown emotion profile format " + version);
+            }
+            profile.lastEventAt = in.readLong();
+            int count = in.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                String emotion = in.readUTF();
+                EmotionStats stats = new EmotionStats();
+                stats.memories = in.readInt();
+                stats.unlocks = in.readInt();
+                stats.recency = in.readDouble();
+                stats.confidenceSum = in.readFloat();
+                stats.weightSum = in.readFloat();
+                stats.x = in.readFloat();
+                stats.y = in.readFloat();
+                stats.z = in.readFloat();
+                profile.emotions.put(emotion, stats);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return profile;
+    }
+
+    private static Map<String, Object> centroid(EmotionStats stats) {
+        double norm = Math.sqrt(stats.x * stats.x + stats.y * stats.y + stats.z * stats.z);
+        if (stats.weightSum <= 0 || norm < 1e-9) {
+            return null;
+        }
+        Map<String, Object> centroid = new LinkedHashMap<>();
+        centroid.put("latitude", round(Math.toDegrees(Math.asin(stats.z / norm)), 6));
+        centroid.put("longitude", round(Math.toDegrees(Math.atan2(stats.y, stats.x)), 6));
+        // 1.0 when every event was at the same spot, towards 0 as they spread over the globe
+        centroid.put("concentration", round(norm / stats.weightSum));
+        return centroid;
+    }
+
+    private static double round(double value) {
+        return round(value, 3);
+    }
+
+    private static double round(double value, int places) {
+        double scale = Math.pow(10, places);
+        return Math.round(value * scale) / scale;
+    }
+}
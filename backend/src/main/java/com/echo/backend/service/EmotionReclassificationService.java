@@ -0,0 +1,213 @@
+package com.echo.backend.service;
+
+import com.echo.backend.cache.CacheInvalidationBus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Re-runs {@link EmotionClassifier} over existing memories. Pages of rows are read by id on one
+ * thread, classified in parallel on a dedicated fork-join pool (the text scoring is pure CPU) and
+ * written back with a JDBC batch, one short transaction per page.
+ *
+ * By default only gaps are filled: an emotion that is blank or the client's "neutral" fallback,
+ * and a confidence that is missing or zero. With overwrite, every memory the lexicon has an
+ * opinion on gets the lexicon's emotion and confidence.
+ */
+@Service
+public class EmotionReclassificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmotionReclassificationService.class);
+
+    private static final String PAGE_SQL = "SELECT id, created_at, emotion, emotion_confidence, content, description"
+            + " FROM memories WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String UPDATE_SQL = "UPDATE memories SET emotion = ?, emotion_confidence = ?"
+            + " WHERE id = ? AND created_at = ?";
+
+    // Below this many rows a fork-join task classifies its slice directly
+    private static final int SPLIT_THRESHOLD = 256;
+
+    @Autowired
+    private EmotionClassifier emotionClassifier;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${emotion-classifier.reclassify.page-size:5000}")
+    private int pageSize;
+
+    @Value("${emotion-classifier.reclassify.parallelism:0}")
+    private int parallelism;
+
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "emotion-reclassify");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private volatile boolean lastOverwrite;
+
+    private static final class Row {
+        UUID id;
+        Timestamp createdAt;
+        String emotion;
+        Double confidence;
+        String content;
+        String description;
+        boolean changed;
+    }
+
+    /** Starts a run in the background; returns false if one is already in progress. */
+    public boolean start(boolean overwrite) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        scanned.set(0);
+        updated.set(0);
+        lastOverwrite = overwrite;
+        coordinator.execute(() -> {
+            long started = System.currentTimeMillis();
+            int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                run(pool, overwrite);
+                logger.info("Emotion reclassification scanned {} memories and updated {} in {} ms",
+                        scanned.get(), updated.get(), System.currentTimeMillis() - started);
+            } catch (Exception e) {
+                logger.error("Emotion reclassification failed after {} memories", scanned.get(), e);
+            } finally {
+                if (updated.get() > 0) {
+                    // Emotions changed across the board; cached copies are easier rebuilt than patched
+                    cacheInvalidationBus.publishResync();
+                }
+                pool.shutdown();
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("overwrite", lastOverwrite);
+        status.put("scanned", scanned.get());
+        status.put("updated", updated.get());
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+    }
+
+    private void run(ForkJoinPool pool, boolean overwrite) {
+        UUID after = new UUID(0L, 0L);
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Row> page = jdbcTemplate.query(PAGE_SQL, (rs, rowNum) -> {
+                Row row = new Row();
+                row.id = rs.getObject("id", UUID.class);
+                row.createdAt = rs.getTimestamp("created_at");
+                row.emotion = rs.getString("emotion");
+                row.confidence = rs.getObject("emotion_confidence", Double.class);
+                row.content = rs.getString("content");
+                row.description = rs.getString("description");
+                return row;
+            }, after, pageSize);
+            if (page.isEmpty()) {
+                return;
+            }
+
+            pool.invoke(new ClassifyTask(page, 0, page.size(), overwrite));
+
+            List<Object[]> updates = new ArrayList<>();
+            for (Row row : page) {
+                if (row.changed) {
+                    updates.add(new Object[]{row.emotion, row.confidence, row.id, row.createdAt});
+                }
+            }
+            if (!updates.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, updates));
+            }
+            scanned.addAndGet(page.size());
+            updated.addAndGet(updates.size());
+            after = page.get(page.size() - 1).id;
+        }
+    }
+
+    private final class ClassifyTask extends RecursiveAction {
+
+        private final List<Row> rows;
+        private final int from;
+        private final int to;
+        private final boolean overwrite;
+
+        ClassifyTask(List<Row> rows, int from, int to, boolean overwrite) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.overwrite = overwrite;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ClassifyTask(rows, from, mid, overwrite), new ClassifyTask(rows, mid, to, overwrite));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                reclassify(rows.get(i));
+            }
+        }
+
+        private void reclassify(Row row) {
+            EmotionClassifier.Result result = emotionClassifier.classify(row.content, row.description);
+            if (result.isEmpty()) {
+                return;
+            }
+            boolean missingEmotion = row.emotion == null || row.emotion.isBlank()
+                    || EmotionClassifier.FALLBACK_EMOTION.equalsIgnoreCase(row.emotion);
+            if (overwrite || missingEmotion) {
+                row.changed = !result.getEmotion().equals(row.emotion) || !equal(row.confidence, result.getConfidence());
+                row.emotion = result.getEmotion();
+                row.confidence = result.getConfidence();
+            } else if (row.confidence == null || row.confidence == 0.0) {
+                double confidence = result.confidenceFor(row.emotion);
+                row.changed = confidence > 0;
+                row.confidence = confidence;
+            }
+        }
+
+        private boolean equal(Double current, double proposed) {
+            return current != null && Math.abs(current - proposed) < 1e-9;
+        }
+    }
+}
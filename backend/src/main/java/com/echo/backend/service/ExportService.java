@@ -0,0 +1,123 @@
+package com.echo.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a user's data export as gzip'd JSON lines, one object per row with a {@code type} of
+ * {@code memory}, {@code unlock_received} or {@code unlock_given}. Archived rows are included.
+ *
+ * Each section is a native query scrolled forward-only with a JDBC fetch size, so Postgres hands
+ * rows over through a cursor and nothing enters the persistence context; heap use is bounded by
+ * {@code export.fetch-size} rows however large the account is.
+ */
+@Service
+public class ExportService {
+
+    private static final List<String> MEMORY_FIELDS = List.of("id", "title", "description", "content", "audioData",
+            "audioUrl", "emotion", "emotionConfidence", "latitude", "longitude", "locationName", "duration",
+            "accessType", "isActive", "unlockCount", "createdAt", "archived");
+
+    private static final String MEMORY_COLUMNS = "id, title, description, content, audio_data, audio_url, emotion, "
+            + "emotion_confidence, latitude, longitude, location_name, duration, access_type, is_active, unlock_count, "
+            + "created_at";
+
+    private static final String MEMORIES_SQL =
+            "SELECT " + MEMORY_COLUMNS + ", false FROM memories WHERE user_id = :userId AND created_at >= :since"
+            + " UNION ALL SELECT " + MEMORY_COLUMNS + ", true FROM memories_archive WHERE user_id = :userId";
+
+    private static final List<String> UNLOCK_FIELDS = List.of("id", "memoryId", "unlockedBy", "echoContent",
+            "echoAudioUrl", "unlockedAt");
+
+    private static final String UNLOCKS = "(SELECT id, memory_id, unlocked_by, echo_content, echo_audio_url, unlocked_at"
+            + " FROM memory_unlocks WHERE unlocked_at >= :since"
+            + " UNION ALL SELECT id, memory_id, unlocked_by, echo_content, echo_audio_url, unlocked_at"
+            + " FROM memory_unlocks_archive)";
+
+    private static final String UNLOCKS_RECEIVED_SQL =
+            "SELECT mu.id, mu.memory_id, u.username, mu.echo_content, mu.echo_audio_url, mu.unlocked_at"
+            + " FROM " + UNLOCKS + " mu JOIN users u ON u.id = mu.unlocked_by"
+            + " WHERE mu.memory_id IN (SELECT id FROM memories WHERE user_id = :userId AND created_at >= :since"
+            + "   UNION ALL SELECT id FROM memories_archive WHERE user_id = :userId)";
+
+    private static final String UNLOCKS_GIVEN_SQL =
+            "SELECT mu.id, mu.memory_id, u.username, mu.echo_content, mu.echo_audio_url, mu.unlocked_at"
+            + " FROM " + UNLOCKS + " mu JOIN users u ON u.id = mu.unlocked_by"
+            + " WHERE mu.unlocked_by = :userId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${export.fetch-size:200}")
+    private int fetchSize;
+
+    /**
+     * Streams the export for the given user to out and closes it. Nothing a user owns can predate
+     * the account, so accountCreatedAt bounds the partitioned tables.
+     */
+    @Transactional(readOnly = true)
+    public void writeExport(UUID userId, Timestamp accountCreatedAt, OutputStream out) throws IOException {
+        Session session = entityManager.unwrap(Session.class);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+             JsonGenerator json = objectMapper.getFactory().createGenerator(gzip)) {
+            json.setRootValueSeparator(null);
+            writeSection(session, json, "memory", MEMORY_FIELDS, MEMORIES_SQL, userId, accountCreatedAt);
+            writeSection(session, json, "unlock_received", UNLOCK_FIELDS, UNLOCKS_RECEIVED_SQL, userId, accountCreatedAt);
+            writeSection(session, json, "unlock_given", UNLOCK_FIELDS, UNLOCKS_GIVEN_SQL, userId, accountCreatedAt);
+        }
+    }
+
+    private void writeSection(Session session, JsonGenerator json, String type, List<String> fields, String sql,
+                              UUID userId, Timestamp since) throws IOException {
+        NativeQuery<?> query = session.createNativeQuery(sql)
+                .setParameter("userId", userId)
+                .setParameter("since", since)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true);
+        try (ScrollableResults<?> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                Object[] row = (Object[]) rows.get();
+                json.writeStartObject();
+                json.writeStringField("type", type);
+                for (int i = 0; i < fields.size(); i++) {
+                    json.writeFieldName(fields.get(i));
+                    writeValue(json, row[i]);
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+        }
+    }
+
+    private static void writeValue(JsonGenerator json, Object value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else if (value instanceof Timestamp timestamp) {
+            json.writeString(timestamp.toLocalDateTime().toString());
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.writeObject(value);
+        } else {
+            json.writeString(value.toString());
+        }
+    }
+}
@@ -1,91 +1,307 @@
 package com.echo.backend.service;
 
+import com.echo.backend.cache.CacheEvent;
+import com.echo.backend.cache.CacheInvalidationBus;
+import com.echo.backend.jfr.MemoryCreateEvent;
+import com.echo.backend.jfr.NearbyQueryEvent;
 import com.echo.backend.model.Memory;
 import com.echo.backend.model.User;
+import com.echo.backend.realtime.NearbyMemoryBroadcaster;
 import com.echo.backend.repository.MemoryRepository;
+import com.echo.backend.util.DiscoveryWindow;
+import com.echo.backend.util.WaveformPeaks;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class MemoryService {
 
+    // Keeps IN lists well below the driver's bind parameter limit
+    private static final int BULK_ID_CHUNK = 1000;
+
     @Autowired
     private MemoryRepository memoryRepository;
 
+    @Autowired
+    private NearbyMemoryBroadcaster nearbyMemoryBroadcaster;
+
+    @Autowired
+    private ArchivalService archivalService;
+
+    @Autowired
+    private EmotionClassifier emotionClassifier;
+
+    @Autowired
+    private EmotionProfileService emotionProfileService;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    // How far back discovery listings (public, nearby, map) look; 0 means no limit
+    @Value("${memories.discovery-window-days:0}")
+    private long discoveryWindowDays;
+
+    // Waveform preview resolution; each bucket costs two bytes per memory
+    @Value("${memories.waveform-buckets:200}")
+    private int waveformBuckets;
+
+    @Transactional
     public Memory createMemory(Memory memory) {
-        return memoryRepository.save(memory);
+        MemoryCreateEvent event = new MemoryCreateEvent();
+        event.start();
+        event.classified = memory.getEmotion() == null || memory.getEmotion().isBlank();
+        emotionClassifier.applyTo(memory);
+        memory.setWaveformPeaks(WaveformPeaks.fromAudioData(memory.getAudioData(), waveformBuckets));
+        Memory saved = memoryRepository.save(memory);
+        publishAfterCommit(saved);
+        emotionProfileService.recordMemory(saved);
+        cacheInvalidationBus.publish(CacheEvent.Type.MEMORY_CREATED, saved.getId());
+        event.emotion = saved.getEmotion();
+        event.accessType = String.valueOf(saved.getAccessType());
+        event.audioBytes = saved.getAudioData() != null ? saved.getAudioData().length() : 0;
+        finishAfterCommit(event);
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public Optional<Memory> findById(UUID id) {
-        return memoryRepository.findById(id);
+        Optional<Memory> memory = memoryRepository.findById(id);
+        if (memory.isPresent()) {
+            return memory;
+        }
+        // Falls back to cold storage so archived memories stay reachable by id
+        Optional<Memory> archived = memoryRepository.findArchivedById(id);
+        archived.ifPresent(m -> Hibernate.initialize(m.getUser()));
+        return archived;
+    }
+
+    /**
+     * Loads the given memories in the order of ids, dropping any that are no longer active and
+     * public (the discovery pool can be a refresh behind).
+     */
+    @Transactional(readOnly = true)
+    public List<Memory> findPublicByIdsInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Memory> byId = new HashMap<>();
+        for (Memory memory : memoryRepository.findAllWithUserByIdIn(ids)) {
+            byId.put(memory.getId(), memory);
+        }
+        List<Memory> ordered = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Memory memory = byId.get(id);
+            if (memory != null && Boolean.TRUE.equals(memory.getIsActive())
+                    && memory.getAccessType() == Memory.AccessType.PUBLIC) {
+                ordered.add(memory);
+            }
+        }
+        return ordered;
     }
 
+    @Transactional(readOnly = true)
     public List<Memory> findByUser(User user) {
-        return memoryRepository.findByUser(user);
+        return memoryRepository.findByUserSince(user, user.getCreatedAt());
     }
 
+    @Transactional(readOnly = true)
     public List<Memory> findPublicMemories() {
-        return memoryRepository.findPublicMemories();
+        return memoryRepository.findPublicMemories(discoverySince());
     }
 
+    @Transactional(readOnly = true)
     public List<Memory> findPublicMemoriesByEmotion(String emotion) {
-        return memoryRepository.findPublicMemoriesByEmotion(emotion);
+        return memoryRepository.findPublicMemoriesByEmotion(emotion, discoverySince());
     }
 
+    @Transactional(readOnly = true)
     public List<Memory> findPublicMemoriesExcludingUser(UUID userId) {
-        return memoryRepository.findPublicMemoriesExcludingUser(userId);
+        return memoryRepository.findPublicMemoriesExcludingUser(userId, discoverySince());
     }
 
+    @Transactional(readOnly = true)
     public List<Memory> findPublicMemoriesByEmotionExcludingUser(UUID userId, String emotion) {
-        return memoryRepository.findPublicMemoriesByEmotionExcludingUser(userId, emotion);
+        return memoryRepository.findPublicMemoriesByEmotionExcludingUser(userId, emotion, discoverySince());
     }
 
+    @Transactional(readOnly = true)
     public List<Memory> findNearbyMemories(UUID userId, Double latitude, Double longitude, Double radius) {
-        return memoryRepository.findNearbyMemories(userId, latitude, longitude, radius);
+        NearbyQueryEvent event = nearbyEvent(latitude, longitude, radius, null);
+        List<Memory> memories = memoryRepository.findNearbyMemories(userId, latitude, longitude, radius, discoverySince());
+        finish(event, memories);
+        return memories;
     }
 
+    @Transactional(readOnly = true)
     public List<Memory> findNearbyMemoriesByEmotion(UUID userId, Double latitude, Double longitude, Double radius, String emotion) {
-        return memoryRepository.findNearbyMemoriesByEmotion(userId, latitude, longitude, radius, emotion);
+        NearbyQueryEvent event = nearbyEvent(latitude, longitude, radius, emotion);
+        List<Memory> memories = memoryRepository.findNearbyMemoriesByEmotion(userId, latitude, longitude, radius, emotion, discoverySince());
+        finish(event, memories);
+        return memories;
+    }
+
+    private static NearbyQueryEvent nearbyEvent(Double latitude, Double longitude, Double radius, String emotion) {
+        NearbyQueryEvent event = new NearbyQueryEvent();
+        event.start();
+        if (event.isEnabled()) {
+            event.source = "nearby";
+            event.latitude = latitude;
+            event.longitude = longitude;
+            event.radius = radius;
+            event.emotion = emotion;
+        }
+        return event;
     }
 
+    // Subscribers must not see a memory that is rolled back, or fetch one before it is committed
+    private void publishAfterCommit(Memory memory) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            nearbyMemoryBroadcaster.publish(memory);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                nearbyMemoryBroadcaster.publish(memory);
+            }
+        });
+    }
+
+    // The insert is flushed at commit, so the event ends after it
+    private static void finishAfterCommit(MemoryCreateEvent event) {
+        if (!event.isEnabled() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            event.finish();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    event.finish();
+                }
+            }
+        });
+    }
+
+    // The query applies the radius itself, so every row it returns is a result
+    private static void finish(NearbyQueryEvent event, List<Memory> memories) {
+        event.candidates = memories.size();
+        event.results = memories.size();
+        event.finish();
+    }
+
+    @Transactional(readOnly = true)
     public List<Memory> findMemoriesForEmotionMap() {
-        return memoryRepository.findMemoriesForEmotionMap();
+        return memoryRepository.findMemoriesForEmotionMap(discoverySince());
     }
 
+    @Transactional(readOnly = true)
     public List<Object[]> countMemoriesByEmotion() {
         return memoryRepository.countMemoriesByEmotion();
     }
 
+    @Transactional
     public Memory updateMemory(Memory memory) {
-        return memoryRepository.save(memory);
+        Memory saved = memoryRepository.save(memory);
+        cacheInvalidationBus.publish(CacheEvent.Type.MEMORY_UPDATED, saved.getId());
+        return saved;
     }
 
+    @Transactional
     public void deleteMemory(UUID id) {
         memoryRepository.deleteById(id);
+        cacheInvalidationBus.publish(CacheEvent.Type.MEMORY_DEACTIVATED, id);
     }
 
-    public void incrementUnlockCount(UUID memoryId) {
-        memoryRepository.findById(memoryId).ifPresent(memory -> {
-            memory.setUnlockCount(memory.getUnlockCount() + 1);
-            memoryRepository.save(memory);
-        });
-    }
-
+    @Transactional
     public void deactivateMemory(UUID memoryId) {
-        memoryRepository.findById(memoryId).ifPresent(memory -> {
-            memory.setIsActive(false);
-            memoryRepository.save(memory);
-        });
+        memoryRepository.updateActiveByIds(List.of(memoryId), false);
+        cacheInvalidationBus.publish(CacheEvent.Type.MEMORY_DEACTIVATED, memoryId);
     }
 
+    @Transactional
     public void activateMemory(UUID memoryId) {
-        memoryRepository.findById(memoryId).ifPresent(memory -> {
-            memory.setIsActive(true);
-            memoryRepository.save(memory);
-        });
+        archivalService.restoreMemories(List.of(memoryId), null);
+        memoryRepository.updateActiveByIds(List.of(memoryId), true);
+        cacheInvalidationBus.publish(CacheEvent.Type.MEMORY_UPDATED, memoryId);
+    }
+
+    // Bulk state changes run as set-based UPDATEs. ownerId, when not null, limits them to that
+    // user's memories. Each returns the number of memories whose state actually changed. Changes
+    // selected by user, emotion or region do not know their ids, so they resync caches instead.
+    // Activating first restores matching archived memories in the same transaction.
+
+    @Transactional
+    public int setActive(Collection<UUID> ids, boolean active, UUID ownerId) {
+        List<UUID> distinct = List.copyOf(new LinkedHashSet<>(ids));
+        int updated = 0;
+        for (int from = 0; from < distinct.size(); from += BULK_ID_CHUNK) {
+            List<UUID> chunk = distinct.subList(from, Math.min(from + BULK_ID_CHUNK, distinct.size()));
+            if (active) {
+                archivalService.restoreMemories(chunk, ownerId);
+            }
+            updated += ownerId == null
+                    ? memoryRepository.updateActiveByIds(chunk, active)
+                    : memoryRepository.updateActiveByIdsForOwner(chunk, active, ownerId);
+        }
+        if (updated > 0) {
+            cacheInvalidationBus.publish(active ? CacheEvent.Type.MEMORY_UPDATED : CacheEvent.Type.MEMORY_DEACTIVATED,
+                    distinct);
+        }
+        return updated;
+    }
+
+    @Transactional
+    public int setActiveByUser(UUID userId, boolean active) {
+        if (active) {
+            archivalService.restoreMemoriesByUser(userId);
+        }
+        return resyncIfChanged(memoryRepository.updateActiveByUser(userId, active));
+    }
+
+    @Transactional
+    public int setActiveByEmotion(String emotion, boolean active, UUID ownerId) {
+        if (active) {
+            archivalService.restoreMemoriesByEmotion(emotion, ownerId);
+        }
+        return resyncIfChanged(ownerId == null
+                ? memoryRepository.updateActiveByEmotion(emotion, active)
+                : memoryRepository.updateActiveByEmotionForOwner(emotion, active, ownerId));
+    }
+
+    @Transactional
+    public int setActiveInRegion(Double latitude, Double longitude, Double radius, boolean active, UUID ownerId) {
+        if (active) {
+            archivalService.restoreMemoriesInRegion(latitude, longitude, radius, ownerId);
+        }
+        return resyncIfChanged(ownerId == null
+                ? memoryRepository.updateActiveInRegion(latitude, longitude, radius, active)
+                : memoryRepository.updateActiveInRegionForOwner(latitude, longitude, radius, active, ownerId));
+    }
+
+    private int resyncIfChanged(int updated) {
+        if (updated > 0) {
+            cacheInvalidationBus.publishResync();
+        }
+        return updated;
+    }
+
+    private LocalDateTime discoverySince() {
+        return DiscoveryWindow.start(discoveryWindowDays);
     }
 }
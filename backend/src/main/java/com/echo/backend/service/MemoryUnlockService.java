@@ -1,11 +1,18 @@
 package com.echo.backend.service;
 
+import com.echo.backend.exception.DuplicateUnlockException;
+import com.echo.backend.exception.MemoryUnavailableException;
+import com.echo.backend.jfr.CacheLookupEvent;
+import com.echo.backend.jfr.MemoryUnlockEvent;
 import com.echo.backend.model.Memory;
 import com.echo.backend.model.MemoryUnlock;
 import com.echo.backend.model.User;
+import com.echo.backend.repository.MemoryRepository;
 import com.echo.backend.repository.MemoryUnlockRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
@@ -16,37 +23,103 @@ public class MemoryUnlockService {
     @Autowired
     private MemoryUnlockRepository memoryUnlockRepository;
 
+    @Autowired
+    private MemoryRepository memoryRepository;
+
+    @Autowired
+    private UnlockBloomFilter unlockBloomFilter;
+
+    @Autowired
+    private EmotionProfileService emotionProfileService;
+
+    /**
+     * Records the unlock and counts it on the memory in one transaction. Throws
+     * {@link DuplicateUnlockException} if the user already unlocked it, and
+     * {@link MemoryUnavailableException}, writing nothing, if the memory is not active in
+     * {@code memories} (deactivated or archived).
+     */
+    @Transactional
     public MemoryUnlock createUnlock(Memory memory, User user, String echoContent, String echoAudioUrl) {
+        MemoryUnlockEvent event = new MemoryUnlockEvent();
+        event.start();
+        event.memoryId = String.valueOf(memory.getId());
+        event.outcome = "failed";
         MemoryUnlock unlock = new MemoryUnlock(memory, user);
         unlock.setEchoContent(echoContent);
         unlock.setEchoAudioUrl(echoAudioUrl);
-        return memoryUnlockRepository.save(unlock);
+        try {
+            // Flush so a concurrent duplicate trips the unique constraint here rather than at commit
+            MemoryUnlock saved = memoryUnlockRepository.saveAndFlush(unlock);
+            if (memoryRepository.incrementUnlockCount(memory.getId()) != 1) {
+                event.outcome = "unavailable";
+                throw new MemoryUnavailableException("Memory is no longer available");
+            }
+            unlockBloomFilter.put(memory.getId(), user.getId());
+            emotionProfileService.recordUnlock(user.getId(), memory);
+            event.outcome = "created";
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            String cause = String.valueOf(e.getMostSpecificCause().getMessage());
+            if (!cause.contains(MemoryUnlock.UNIQUE_MEMORY_USER_CONSTRAINT)) {
+                throw e;
+            }
+            unlockBloomFilter.put(memory.getId(), user.getId());
+            event.outcome = "duplicate";
+            throw new DuplicateUnlockException("Memory already unlocked by this user");
+        } finally {
+            event.finish();
+        }
+    }
+
+    /**
+     * Checks whether the user already unlocked the memory. Bloom negatives are answered
+     * without touching the database.
+     */
+    @Transactional(readOnly = true)
+    public boolean hasUnlocked(UUID memoryId, UUID userId) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.start();
+        event.cache = "unlock-bloom";
+        boolean hit = !unlockBloomFilter.mightContain(memoryId, userId);
+        try {
+            return !hit && memoryUnlockRepository.existsByMemoryIdAndUserId(memoryId, userId);
+        } finally {
+            event.hit = hit;
+            event.finish();
+        }
     }
 
+    @Transactional(readOnly = true)
     public List<MemoryUnlock> findByMemory(Memory memory) {
-        return memoryUnlockRepository.findByMemory(memory);
+        return memoryUnlockRepository.findByMemorySince(memory, memory.getCreatedAt());
     }
 
+    @Transactional(readOnly = true)
     public List<MemoryUnlock> findByUnlockedBy(User user) {
-        return memoryUnlockRepository.findByUnlockedBy(user);
+        return memoryUnlockRepository.findByUnlockedBySince(user, user.getCreatedAt());
     }
 
+    @Transactional(readOnly = true)
     public List<MemoryUnlock> findByMemoryId(UUID memoryId) {
         return memoryUnlockRepository.findByMemoryId(memoryId);
     }
 
+    @Transactional(readOnly = true)
     public List<MemoryUnlock> findByUserId(UUID userId) {
         return memoryUnlockRepository.findByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByMemoryAndUnlockedBy(Memory memory, User user) {
         return memoryUnlockRepository.existsByMemoryAndUnlockedBy(memory, user);
     }
 
+    @Transactional(readOnly = true)
     public long countByMemoryId(UUID memoryId) {
         return memoryUnlockRepository.countByMemoryId(memoryId);
     }
 
+    @Transactional(readOnly = true)
     public long countByUserId(UUID userId) {
         return memoryUnlockRepository.countByUserId(userId);
     }
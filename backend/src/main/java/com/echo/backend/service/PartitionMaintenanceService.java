@@ -0,0 +1,48 @@
+package com.echo.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Keeps monthly partitions of the time-partitioned tables created ahead of time, so new rows
+ * never land in the default partition (which would block creating the matching month later).
+ * The partitioning itself is set up by migration V2.
+ */
+@Service
+public class PartitionMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    private static final List<String> PARTITIONED_TABLES = List.of("memories", "memory_unlocks");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${partitions.maintenance-cron:0 15 3 * * *}")
+    public void ensureFuturePartitions() {
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                Integer created = jdbcTemplate.queryForObject(
+                        "SELECT ensure_monthly_partitions(?, current_date, ?)", Integer.class, table, monthsAhead);
+                if (created != null && created > 0) {
+                    logger.info("Created {} new monthly partitions for {}", created, table);
+                }
+            } catch (Exception e) {
+                logger.error("Failed to create future partitions for {}", table, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.echo.backend.service;
+
+import com.echo.backend.repository.MemoryUnlockRepository;
+import com.echo.backend.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory Bloom filter over (memoryId, userId) unlock pairs. A negative answer means the
+ * user has definitely not unlocked the memory on this node's view, so the common case needs
+ * no query; positives fall through to the database.
+ *
+ * The filter is node-local and only ever gains bits, so the unique constraint on
+ * {@code memory_unlocks(memory_id, unlocked_by)} remains the source of truth for unlocks
+ * made on other nodes.
+ */
+@Component
+public class UnlockBloomFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnlockBloomFilter.class);
+
+    @Autowired
+    private MemoryUnlockRepository memoryUnlockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${unlocks.bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${unlocks.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private BloomFilter filter;
+    private volatile boolean ready;
+    private final AtomicLong insertions = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildInBackground() {
+        Thread builder = new Thread(this::build, "unlock-bloom-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Returns false only when the pair is definitely absent. Until the initial build has
+     * finished every lookup is treated as a possible hit.
+     */
+    public boolean mightContain(UUID memoryId, UUID userId) {
+        return !ready || filter.mightContain(BloomFilter.hash(memoryId, userId));
+    }
+
+    public void put(UUID memoryId, UUID userId) {
+        filter.put(BloomFilter.hash(memoryId, userId));
+        if (insertions.incrementAndGet() == expectedInsertions) {
+            logger.warn("Unlock Bloom filter reached {} insertions, false positive rate will climb; " +
+                    "raise unlocks.bloom.expected-insertions", expectedInsertions);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void build() {
+        long start = System.currentTimeMillis();
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            template.executeWithoutResult(status -> {
+                try (Stream<Object[]> pairs = memoryUnlockRepository.streamUnlockPairs()) {
+                    pairs.forEach(pair -> put((UUID) pair[0], (UUID) pair[1]));
+                }
+            });
+            ready = true;
+            logger.info("Unlock Bloom filter built with {} pairs ({} bits, {} hashes) in {} ms",
+                    insertions.get(), filter.bitSize(), filter.hashFunctions(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // Stay not-ready: every check keeps going to the database
+            logger.error("Failed to build unlock Bloom filter", e);
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.echo.backend.service;
 
+import com.echo.backend.cache.CacheEvent;
+import com.echo.backend.cache.CacheInvalidationBus;
+import com.echo.backend.datasource.ReadYourWritesTracker;
 import com.echo.backend.model.User;
 import com.echo.backend.repository.UserRepository;
+import com.echo.backend.security.PasswordHashingExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,55 +21,88 @@ public class UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingExecutor passwordHashingExecutor;
 
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Transactional
     public User createUser(User user) {
-        // Encode password before saving
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        // Encode password before saving, on the bounded hashing pool
+        user.setPassword(passwordHashingExecutor.encode(user.getPassword()));
+        // The new account has no token yet, so pin its first authenticated reads explicitly
+        readYourWritesTracker.recordWrite(user.getUsername());
         return userRepository.save(user);
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findById(UUID id) {
         return userRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByUsername(String username) {
         return userRepository.existsByUsername(username);
     }
 
+    @Transactional
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        cacheInvalidationBus.publish(CacheEvent.Type.USER_UPDATED, saved.getId());
+        return saved;
     }
 
-    public boolean validateUser(String email, String password) {
+    /**
+     * Loads the user once and verifies the password on the hashing pool. Not transactional,
+     * so no connection is held while BCrypt runs.
+     */
+    public Optional<User> authenticate(String email, String password) {
         Optional<User> userOpt = userRepository.findByEmail(email);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            return passwordEncoder.matches(password, user.getPassword());
+        if (userOpt.isPresent() && userOpt.get().getDeletionRequestedAt() == null
+                && passwordHashingExecutor.matches(password, userOpt.get().getPassword())) {
+            return userOpt;
         }
-        return false;
+        return Optional.empty();
+    }
+
+    public boolean validateUser(String email, String password) {
+        return authenticate(email, password).isPresent();
+    }
+
+    /**
+     * Existing users that already own the given email or username, in a single query.
+     */
+    @Transactional(readOnly = true)
+    public List<User> findConflicting(String email, String username) {
+        return userRepository.findByEmailOrUsername(email, username);
     }
 
+    @Transactional(readOnly = true)
     public User getUserByEmail(String email) {
         return userRepository.findByEmail(email).orElse(null);
     }
 
+    @Transactional
     public void markOnboardingComplete(UUID userId) {
-        userRepository.findById(userId).ifPresent(user -> {
-            user.setHasCompletedOnboarding(true);
-            userRepository.save(user);
-        });
+        userRepository.markOnboardingComplete(userId);
+        cacheInvalidationBus.publish(CacheEvent.Type.USER_UPDATED, userId);
     }
 }
@@ -1,27 +1,154 @@
 package com.echo.backend.service;
 
+import com.echo.backend.exception.BackpressureException;
+import com.echo.backend.model.UuidV7Generator;
 import com.echo.backend.model.WaitlistUser;
 import com.echo.backend.repository.WaitlistUserRepository;
+import com.echo.backend.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+/**
+ * Waitlist signups are accepted into a bounded in-memory queue and written behind by a single
+ * flusher thread in batched {@code INSERT ... ON CONFLICT DO NOTHING} statements, so a launch
+ * spike costs the request thread a Bloom lookup and a queue offer instead of two round trips.
+ *
+ * Emails are normalized (trimmed, lower-cased) before dedupe. Bloom negatives are accepted
+ * immediately; positives are confirmed against the table. The unique index on
+ * {@code waitlist_users.email} absorbs whatever slips through, including concurrent duplicates; a
+ * check constraint (V10) keeps every stored email in that normalized form.
+ *
+ * A batch that fails permanently (a constraint or data error rather than a lost connection) is
+ * retried one row at a time and only the rows that still fail are dropped, so one bad signup
+ * cannot wedge the flusher and back the queue up into 503s for everyone after it.
+ */
 @Service
 public class WaitlistService {
 
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistService.class);
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private static final int MAX_SOURCE_LENGTH = 255;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO waitlist_users (id, email, source, joined_at) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (email) DO NOTHING";
+
     @Autowired
     private WaitlistUserRepository waitlistUserRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${waitlist.ingest.queue-capacity:50000}")
+    private int queueCapacity;
+
+    @Value("${waitlist.ingest.batch-size:500}")
+    private int batchSize;
+
+    @Value("${waitlist.ingest.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${waitlist.ingest.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    @Value("${waitlist.ingest.expected-emails:1000000}")
+    private long expectedEmails;
+
+    private BlockingQueue<WaitlistUser> pending;
+    private BloomFilter knownEmails;
+    private volatile boolean bloomReady;
+    private volatile boolean running = true;
+    private Thread flusher;
+
+    @PostConstruct
+    public void init() {
+        pending = new ArrayBlockingQueue<>(queueCapacity);
+        knownEmails = new BloomFilter(expectedEmails, 0.001);
+        flusher = new Thread(this::flushLoop, "waitlist-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedKnownEmails() {
+        Thread seeder = new Thread(() -> {
+            try {
+                TransactionTemplate template = new TransactionTemplate(transactionManager);
+                template.setReadOnly(true);
+                template.executeWithoutResult(status -> {
+                    try (Stream<String> emails = waitlistUserRepository.streamEmails()) {
+                        emails.forEach(email -> knownEmails.put(BloomFilter.hash(normalize(email))));
+                    }
+                });
+                bloomReady = true;
+            } catch (Exception e) {
+                logger.error("Failed to seed waitlist Bloom filter, duplicates will be checked in the database", e);
+            }
+        }, "waitlist-bloom-seeder");
+        seeder.setDaemon(true);
+        seeder.start();
+    }
+
     public WaitlistUser addToWaitlist(String email, String source) {
-        // Check if already exists
-        if (waitlistUserRepository.existsByEmail(email)) {
+        String normalized = normalize(email);
+        if (normalized.length() > 255 || !EMAIL.matcher(normalized).matches()) {
+            throw new IllegalArgumentException("Email must be valid");
+        }
+        String trimmedSource = source == null || source.isBlank() ? "landing_page" : source.trim();
+        if (trimmedSource.length() > MAX_SOURCE_LENGTH) {
+            throw new IllegalArgumentException("Source must be at most " + MAX_SOURCE_LENGTH + " characters");
+        }
+
+        long key = BloomFilter.hash(normalized);
+        if ((!bloomReady || knownEmails.mightContain(key)) && waitlistUserRepository.existsByEmail(normalized)) {
             throw new RuntimeException("Email already registered in waitlist");
         }
 
-        WaitlistUser waitlistUser = new WaitlistUser(email, source);
-        return waitlistUserRepository.save(waitlistUser);
+        WaitlistUser waitlistUser = new WaitlistUser(normalized, trimmedSource);
+        waitlistUser.setId(UuidV7Generator.next());
+        waitlistUser.setJoinedAt(LocalDateTime.now(ZoneOffset.UTC));
+
+        try {
+            if (!pending.offer(waitlistUser, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new BackpressureException("Waitlist is busy, please retry shortly", 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BackpressureException("Waitlist is busy, please retry shortly", 1);
+        }
+        knownEmails.put(key);
+        return waitlistUser;
     }
 
     public List<WaitlistUser> getAllWaitlistUsers() {
@@ -29,10 +156,113 @@ public class WaitlistService {
     }
 
     public boolean existsByEmail(String email) {
-        return waitlistUserRepository.existsByEmail(email);
+        return waitlistUserRepository.existsByEmail(normalize(email));
     }
 
     public void removeFromWaitlist(UUID id) {
         waitlistUserRepository.deleteById(id);
     }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        // Anything still queued after the flusher stops is written synchronously
+        List<WaitlistUser> remaining = new ArrayList<>();
+        pending.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            flush(remaining.subList(from, Math.min(remaining.size(), from + batchSize)));
+        }
+    }
+
+    private void flushLoop() {
+        List<WaitlistUser> batch = new ArrayList<>(batchSize);
+        long backoffMs = flushIntervalMs;
+        while (running || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    WaitlistUser first = pending.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    pending.drainTo(batch, batchSize - 1);
+                }
+                flush(batch);
+                backoffMs = flushIntervalMs;
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (Exception e) {
+                // Transient failure: keep the batch and retry; the bounded queue pushes back on new signups meanwhile
+                logger.error("Failed to flush {} waitlist signups, retrying in {} ms", batch.size(), backoffMs, e);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    if (!running) {
+                        break;
+                    }
+                }
+                backoffMs = Math.min(backoffMs * 2, 10_000);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    /**
+     * Writes the batch and empties it. A permanent failure falls back to row-by-row inserts that
+     * drop only the rows still rejected; a transient one propagates with the unwritten rows left
+     * in the batch. Re-inserting a row that already landed is a no-op thanks to ON CONFLICT.
+     */
+    private void flush(List<WaitlistUser> batch) {
+        try {
+            insertBatch(batch);
+            batch.clear();
+            return;
+        } catch (DataAccessException e) {
+            if (!isPermanent(e)) {
+                throw e;
+            }
+            logger.warn("Waitlist batch of {} signups rejected, retrying row by row: {}", batch.size(), e.getMessage());
+        }
+        for (Iterator<WaitlistUser> it = batch.iterator(); it.hasNext(); ) {
+            WaitlistUser user = it.next();
+            try {
+                insertBatch(List.of(user));
+            } catch (DataAccessException e) {
+                if (!isPermanent(e)) {
+                    throw e;
+                }
+                logger.error("Dropping waitlist signup {} that cannot be stored", user.getId(), e);
+            }
+            it.remove();
+        }
+    }
+
+    // Connection and resource failures are non-transient in Spring's hierarchy but worth retrying
+    private static boolean isPermanent(DataAccessException e) {
+        return e instanceof NonTransientDataAccessException
+                && !(e instanceof NonTransientDataAccessResourceException);
+    }
+
+    private void insertBatch(List<WaitlistUser> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, user) -> {
+            ps.setObject(1, user.getId());
+            ps.setString(2, user.getEmail());
+            ps.setString(3, user.getSource());
+            ps.setObject(4, user.getJoinedAt());
+        });
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,102 @@
+package com.echo.backend.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Decodes what {@link SnapshotWriter} wrote, straight from a (typically memory-mapped) buffer.
+ */
+public class SnapshotReader {
+
+    private final ByteBuffer buffer;
+
+    private SnapshotReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Verifies the trailing checksum and returns a reader over the content before it. Throws
+     * IllegalStateException for a truncated or corrupt buffer.
+     */
+    public static SnapshotReader open(ByteBuffer data) {
+        if (data.remaining() < Long.BYTES) {
+            throw new IllegalStateException("Snapshot is truncated");
+        }
+        ByteBuffer content = data.slice(data.position(), data.remaining() - Long.BYTES);
+        long expected = data.getLong(data.limit() - Long.BYTES);
+        CRC32 crc = new CRC32();
+        crc.update(content.duplicate());
+        if (crc.getValue() != expected) {
+            throw new IllegalStateException("Snapshot checksum mismatch");
+        }
+        return new SnapshotReader(content);
+    }
+
+    public int readInt() {
+        return buffer.getInt();
+    }
+
+    public int readShort() {
+        return buffer.getShort();
+    }
+
+    public long readLong() {
+        return buffer.getLong();
+    }
+
+    public double readDouble() {
+        return buffer.getDouble();
+    }
+
+    public UUID readUuid() {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    public String readString() {
+        byte[] bytes = readBytes();
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public byte[] readBytes() {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    public UUID readNullableUuid() {
+        return buffer.get() != 0 ? readUuid() : null;
+    }
+
+    public Double readNullableDouble() {
+        return buffer.get() != 0 ? buffer.getDouble() : null;
+    }
+
+    public Integer readNullableInt() {
+        return buffer.get() != 0 ? buffer.getInt() : null;
+    }
+
+    public Boolean readNullableBoolean() {
+        byte value = buffer.get();
+        return value < 0 ? null : value == 1;
+    }
+
+    public LocalDateTime readDateTime() {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        long seconds = buffer.getLong();
+        return LocalDateTime.ofEpochSecond(seconds, buffer.getInt(), ZoneOffset.UTC);
+    }
+
+    public boolean hasRemaining() {
+        return buffer.hasRemaining();
+    }
+}
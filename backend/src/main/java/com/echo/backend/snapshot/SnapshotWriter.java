@@ -0,0 +1,106 @@
+package com.echo.backend.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Big-endian binary encoder for snapshot files, read back by {@link SnapshotReader}. Nullable
+ * values are prefixed with a presence byte; strings are a length (-1 for null) and UTF-8 bytes.
+ * Keeps a CRC32 of everything written, appended by {@link #finish}.
+ */
+public class SnapshotWriter implements AutoCloseable {
+
+    private final CRC32 crc = new CRC32();
+    private final DataOutputStream out;
+
+    public SnapshotWriter(OutputStream target) {
+        this.out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(target, 1 << 16), crc));
+    }
+
+    public void writeInt(int value) throws IOException {
+        out.writeInt(value);
+    }
+
+    public void writeShort(int value) throws IOException {
+        out.writeShort(value);
+    }
+
+    public void writeLong(long value) throws IOException {
+        out.writeLong(value);
+    }
+
+    public void writeDouble(double value) throws IOException {
+        out.writeDouble(value);
+    }
+
+    public void writeUuid(UUID value) throws IOException {
+        out.writeLong(value.getMostSignificantBits());
+        out.writeLong(value.getLeastSignificantBits());
+    }
+
+    public void writeString(String value) throws IOException {
+        writeBytes(value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void writeBytes(byte[] value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    public void writeNullableUuid(UUID value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            writeUuid(value);
+        }
+    }
+
+    public void writeNullableDouble(Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+
+    public void writeNullableInt(Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    public void writeNullableBoolean(Boolean value) throws IOException {
+        out.writeByte(value == null ? -1 : value ? 1 : 0);
+    }
+
+    public void writeDateTime(LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    /** Appends the checksum of everything written so far and flushes. */
+    public void finish() throws IOException {
+        out.flush();
+        out.writeLong(crc.getValue());
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,291 @@
+package com.echo.backend.snapshot;
+
+import com.echo.backend.discovery.DiscoveryCandidate;
+import com.echo.backend.discovery.DiscoveryFeed;
+import com.echo.backend.dto.MemoryResponse;
+import com.echo.backend.dto.UserSummary;
+import com.echo.backend.model.Memory;
+import com.echo.backend.service.EmotionMapReadModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Saves the emotion map read model and the discovery candidate pool to {@code snapshot.path}
+ * every {@code snapshot.write-interval-ms} and at shutdown, and restores them at startup, so a
+ * restarted node serves both at once and only reads what was created since the snapshot.
+ *
+ * The file is written to a temporary sibling, synced and renamed over the previous one, so a
+ * crash mid-write leaves the last complete snapshot. It is read through a memory mapping; a
+ * missing, stale ({@code snapshot.max-age-hours}), corrupt or older-format file is ignored and
+ * the models build from the database as on a cold start.
+ */
+@Component
+public class WarmStartSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmStartSnapshot.class);
+
+    private static final int MAGIC = 0x4543484F; // "ECHO"
+    private static final int VERSION = 2; // 2: emotion map rebuiltAt
+
+    @Autowired
+    private EmotionMapReadModel emotionMapReadModel;
+
+    @Autowired
+    private DiscoveryFeed discoveryFeed;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${snapshot.path:data/echo-snapshot.bin}")
+    private String path;
+
+    @Value("${snapshot.max-age-hours:24}")
+    private long maxAgeHours;
+
+    private Timer writeTimer;
+
+    @PostConstruct
+    public void restore() {
+        writeTimer = Timer.builder("echo.snapshot.write").register(meterRegistry);
+        Path file = Paths.get(path);
+        if (!enabled || !Files.isRegularFile(file)) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            SnapshotReader reader = SnapshotReader.open(mapped);
+            if (reader.readInt() != MAGIC || reader.readShort() != VERSION) {
+                logger.warn("Ignoring snapshot {}: unknown format", file);
+                return;
+            }
+            long writtenAt = reader.readLong();
+            if (System.currentTimeMillis() - writtenAt > maxAgeHours * 3_600_000L) {
+                logger.info("Ignoring snapshot {}: older than {} hours", file, maxAgeHours);
+                return;
+            }
+            EmotionMapReadModel.State map = readEmotionMap(reader);
+            List<DiscoveryCandidate> candidates = readCandidates(reader);
+            if (map != null) {
+                emotionMapReadModel.restore(map);
+            }
+            discoveryFeed.restore(candidates, writtenAt);
+            logger.info("Restored snapshot from {} ({} map points, {} discovery candidates) in {} ms",
+                    file, map != null ? map.points().size() : 0, candidates.size(),
+                    System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.warn("Ignoring unreadable snapshot {}: {}", file, e.toString());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${snapshot.write-interval-ms:300000}",
+            initialDelayString = "${snapshot.write-interval-ms:300000}")
+    public void scheduledWrite() {
+        write();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        write();
+    }
+
+    public synchronized void write() {
+        if (!enabled) {
+            return;
+        }
+        EmotionMapReadModel.State map = emotionMapReadModel.state();
+        List<DiscoveryCandidate> candidates = discoveryFeed.candidates();
+        if (map == null && candidates.isEmpty()) {
+            return; // nothing built yet; keep whatever is on disk
+        }
+        Path file = Paths.get(path).toAbsolutePath();
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            writeTimer.recordCallable(() -> {
+                Files.createDirectories(file.getParent());
+                try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                     SnapshotWriter writer = new SnapshotWriter(Channels.newOutputStream(channel))) {
+                    writer.writeInt(MAGIC);
+                    writer.writeShort(VERSION);
+                    writer.writeLong(System.currentTimeMillis());
+                    writeEmotionMap(writer, map);
+                    writeCandidates(writer, candidates);
+                    writer.finish();
+                    channel.force(true);
+                }
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                return null;
+            });
+            logger.debug("Wrote snapshot {} ({} bytes)", file, Files.size(file));
+        } catch (Exception e) {
+            logger.error("Failed to write snapshot {}", file, e);
+        }
+    }
+
+    // Emotion map section: a point count of -1 when the model was not built yet
+
+    private void writeEmotionMap(SnapshotWriter writer, EmotionMapReadModel.State map) throws IOException {
+        if (map == null) {
+            writer.writeInt(-1);
+            return;
+        }
+        writer.writeInt(map.points().size());
+        for (MemoryResponse point : map.points()) {
+            writePoint(writer, point);
+        }
+        writer.writeLong(map.watermark());
+        writer.writeLong(map.rebuiltAt());
+        writer.writeInt(map.counts().size());
+        for (Map.Entry<String, Long> count : map.counts().entrySet()) {
+            writer.writeString(count.getKey());
+            writer.writeLong(count.getValue());
+        }
+        writer.writeInt(map.nearWatermark().size());
+        for (Map.Entry<UUID, Long> counted : map.nearWatermark().entrySet()) {
+            writer.writeUuid(counted.getKey());
+            writer.writeLong(counted.getValue());
+        }
+    }
+
+    private EmotionMapReadModel.State readEmotionMap(SnapshotReader reader) {
+        int pointCount = reader.readInt();
+        if (pointCount < 0) {
+            return null;
+        }
+        List<MemoryResponse> points = new ArrayList<>(pointCount);
+        for (int i = 0; i < pointCount; i++) {
+            points.add(readPoint(reader));
+        }
+        long watermark = reader.readLong();
+        long rebuiltAt = reader.readLong();
+        int countCount = reader.readInt();
+        Map<String, Long> counts = new HashMap<>();
+        for (int i = 0; i < countCount; i++) {
+            counts.put(reader.readString(), reader.readLong());
+        }
+        int countedCount = reader.readInt();
+        Map<UUID, Long> nearWatermark = new HashMap<>();
+        for (int i = 0; i < countedCount; i++) {
+            nearWatermark.put(reader.readUuid(), reader.readLong());
+        }
+        return new EmotionMapReadModel.State(counts, points, watermark, nearWatermark, rebuiltAt);
+    }
+
+    // Previews never carry audioData, so it is not stored
+    private void writePoint(SnapshotWriter writer, MemoryResponse point) throws IOException {
+        writer.writeUuid(point.getId());
+        UserSummary user = point.getUser();
+        writer.writeNullableUuid(user != null ? user.getId() : null);
+        if (user != null) {
+            writer.writeString(user.getUsername());
+            writer.writeString(user.getAvatar());
+        }
+        writer.writeString(point.getTitle());
+        writer.writeString(point.getDescription());
+        writer.writeString(point.getContent());
+        writer.writeString(point.getAudioUrl());
+        writer.writeString(point.getEmotion());
+        writer.writeNullableDouble(point.getEmotionConfidence());
+        writer.writeNullableDouble(point.getLatitude());
+        writer.writeNullableDouble(point.getLongitude());
+        writer.writeString(point.getLocationName());
+        writer.writeNullableInt(point.getDuration());
+        writer.writeBytes(point.getWaveformPeaks());
+        writer.writeString(point.getAccessType() != null ? point.getAccessType().name() : null);
+        writer.writeNullableBoolean(point.getIsActive());
+        writer.writeNullableInt(point.getUnlockCount());
+        writer.writeDateTime(point.getCreatedAt());
+    }
+
+    private MemoryResponse readPoint(SnapshotReader reader) {
+        MemoryResponse point = new MemoryResponse();
+        point.setId(reader.readUuid());
+        UUID userId = reader.readNullableUuid();
+        if (userId != null) {
+            point.setUser(new UserSummary(userId, reader.readString(), reader.readString()));
+        }
+        point.setTitle(reader.readString());
+        point.setDescription(reader.readString());
+        point.setContent(reader.readString());
+        point.setAudioUrl(reader.readString());
+        point.setEmotion(reader.readString());
+        point.setEmotionConfidence(reader.readNullableDouble());
+        point.setLatitude(reader.readNullableDouble());
+        point.setLongitude(reader.readNullableDouble());
+        point.setLocationName(reader.readString());
+        point.setDuration(reader.readNullableInt());
+        point.setWaveformPeaks(reader.readBytes());
+        String accessType = reader.readString();
+        point.setAccessType(accessType != null ? Memory.AccessType.valueOf(accessType) : null);
+        point.setIsActive(reader.readNullableBoolean());
+        point.setUnlockCount(reader.readNullableInt());
+        point.setCreatedAt(reader.readDateTime());
+        return point;
+    }
+
+    // Discovery section: emotions are written once and referenced by index
+
+    private void writeCandidates(SnapshotWriter writer, List<DiscoveryCandidate> candidates) throws IOException {
+        Map<String, Integer> emotions = new LinkedHashMap<>();
+        for (DiscoveryCandidate candidate : candidates) {
+            emotions.putIfAbsent(candidate.emotion(), emotions.size());
+        }
+        writer.writeInt(emotions.size());
+        for (String emotion : emotions.keySet()) {
+            writer.writeString(emotion);
+        }
+        writer.writeInt(candidates.size());
+        for (DiscoveryCandidate candidate : candidates) {
+            writer.writeUuid(candidate.id());
+            writer.writeUuid(candidate.userId());
+            writer.writeInt(emotions.get(candidate.emotion()));
+            writer.writeDouble(candidate.latitude());
+            writer.writeDouble(candidate.longitude());
+            writer.writeInt(candidate.unlockCount());
+            writer.writeLong(candidate.createdAt());
+        }
+    }
+
+    private List<DiscoveryCandidate> readCandidates(SnapshotReader reader) {
+        int emotionCount = reader.readInt();
+        String[] emotions = new String[emotionCount];
+        for (int i = 0; i < emotionCount; i++) {
+            emotions[i] = reader.readString();
+        }
+        int candidateCount = reader.readInt();
+        List<DiscoveryCandidate> candidates = new ArrayList<>(candidateCount);
+        for (int i = 0; i < candidateCount; i++) {
+            candidates.add(new DiscoveryCandidate(reader.readUuid(), reader.readUuid(), emotions[reader.readInt()],
+                    reader.readDouble(), reader.readDouble(), reader.readInt(), reader.readLong()));
+        }
+        return candidates;
+    }
+}
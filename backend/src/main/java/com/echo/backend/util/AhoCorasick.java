@@ -0,0 +1,216 @@
+package com.echo.backend.util;
+
+import java.util.Arrays;
+
+/**
+ * Aho-Corasick automaton over a fixed set of patterns, matched case-insensitively in a single pass
+ * over the text regardless of how many patterns there are. Immutable once built, so one instance
+ * can be shared by any number of threads.
+ *
+ * Goto transitions live in an open-addressed hash table keyed by (state, char) packed into a
+ * long, which keeps the whole automaton in a handful of primitive arrays.
+ */
+public final class AhoCorasick {
+
+    /** Receives each occurrence; end is exclusive. Overlapping occurrences are all reported. */
+    @FunctionalInterface
+    public interface MatchHandler {
+        void onMatch(int pattern, int start, int end);
+    }
+
+    private final TransitionTable transitions;
+    private final int[] fail;
+    private final int[] output;     // pattern ending at the state, or -1
+    private final int[] outputLink; // nearest state on the fail chain with an output, or -1
+    private final int[] patternLength;
+
+    private AhoCorasick(TransitionTable transitions, int[] fail, int[] output, int[] outputLink, int[] patternLength) {
+        this.transitions = transitions;
+        this.fail = fail;
+        this.output = output;
+        this.outputLink = outputLink;
+        this.patternLength = patternLength;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int patternCount() {
+        return patternLength.length;
+    }
+
+    public void match(CharSequence text, MatchHandler handler) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = Character.toLowerCase(text.charAt(i));
+            int next = transitions.get(state, ch);
+            while (next < 0 && state != 0) {
+                state = fail[state];
+                next = transitions.get(state, ch);
+            }
+            state = Math.max(next, 0);
+            for (int s = output[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s]) {
+                int pattern = output[s];
+                handler.onMatch(pattern, i + 1 - patternLength[pattern], i + 1);
+            }
+        }
+    }
+
+    public static final class Builder {
+
+        private final TransitionTable transitions = new TransitionTable(1024);
+        private int[] output = new int[64];
+        private int[] firstChild = new int[64];
+        private int[] nextSibling = new int[64];
+        private char[] label = new char[64]; // char on the edge into each state
+        private int states = 1;
+        private int[] patternLength = new int[16];
+        private int patterns;
+
+        private Builder() {
+            output[0] = -1;
+            firstChild[0] = -1;
+        }
+
+        /** Adds a pattern and returns its index; adding the same text again replaces the earlier one. */
+        public int add(String pattern) {
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("Pattern must not be empty");
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char ch = Character.toLowerCase(pattern.charAt(i));
+                int next = transitions.get(state, ch);
+                if (next < 0) {
+                    next = newState();
+                    transitions.put(state, ch, next);
+                    label[next] = ch;
+                    nextSibling[next] = firstChild[state];
+                    firstChild[state] = next;
+                }
+                state = next;
+            }
+            if (patterns == patternLength.length) {
+                patternLength = Arrays.copyOf(patternLength, patterns * 2);
+            }
+            patternLength[patterns] = pattern.length();
+            output[state] = patterns;
+            return patterns++;
+        }
+
+        public AhoCorasick build() {
+            int[] fail = new int[states];
+            int[] outputLink = new int[states];
+            outputLink[0] = -1;
+
+            // Breadth-first, so every state's fail target is final before its children need it
+            int[] queue = new int[states];
+            int head = 0, tail = 0;
+            for (int child = firstChild[0]; child >= 0; child = nextSibling[child]) {
+                fail[child] = 0;
+                outputLink[child] = -1;
+                queue[tail++] = child;
+            }
+            while (head < tail) {
+                int state = queue[head++];
+                for (int child = firstChild[state]; child >= 0; child = nextSibling[child]) {
+                    char ch = label[child];
+                    int f = fail[state];
+                    int target = transitions.get(f, ch);
+                    while (target < 0 && f != 0) {
+                        f = fail[f];
+                        target = transitions.get(f, ch);
+                    }
+                    fail[child] = Math.max(target, 0);
+                    outputLink[child] = output[fail[child]] >= 0 ? fail[child] : outputLink[fail[child]];
+                    queue[tail++] = child;
+                }
+            }
+            return new AhoCorasick(transitions, fail, Arrays.copyOf(output, states), outputLink,
+                    Arrays.copyOf(patternLength, patterns));
+        }
+
+        private int newState() {
+            if (states == output.length) {
+                output = Arrays.copyOf(output, states * 2);
+                firstChild = Arrays.copyOf(firstChild, states * 2);
+                nextSibling = Arrays.copyOf(nextSibling, states * 2);
+                label = Arrays.copyOf(label, states * 2);
+            }
+            output[states] = -1;
+            firstChild[states] = -1;
+            return states++;
+        }
+    }
+
+    // Open-addressed (state, char) -> state map with linear probing
+    private static final class TransitionTable {
+
+        private static final long EMPTY = -1L;
+
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        TransitionTable(int capacity) {
+            keys = new long[capacity];
+            values = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        int get(int state, char ch) {
+            long key = key(state, ch);
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+                long k = keys[slot];
+                if (k == key) {
+                    return values[slot];
+                }
+                if (k == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(int state, char ch, int target) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            insert(key(state, ch), target);
+            size++;
+        }
+
+        private void insert(long key, int value) {
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            Arrays.fill(keys, EMPTY);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    insert(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static long key(int state, char ch) {
+            return ((long) state << 16) | ch;
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.echo.backend.util;
+
+import java.time.LocalDateTime;
+
+/**
+ * Start of the window discovery listings (public, nearby, map and feed) look back over, from
+ * {@code memories.discovery-window-days}. Zero, the default, means every memory is discoverable;
+ * a positive value drops older memories and lets those queries prune older partitions.
+ */
+public final class DiscoveryWindow {
+
+    // Before any memory; still a bound on the partition key, so the queries keep their shape
+    public static final LocalDateTime UNBOUNDED = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private DiscoveryWindow() {}
+
+    public static LocalDateTime start(long days) {
+        return days > 0 ? LocalDateTime.now().minusDays(days) : UNBOUNDED;
+    }
+}
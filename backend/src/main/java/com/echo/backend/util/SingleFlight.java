@@ -0,0 +1,101 @@
+package com.echo.backend.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one. The first caller (the leader) runs the
+ * loader on its own thread; callers arriving while it runs share its {@link CompletableFuture}
+ * and wait up to the timeout instead of repeating the work. Nothing is kept once the call
+ * completes, so this removes duplicate concurrent work without serving stale results the way a
+ * cache would. A loader failure is rethrown to the leader and every waiter.
+ *
+ * Counts calls in {@code echo.singleflight.calls} tagged with the flight name and the caller's
+ * role: leader, coalesced, timeout or failed (a waiter that received the leader's failure).
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutMs;
+    private final Counter leaders;
+    private final Counter coalesced;
+    private final Counter timeouts;
+    private final Counter failed;
+
+    public SingleFlight(String name, long timeoutMs, MeterRegistry meterRegistry) {
+        this.timeoutMs = timeoutMs;
+        this.leaders = counter(meterRegistry, name, "leader");
+        this.coalesced = counter(meterRegistry, name, "coalesced");
+        this.timeouts = counter(meterRegistry, name, "timeout");
+        this.failed = counter(meterRegistry, name, "failed");
+        meterRegistry.gauge("echo.singleflight.inflight", Tags.of("flight", name), inFlight, Map::size);
+    }
+
+    /**
+     * Returns the loader's result for key, running it only if no call for the same key is in
+     * flight. Throws TimeoutException when the in-flight call takes longer than the timeout to
+     * finish; the call itself carries on for its leader.
+     */
+    public V execute(K key, Supplier<V> loader) throws TimeoutException {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            leaders.increment();
+            V value;
+            try {
+                value = loader.get();
+            } catch (RuntimeException | Error e) {
+                inFlight.remove(key, flight);
+                flight.completeExceptionally(e);
+                throw e;
+            }
+            // Removed before completing, so callers arriving from now on start a fresh call
+            inFlight.remove(key, flight);
+            flight.complete(value);
+            return value;
+        }
+
+        coalesced.increment();
+        try {
+            return existing.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw e;
+        } catch (ExecutionException e) {
+            failed.increment();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String role) {
+        return Counter.builder("echo.singleflight.calls")
+                .description("Calls through a single-flight group, by role")
+                .tag("flight", name)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,97 @@
+package com.echo.backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps the k highest-scoring items offered to it in a binary min-heap, so ranking n candidates
+ * costs O(n log k) time and O(k) memory instead of sorting all of them. An offer that does not
+ * beat the current k-th best is rejected with a single comparison. Not thread-safe.
+ */
+public class TopK<T> {
+
+    private final int capacity;
+    private final double[] scores;
+    private final Object[] items;
+    private int size;
+
+    public TopK(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.scores = new double[capacity];
+        this.items = new Object[capacity];
+    }
+
+    public void offer(T item, double score) {
+        if (size < capacity) {
+            scores[size] = score;
+            items[size] = item;
+            siftUp(size++);
+        } else if (score > scores[0]) {
+            scores[0] = score;
+            items[0] = item;
+            siftDown(0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** The retained items, best first. */
+    @SuppressWarnings("unchecked")
+    public List<T> toSortedList() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+        List<T> result = new ArrayList<>(size);
+        for (Integer index : order) {
+            result.add((T) items[index]);
+        }
+        return result;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[parent] <= scores[index]) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && scores[left] < scores[smallest]) {
+                smallest = left;
+            }
+            if (right < size && scores[right] < scores[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+        Object item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+    }
+}
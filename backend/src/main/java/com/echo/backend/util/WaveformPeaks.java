@@ -0,0 +1,143 @@
+package com.echo.backend.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+
+/**
+ * Computes a fixed-size waveform preview from uploaded WAV audio: the recording is split into
+ * {@code buckets} equal spans of frames and each span is reduced to its minimum and maximum sample
+ * (across all channels), scaled to a signed byte. The result is {@code 2 * buckets} bytes laid out
+ * min0, max0, min1, max1, ...
+ *
+ * Understands RIFF/WAVE with integer PCM (8, 16, 24 or 32 bit) or IEEE float (32 or 64 bit),
+ * including WAVE_FORMAT_EXTENSIBLE. Anything else yields null, and callers store no preview.
+ */
+public final class WaveformPeaks {
+
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_IEEE_FLOAT = 3;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+
+    private WaveformPeaks() {}
+
+    /**
+     * Peaks for audio sent as a {@code data:} URL or bare base64 string, or null when it is
+     * empty, not valid base64 or not a supported WAV file.
+     */
+    public static byte[] fromAudioData(String audioData, int buckets) {
+        if (audioData == null || audioData.isBlank()) {
+            return null;
+        }
+        int comma = audioData.startsWith("data:") ? audioData.indexOf(',') : -1;
+        String encoded = comma >= 0 ? audioData.substring(comma + 1) : audioData;
+        byte[] bytes;
+        try {
+            bytes = Base64.getMimeDecoder().decode(encoded);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return fromWav(bytes, buckets);
+    }
+
+    public static byte[] fromWav(byte[] wav, int buckets) {
+        if (buckets <= 0) {
+            throw new IllegalArgumentException("Bucket count must be positive");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(wav).order(ByteOrder.LITTLE_ENDIAN);
+        if (wav.length < 12 || buffer.getInt(0) != 0x46464952 || buffer.getInt(8) != 0x45564157) {
+            return null; // not "RIFF" .... "WAVE"
+        }
+
+        int format = -1, channels = 0, bitsPerSample = 0;
+        int dataOffset = -1, dataLength = 0;
+        int position = 12;
+        while (position + 8 <= wav.length) {
+            int chunkId = buffer.getInt(position);
+            long chunkSize = Integer.toUnsignedLong(buffer.getInt(position + 4));
+            int body = position + 8;
+            if (chunkId == 0x20746D66 && chunkSize >= 16 && body + 16 <= wav.length) { // "fmt "
+                format = Short.toUnsignedInt(buffer.getShort(body));
+                channels = Short.toUnsignedInt(buffer.getShort(body + 2));
+                bitsPerSample = Short.toUnsignedInt(buffer.getShort(body + 14));
+                if (format == FORMAT_EXTENSIBLE && chunkSize >= 26 && body + 26 <= wav.length) {
+                    format = Short.toUnsignedInt(buffer.getShort(body + 24));
+                }
+            } else if (chunkId == 0x61746164) { // "data"
+                dataOffset = body;
+                // Streamed recorders may leave the size unset; take whatever is there
+                dataLength = (int) Math.min(chunkSize, wav.length - body);
+                break;
+            }
+            position = (int) Math.min(Integer.MAX_VALUE, body + chunkSize + (chunkSize & 1));
+        }
+
+        int bytesPerSample = bitsPerSample / 8;
+        boolean supported = format == FORMAT_PCM && bitsPerSample >= 8 && bitsPerSample <= 32 && bitsPerSample % 8 == 0
+                || format == FORMAT_IEEE_FLOAT && (bitsPerSample == 32 || bitsPerSample == 64);
+        if (!supported || channels == 0 || dataOffset < 0) {
+            return null;
+        }
+
+        int frameSize = bytesPerSample * channels;
+        long frames = dataLength / frameSize;
+        byte[] peaks = new byte[buckets * 2];
+        if (frames == 0) {
+            return peaks;
+        }
+
+        float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+        int bucket = 0;
+        for (long frame = 0; frame < frames; frame++) {
+            int frameBucket = (int) (frame * buckets / frames);
+            if (frameBucket != bucket) {
+                store(peaks, bucket, min, max);
+                min = Float.MAX_VALUE;
+                max = -Float.MAX_VALUE;
+                bucket = frameBucket;
+            }
+            int offset = dataOffset + (int) (frame * frameSize);
+            for (int channel = 0; channel < channels; channel++) {
+                float sample = sample(buffer, offset + channel * bytesPerSample, format, bitsPerSample);
+                min = Math.min(min, sample);
+                max = Math.max(max, sample);
+            }
+        }
+        store(peaks, bucket, min, max);
+        return peaks;
+    }
+
+    // Sample at offset scaled to [-1, 1]
+    private static float sample(ByteBuffer buffer, int offset, int format, int bitsPerSample) {
+        if (format == FORMAT_IEEE_FLOAT) {
+            return bitsPerSample == 32 ? buffer.getFloat(offset) : (float) buffer.getDouble(offset);
+        }
+        switch (bitsPerSample) {
+            case 8:
+                return (Byte.toUnsignedInt(buffer.get(offset)) - 128) / 128f; // 8-bit WAV is unsigned
+            case 16:
+                return buffer.getShort(offset) / 32768f;
+            case 24:
+                int value = (buffer.get(offset) & 0xFF) | (buffer.get(offset + 1) & 0xFF) << 8
+                        | buffer.get(offset + 2) << 16;
+                return value / 8388608f;
+            default:
+                return buffer.getInt(offset) / 2147483648f;
+        }
+    }
+
+    private static void store(byte[] peaks, int bucket, float min, float max) {
+        if (min > max) {
+            return; // empty bucket, left at zero
+        }
+        peaks[bucket * 2] = quantize(min);
+        peaks[bucket * 2 + 1] = quantize(max);
+    }
+
+    private static byte quantize(float sample) {
+        if (Float.isNaN(sample)) {
+            return 0;
+        }
+        return (byte) Math.round(Math.max(-1f, Math.min(1f, sample)) * 127);
+    }
+}
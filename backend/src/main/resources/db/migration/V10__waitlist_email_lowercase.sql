@@ -0,0 +1,13 @@
+-- WaitlistService trims and lower-cases emails before the ON CONFLICT (email) insert. Rows written
+-- before that kept their original case, so they no longer collide with a new signup for the same
+-- address. Keep the earliest signup per normalized address, normalize the survivors, and reject
+-- any future write that is not normalized.
+
+DELETE FROM waitlist_users w
+USING waitlist_users keep
+WHERE lower(btrim(keep.email)) = lower(btrim(w.email))
+  AND (keep.joined_at, keep.id) < (w.joined_at, w.id);
+
+UPDATE waitlist_users SET email = lower(btrim(email)) WHERE email <> lower(btrim(email));
+
+ALTER TABLE waitlist_users ADD CONSTRAINT ck_waitlist_users_email_normalized CHECK (email = lower(btrim(email)));
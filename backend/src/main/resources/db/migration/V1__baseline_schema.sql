@@ -0,0 +1,71 @@
+-- Baseline schema, equivalent to what Hibernate ddl-auto produced before migrations were introduced.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate) and skip this file.
+
+CREATE TABLE users (
+    id                       uuid          NOT NULL,
+    username                 varchar(100)  NOT NULL,
+    email                    varchar(255)  NOT NULL,
+    password                 varchar(255)  NOT NULL,
+    avatar                   varchar(500),
+    bio                      varchar(1000),
+    has_completed_onboarding boolean       NOT NULL,
+    created_at               timestamp(6)  NOT NULL,
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE memories (
+    id                 uuid          NOT NULL,
+    user_id            uuid          NOT NULL,
+    title              varchar(255)  NOT NULL,
+    description        text,
+    content            text,
+    audio_data         text,
+    audio_url          varchar(255),
+    emotion            varchar(255)  NOT NULL,
+    emotion_confidence float(53),
+    latitude           float(53)     NOT NULL,
+    longitude          float(53)     NOT NULL,
+    location_name      varchar(255),
+    duration           integer,
+    access_type        varchar(255)  NOT NULL,
+    is_active          boolean       NOT NULL,
+    unlock_count       integer,
+    created_at         timestamp(6)  NOT NULL,
+    CONSTRAINT memories_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_memories_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT memories_access_type_check
+        CHECK (access_type IN ('PUBLIC', 'FRIENDS', 'EMOTION_MATCH', 'PRIVATE'))
+);
+
+CREATE TABLE memory_unlocks (
+    id             uuid          NOT NULL,
+    memory_id      uuid          NOT NULL,
+    unlocked_by    uuid          NOT NULL,
+    echo_content   text,
+    echo_audio_url varchar(255),
+    unlocked_at    timestamp(6)  NOT NULL,
+    CONSTRAINT memory_unlocks_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_memory_unlocks_memory FOREIGN KEY (memory_id) REFERENCES memories (id),
+    CONSTRAINT fk_memory_unlocks_user FOREIGN KEY (unlocked_by) REFERENCES users (id),
+    CONSTRAINT uk_memory_unlocks_memory_user UNIQUE (memory_id, unlocked_by)
+);
+
+CREATE TABLE emotion_profiles (
+    id           uuid          NOT NULL,
+    user_id      uuid          NOT NULL,
+    emotion_data jsonb         NOT NULL,
+    last_updated timestamp(6)  NOT NULL,
+    CONSTRAINT emotion_profiles_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_emotion_profiles_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE waitlist_users (
+    id        uuid          NOT NULL,
+    email     varchar(255)  NOT NULL,
+    source    varchar(255),
+    joined_at timestamp(6)  NOT NULL,
+    CONSTRAINT waitlist_users_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_waitlist_users_email UNIQUE (email)
+);
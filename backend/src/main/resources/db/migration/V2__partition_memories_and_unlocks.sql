@@ -0,0 +1,133 @@
+-- Converts memories and memory_unlocks to monthly range partitions on created_at / unlocked_at,
+-- so time-bounded queries prune old partitions and vacuum/index maintenance stays per-month.
+--
+-- Postgres requires every unique constraint on a partitioned table to include the partition key,
+-- which has two consequences:
+--   * primary keys become (id, created_at) / (id, unlocked_at);
+--   * memory_unlocks can no longer reference memories(id), and the one-unlock-per-user rule moves
+--     to memory_unlock_keys, maintained by trigger. Its primary key keeps the name
+--     uk_memory_unlocks_memory_user so duplicate detection in MemoryUnlockService is unchanged.
+
+-- Creates any missing monthly partitions of parent from from_month up to months_ahead past now.
+-- Also called daily by PartitionMaintenanceService.
+CREATE OR REPLACE FUNCTION ensure_monthly_partitions(parent text, from_month date, months_ahead int)
+RETURNS int
+LANGUAGE plpgsql AS $$
+DECLARE
+    month_start date := date_trunc('month', from_month)::date;
+    last_month  date := (date_trunc('month', now()) + make_interval(months => months_ahead))::date;
+    part_name   text;
+    created     int  := 0;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        part_name := format('%s_y%sm%s', parent, to_char(month_start, 'YYYY'), to_char(month_start, 'MM'));
+        IF to_regclass(part_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                           part_name, parent, month_start, (month_start + interval '1 month')::date);
+            created := created + 1;
+        END IF;
+        month_start := (month_start + interval '1 month')::date;
+    END LOOP;
+    RETURN created;
+END
+$$;
+
+ALTER TABLE memory_unlocks RENAME TO memory_unlocks_legacy;
+ALTER TABLE memories RENAME TO memories_legacy;
+
+-- Its backing index name is reused by memory_unlock_keys below
+ALTER TABLE memory_unlocks_legacy DROP CONSTRAINT IF EXISTS uk_memory_unlocks_memory_user;
+
+-- memories -------------------------------------------------------------------------------------
+
+CREATE TABLE memories (
+    id                 uuid          NOT NULL,
+    user_id            uuid          NOT NULL,
+    title              varchar(255)  NOT NULL,
+    description        text,
+    content            text,
+    audio_data         text,
+    audio_url          varchar(255),
+    emotion            varchar(255)  NOT NULL,
+    emotion_confidence float(53),
+    latitude           float(53)     NOT NULL,
+    longitude          float(53)     NOT NULL,
+    location_name      varchar(255),
+    duration           integer,
+    access_type        varchar(255)  NOT NULL,
+    is_active          boolean       NOT NULL,
+    unlock_count       integer,
+    created_at         timestamp(6)  NOT NULL,
+    CONSTRAINT memories_pk PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_memories_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT memories_access_type_check
+        CHECK (access_type IN ('PUBLIC', 'FRIENDS', 'EMOTION_MATCH', 'PRIVATE'))
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE memories_default PARTITION OF memories DEFAULT;
+
+SELECT ensure_monthly_partitions('memories',
+        COALESCE((SELECT min(created_at) FROM memories_legacy), now())::date, 3);
+
+INSERT INTO memories (id, user_id, title, description, content, audio_data, audio_url, emotion,
+                      emotion_confidence, latitude, longitude, location_name, duration, access_type,
+                      is_active, unlock_count, created_at)
+SELECT id, user_id, title, description, content, audio_data, audio_url, emotion,
+       emotion_confidence, latitude, longitude, location_name, duration, access_type,
+       is_active, unlock_count, created_at
+FROM memories_legacy;
+
+-- memory_unlocks -------------------------------------------------------------------------------
+
+CREATE TABLE memory_unlocks (
+    id             uuid          NOT NULL,
+    memory_id      uuid          NOT NULL,
+    unlocked_by    uuid          NOT NULL,
+    echo_content   text,
+    echo_audio_url varchar(255),
+    unlocked_at    timestamp(6)  NOT NULL,
+    CONSTRAINT memory_unlocks_pk PRIMARY KEY (id, unlocked_at),
+    CONSTRAINT fk_memory_unlocks_user FOREIGN KEY (unlocked_by) REFERENCES users (id)
+) PARTITION BY RANGE (unlocked_at);
+
+CREATE TABLE memory_unlocks_default PARTITION OF memory_unlocks DEFAULT;
+
+SELECT ensure_monthly_partitions('memory_unlocks',
+        COALESCE((SELECT min(unlocked_at) FROM memory_unlocks_legacy), now())::date, 3);
+
+INSERT INTO memory_unlocks (id, memory_id, unlocked_by, echo_content, echo_audio_url, unlocked_at)
+SELECT id, memory_id, unlocked_by, echo_content, echo_audio_url, unlocked_at
+FROM memory_unlocks_legacy;
+
+CREATE TABLE memory_unlock_keys (
+    memory_id   uuid NOT NULL,
+    unlocked_by uuid NOT NULL,
+    CONSTRAINT uk_memory_unlocks_memory_user PRIMARY KEY (memory_id, unlocked_by)
+);
+
+INSERT INTO memory_unlock_keys (memory_id, unlocked_by)
+SELECT memory_id, unlocked_by FROM memory_unlocks
+ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION memory_unlock_keys_sync() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO memory_unlock_keys (memory_id, unlocked_by) VALUES (NEW.memory_id, NEW.unlocked_by);
+        RETURN NEW;
+    END IF;
+    DELETE FROM memory_unlock_keys WHERE memory_id = OLD.memory_id AND unlocked_by = OLD.unlocked_by;
+    RETURN OLD;
+END
+$$;
+
+CREATE TRIGGER memory_unlocks_keys_insert
+    AFTER INSERT ON memory_unlocks
+    FOR EACH ROW EXECUTE FUNCTION memory_unlock_keys_sync();
+
+CREATE TRIGGER memory_unlocks_keys_delete
+    AFTER DELETE ON memory_unlocks
+    FOR EACH ROW EXECUTE FUNCTION memory_unlock_keys_sync();
+
+DROP TABLE memory_unlocks_legacy;
+DROP TABLE memories_legacy;
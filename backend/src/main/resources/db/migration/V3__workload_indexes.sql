@@ -0,0 +1,31 @@
+-- Indexes for the queries in MemoryRepository and MemoryUnlockRepository. Indexes created on the
+-- partitioned parents cascade to every existing and future partition. QueryPlanTest checks that
+-- the repository queries keep using them.
+
+-- findByUser / findByUserSince
+CREATE INDEX idx_memories_user_created ON memories (user_id, created_at DESC);
+
+-- findPublicMemories*, findMemoriesForEmotionMap, findRecentPublicMemories
+CREATE INDEX idx_memories_public_created ON memories (created_at DESC)
+    WHERE is_active AND access_type = 'PUBLIC';
+
+-- *ByEmotion variants
+CREATE INDEX idx_memories_public_emotion ON memories (emotion, created_at DESC)
+    WHERE is_active AND access_type = 'PUBLIC';
+
+-- findNearbyMemories*: the queries carry a bounding box on latitude/longitude before the exact
+-- distance check, which this index serves
+CREATE INDEX idx_memories_public_location ON memories (latitude, longitude)
+    WHERE is_active AND access_type = 'PUBLIC';
+
+-- countMemoriesByEmotion
+CREATE INDEX idx_memories_active_emotion ON memories (is_active, emotion);
+
+-- findByMemory*, findByMemoryId, countByMemoryId, existsByMemoryIdAndUserId
+CREATE INDEX idx_memory_unlocks_memory ON memory_unlocks (memory_id, unlocked_at DESC);
+
+-- findByUnlockedBy*, findByUserId, countByUserId
+CREATE INDEX idx_memory_unlocks_user ON memory_unlocks (unlocked_by, unlocked_at DESC);
+
+-- EmotionProfileRepository.findByUserId / existsByUserId
+CREATE INDEX idx_emotion_profiles_user ON emotion_profiles (user_id);
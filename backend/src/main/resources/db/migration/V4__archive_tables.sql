@@ -0,0 +1,63 @@
+-- Cold storage for rows moved out of the hot tables by ArchivalService: memories that have been
+-- inactive past the retention window and old unlocks. Same column layout as the hot tables plus
+-- archived_at; not partitioned, since they are only read by primary key or memory id.
+--
+-- A low toast_tuple_target makes Postgres compress (and move out of line) wide text columns such
+-- as audio_data and content much earlier than the 2 kB default.
+
+CREATE TABLE memories_archive (
+    id                 uuid          NOT NULL,
+    user_id            uuid          NOT NULL,
+    title              varchar(255)  NOT NULL,
+    description        text,
+    content            text,
+    audio_data         text,
+    audio_url          varchar(255),
+    emotion            varchar(255)  NOT NULL,
+    emotion_confidence float(53),
+    latitude           float(53)     NOT NULL,
+    longitude          float(53)     NOT NULL,
+    location_name      varchar(255),
+    duration           integer,
+    access_type        varchar(255)  NOT NULL,
+    is_active          boolean       NOT NULL,
+    unlock_count       integer,
+    created_at         timestamp(6)  NOT NULL,
+    archived_at        timestamp(6)  NOT NULL DEFAULT now(),
+    CONSTRAINT memories_archive_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_memories_archive_user FOREIGN KEY (user_id) REFERENCES users (id)
+) WITH (toast_tuple_target = 128);
+
+CREATE INDEX idx_memories_archive_user ON memories_archive (user_id);
+
+CREATE TABLE memory_unlocks_archive (
+    id             uuid          NOT NULL,
+    memory_id      uuid          NOT NULL,
+    unlocked_by    uuid          NOT NULL,
+    echo_content   text,
+    echo_audio_url varchar(255),
+    unlocked_at    timestamp(6)  NOT NULL,
+    archived_at    timestamp(6)  NOT NULL DEFAULT now(),
+    CONSTRAINT memory_unlocks_archive_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_memory_unlocks_archive_user FOREIGN KEY (unlocked_by) REFERENCES users (id)
+) WITH (toast_tuple_target = 128);
+
+CREATE INDEX idx_memory_unlocks_archive_memory ON memory_unlocks_archive (memory_id);
+CREATE INDEX idx_memory_unlocks_archive_user ON memory_unlocks_archive (unlocked_by);
+
+-- Archived unlocks still count towards the one-unlock-per-user rule, so deletes made by the
+-- archival job (which sets echo.archiving for its transaction) keep their memory_unlock_keys row.
+CREATE OR REPLACE FUNCTION memory_unlock_keys_sync() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO memory_unlock_keys (memory_id, unlocked_by) VALUES (NEW.memory_id, NEW.unlocked_by);
+        RETURN NEW;
+    END IF;
+    IF coalesce(current_setting('echo.archiving', true), '') = 'on' THEN
+        RETURN OLD;
+    END IF;
+    DELETE FROM memory_unlock_keys WHERE memory_id = OLD.memory_id AND unlocked_by = OLD.unlocked_by;
+    RETURN OLD;
+END
+$$;
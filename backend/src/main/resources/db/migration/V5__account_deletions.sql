@@ -0,0 +1,25 @@
+-- Account deletion pipeline (AccountDeletionService). Setting users.deletion_requested_at locks
+-- the account out immediately; the job then deletes dependent rows in small batches and finally
+-- the user. account_deletions has no foreign key to users so the record outlives the account and
+-- progress stays visible.
+
+ALTER TABLE users ADD COLUMN deletion_requested_at timestamp(6);
+
+CREATE TABLE account_deletions (
+    id            uuid          NOT NULL,
+    user_id       uuid          NOT NULL,
+    status        varchar(20)   NOT NULL,
+    phase         varchar(40)   NOT NULL,
+    rows_deleted  bigint        NOT NULL DEFAULT 0,
+    requested_at  timestamp(6)  NOT NULL,
+    updated_at    timestamp(6)  NOT NULL,
+    completed_at  timestamp(6),
+    CONSTRAINT account_deletions_pkey PRIMARY KEY (id),
+    CONSTRAINT account_deletions_status_check CHECK (status IN ('RUNNING', 'DONE'))
+);
+
+CREATE INDEX idx_account_deletions_user ON account_deletions (user_id);
+CREATE INDEX idx_account_deletions_running ON account_deletions (requested_at) WHERE status = 'RUNNING';
+
+-- The pipeline removes a user's memory_unlock_keys rows by unlocked_by; the primary key leads with memory_id
+CREATE INDEX idx_memory_unlock_keys_user ON memory_unlock_keys (unlocked_by);
@@ -0,0 +1,6 @@
+-- Waveform previews computed once at upload (util.WaveformPeaks): min/max pairs as signed bytes,
+-- a few hundred bytes per memory, so listings can draw a preview without the audio itself.
+-- Null for memories whose audio is missing or not WAV.
+
+ALTER TABLE memories ADD COLUMN waveform_peaks bytea;
+ALTER TABLE memories_archive ADD COLUMN waveform_peaks bytea;
@@ -0,0 +1,13 @@
+-- Running per-user emotion statistics maintained by EmotionProfileService. stats holds the packed
+-- EmotionProfileStats (tens of bytes per emotion); emotion_data keeps a readable JSON rendering of
+-- it. One profile per user, so duplicates from before are collapsed to the newest.
+
+DELETE FROM emotion_profiles p
+USING emotion_profiles newer
+WHERE newer.user_id = p.user_id
+  AND (newer.last_updated, newer.id) > (p.last_updated, p.id);
+
+DROP INDEX IF EXISTS idx_emotion_profiles_user;
+CREATE UNIQUE INDEX uk_emotion_profiles_user ON emotion_profiles (user_id);
+
+ALTER TABLE emotion_profiles ADD COLUMN stats bytea;
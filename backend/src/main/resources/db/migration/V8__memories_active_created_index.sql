@@ -0,0 +1,4 @@
+-- Read models catch up on new memories by created_at watermark (service.EmotionMapReadModel),
+-- private ones included, so they need created_at lookups beyond the public-only index from V3.
+
+CREATE INDEX idx_memories_active_created ON memories (created_at) WHERE is_active;
@@ -0,0 +1,11 @@
+-- When a memory was last deactivated (null while active). ArchivalService archives memories that
+-- have been inactive for archive.inactive-memory-days, which created_at cannot tell. Memories
+-- already inactive get the migration time, so they are archived a full retention window from now.
+
+ALTER TABLE memories ADD COLUMN deactivated_at timestamp(6);
+ALTER TABLE memories_archive ADD COLUMN deactivated_at timestamp(6);
+
+UPDATE memories SET deactivated_at = now() WHERE NOT is_active;
+UPDATE memories_archive SET deactivated_at = archived_at WHERE NOT is_active;
+
+CREATE INDEX idx_memories_deactivated ON memories (deactivated_at) WHERE NOT is_active;
@@ -0,0 +1,80 @@
+package com.echo.backend.config;
+
+import com.echo.backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Access rules: CORS preflights, which routes are rate limited, and what needs a token.
+ */
+@PostgresIntegrationTest
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void preflightAllowsPatch() throws Exception {
+        mockMvc.perform(options("/memories/bulk/active")
+                        .header(HttpHeaders.ORIGIN, "http://localhost:5173")
+                        .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "PATCH")
+                        .header(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, "Authorization, Content-Type"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS,
+                        containsString("PATCH")));
+    }
+
+    @Test
+    void memoryWritesLimitCoversPatch() {
+        RateLimitProperties.Route writes = rateLimitProperties.getRoutes().stream()
+                .filter(route -> route.getName().equals("memory-writes"))
+                .findFirst().orElseThrow();
+        assertThat(writes.getMethods()).contains("POST", "PUT", "PATCH", "DELETE");
+    }
+
+    @Test
+    void healthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void metricsNeedAToken() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/actuator/metrics/jvm.memory.used")).andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/actuator/info")).andExpect(status().is4xxClientError());
+
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + signup()))
+                .andExpect(status().isOk());
+    }
+
+    private String signup() throws Exception {
+        String name = "security_" + UUID.randomUUID().toString().substring(0, 12);
+        String body = objectMapper.writeValueAsString(Map.of(
+                "username", name, "email", name + "@example.invalid", "password", "password123"));
+        String response = mockMvc.perform(post("/auth/signup").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("token").asText();
+    }
+}
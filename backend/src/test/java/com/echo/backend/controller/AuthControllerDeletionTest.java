@@ -0,0 +1,76 @@
+package com.echo.backend.controller;
+
+import com.echo.backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Deletion progress is only reported to the account being deleted, also once it is disabled.
+ */
+@PostgresIntegrationTest
+class AuthControllerDeletionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String ownerToken;
+    private String deletionId;
+
+    @BeforeEach
+    void requestDeletion() throws Exception {
+        ownerToken = signup();
+        JsonNode status = objectMapper.readTree(mockMvc.perform(delete("/auth/me")
+                        .header("Authorization", "Bearer " + ownerToken))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString());
+        deletionId = status.get("id").asText();
+    }
+
+    @Test
+    void ownerSeesProgressWithDisabledAccount() throws Exception {
+        mockMvc.perform(get("/auth/deletions/" + deletionId).header("Authorization", "Bearer " + ownerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(deletionId));
+    }
+
+    @Test
+    void requiresAToken() throws Exception {
+        mockMvc.perform(get("/auth/deletions/" + deletionId))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/auth/deletions/" + deletionId).header("Authorization", "Bearer not-a-token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void otherUsersGetNotFound() throws Exception {
+        mockMvc.perform(get("/auth/deletions/" + deletionId).header("Authorization", "Bearer " + signup()))
+                .andExpect(status().isNotFound());
+    }
+
+    private String signup() throws Exception {
+        String name = "delete_" + UUID.randomUUID().toString().substring(0, 12);
+        String body = objectMapper.writeValueAsString(Map.of(
+                "username", name, "email", name + "@example.invalid", "password", "password123"));
+        return objectMapper.readTree(mockMvc.perform(post("/auth/signup")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("token").asText();
+    }
+}
@@ -0,0 +1,187 @@
+package com.echo.backend.controller;
+
+import com.echo.backend.discovery.DiscoveryFeed;
+import com.echo.backend.support.PostgresIntegrationTest;
+import com.echo.backend.support.StatementCount;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement counts of the endpoints that render many memories or unlocks, each by many users. The
+ * limits are exact, so loading authors or unlocking users separately fails the test even when
+ * Hibernate batches the lazy loads.
+ */
+@PostgresIntegrationTest
+class MemoryControllerStatementCountTest {
+
+    private static final int AUTHORS = 6;
+    private static final int MEMORIES_PER_AUTHOR = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DiscoveryFeed discoveryFeed;
+
+    private record Account(UUID id, String token) {}
+
+    private Account viewer;
+    private final List<Account> authors = new ArrayList<>();
+    private final List<UUID> memoryIds = new ArrayList<>();
+    private double lat;
+    private double lng;
+
+    @BeforeEach
+    void seed() throws Exception {
+        // A spot of its own, so rows left by earlier runs against the same database stay out of range
+        lat = ThreadLocalRandom.current().nextDouble(-60, 60);
+        lng = ThreadLocalRandom.current().nextDouble(-170, 170);
+        viewer = signup();
+        for (int i = 0; i < AUTHORS; i++) {
+            Account author = signup();
+            authors.add(author);
+            for (int j = 0; j < MEMORIES_PER_AUTHOR; j++) {
+                UUID id = UUID.randomUUID();
+                jdbcTemplate.update("""
+                        INSERT INTO memories (id, user_id, title, emotion, emotion_confidence, latitude, longitude,
+                                              duration, access_type, is_active, unlock_count, created_at)
+                        VALUES (?, ?, ?, 'joy', 0.8, ?, ?, 30, 'PUBLIC', true, 0, now())
+                        """, id, author.id(), "memory " + j, lat + 0.01 * j, lng + 0.01 * i);
+                memoryIds.add(id);
+            }
+        }
+        // Every author unlocks the first memory, and the viewer unlocks one memory of each author
+        for (Account author : authors) {
+            unlock(memoryIds.get(0), author.id());
+        }
+        for (int i = 0; i < AUTHORS; i++) {
+            unlock(memoryIds.get(i * MEMORIES_PER_AUTHOR + 1), viewer.id());
+        }
+    }
+
+    @Test
+    void nearbyListingLoadsAuthorsWithTheMemories() throws Exception {
+        getJson(viewer, "/memories/nearby?lat=" + lat + "&lng=" + lng + "&radius=1"); // warm the user cache
+
+        StatementCount.assertAtMost(1, () -> {
+            JsonNode data = getJson(viewer, "/memories/nearby?lat=" + lat + "&lng=" + lng + "&radius=1").get("data");
+            assertThat(data.size()).isEqualTo(AUTHORS * MEMORIES_PER_AUTHOR);
+        });
+    }
+
+    @Test
+    void userListingLoadsOnlyTheUsersMemories() throws Exception {
+        Account author = authors.get(0);
+        getJson(author, "/memories/user");
+
+        StatementCount.assertAtMost(2, () ->
+                assertThat(getJson(author, "/memories/user").get("memories").size()).isEqualTo(MEMORIES_PER_AUTHOR));
+    }
+
+    @Test
+    void discoverPageLoadsMemoriesInOneQuery() throws Exception {
+        discoveryFeed.refresh();
+        getJson(viewer, "/memories/discover?lat=" + lat + "&lng=" + lng + "&size=20");
+
+        StatementCount.assertAtMost(2, () -> {
+            JsonNode data = getJson(viewer, "/memories/discover?lat=" + lat + "&lng=" + lng + "&size=20").get("data");
+            assertThat(data.size()).isEqualTo(20);
+        });
+    }
+
+    @Test
+    void unlockListingLoadsUnlockingUsersWithTheUnlocks() throws Exception {
+        String path = "/memories/" + memoryIds.get(0) + "/unlocks";
+
+        StatementCount.assertAtMost(3, () ->
+                assertThat(getJson(viewer, path).get("unlocks").size()).isEqualTo(AUTHORS));
+    }
+
+    @Test
+    void unlockRunsAFixedNumberOfStatements() throws Exception {
+        UUID memoryId = memoryIds.get(2);
+        getJson(viewer, "/memories/" + memoryId);
+
+        StatementCount.assertAtMost(4, () -> mockMvc.perform(post("/memories/" + memoryId + "/unlock")
+                        .header("Authorization", "Bearer " + viewer.token())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"echoContent\":\"hello\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void exportStreamsEachSectionWithOneQuery() throws Exception {
+        Account author = authors.get(0);
+        getJson(author, "/memories/user");
+
+        StatementCount.assertAtMost(4, () -> {
+            MvcResult started = mockMvc.perform(get("/memories/export").header("Authorization", "Bearer " + author.token()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            byte[] body = mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray();
+            // Its memories; unlocks received from every author (itself included) and the viewer; its own unlock
+            assertThat(gunzipLines(body)).hasSize(MEMORIES_PER_AUTHOR + AUTHORS + 1 + 1);
+        });
+    }
+
+    private Account signup() throws Exception {
+        String name = "stmt_" + UUID.randomUUID().toString().substring(0, 12);
+        String body = objectMapper.writeValueAsString(Map.of(
+                "username", name, "email", name + "@example.invalid", "password", "password123"));
+        JsonNode response = objectMapper.readTree(mockMvc.perform(post("/auth/signup")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        return new Account(UUID.fromString(response.at("/user/id").asText()), response.get("token").asText());
+    }
+
+    private void unlock(UUID memoryId, UUID userId) {
+        jdbcTemplate.update("INSERT INTO memory_unlocks (id, memory_id, unlocked_by, echo_content, unlocked_at)"
+                + " VALUES (?, ?, ?, 'echo', now())", UUID.randomUUID(), memoryId, userId);
+    }
+
+    private JsonNode getJson(Account account, String path) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(path).header("Authorization", "Bearer " + account.token()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private static List<String> gunzipLines(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return text.lines().toList();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.echo.backend.controller;
+
+import com.echo.backend.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * An unlock is recorded and counted together: a duplicate that gets past the up-front check, as a
+ * concurrent request does, is a conflict, and a memory that is no longer active is gone.
+ */
+@PostgresIntegrationTest
+class MemoryControllerUnlockTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private UUID viewerId;
+    private String viewerToken;
+    private UUID memoryId;
+
+    @BeforeEach
+    void seed() throws Exception {
+        JsonNode author = signup();
+        JsonNode viewer = signup();
+        viewerId = UUID.fromString(viewer.at("/user/id").asText());
+        viewerToken = viewer.get("token").asText();
+        memoryId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO memories (id, user_id, title, emotion, emotion_confidence, latitude, longitude,
+                                      duration, access_type, is_active, unlock_count, created_at)
+                VALUES (?, ?, 'unlock race', 'joy', 0.8, 10, 10, 30, 'PUBLIC', true, 0, now())
+                """, memoryId, UUID.fromString(author.at("/user/id").asText()));
+    }
+
+    @Test
+    void unlockIsCounted() throws Exception {
+        unlock().andExpect(status().isOk());
+
+        assertThat(unlockCount()).isEqualTo(1);
+        assertThat(unlockRows()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentDuplicateUnlockIsAConflict() throws Exception {
+        // Written behind the service's back, so the bloom filter still answers "not unlocked"
+        jdbcTemplate.update("INSERT INTO memory_unlocks (id, memory_id, unlocked_by, echo_content, unlocked_at)"
+                + " VALUES (?, ?, ?, 'first', now())", UUID.randomUUID(), memoryId, viewerId);
+
+        unlock().andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Memory already unlocked"));
+
+        assertThat(unlockCount()).isZero();
+    }
+
+    @Test
+    void deactivatedMemoryIsGone() throws Exception {
+        jdbcTemplate.update("UPDATE memories SET is_active = false, deactivated_at = now() WHERE id = ?", memoryId);
+
+        unlock().andExpect(status().isGone());
+
+        assertThat(unlockRows()).isZero();
+    }
+
+    @Test
+    void archivedMemoryIsGoneAndNothingIsRecorded() throws Exception {
+        // Still active in the archive copy, so only the count update can tell it left memories
+        jdbcTemplate.update("""
+                INSERT INTO memories_archive (id, user_id, title, emotion, emotion_confidence, latitude, longitude,
+                                              duration, access_type, is_active, unlock_count, created_at)
+                SELECT id, user_id, title, emotion, emotion_confidence, latitude, longitude,
+                       duration, access_type, is_active, unlock_count, created_at
+                FROM memories WHERE id = ?
+                """, memoryId);
+        jdbcTemplate.update("DELETE FROM memories WHERE id = ?", memoryId);
+
+        unlock().andExpect(status().isGone())
+                .andExpect(jsonPath("$.error").value("Memory is no longer available"));
+
+        assertThat(unlockRows()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT unlock_count FROM memories_archive WHERE id = ?",
+                Integer.class, memoryId)).isZero();
+    }
+
+    private ResultActions unlock() throws Exception {
+        return mockMvc.perform(post("/memories/" + memoryId + "/unlock")
+                .header("Authorization", "Bearer " + viewerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"echoContent\":\"second\"}"));
+    }
+
+    private int unlockCount() {
+        return jdbcTemplate.queryForObject("SELECT unlock_count FROM memories WHERE id = ?", Integer.class, memoryId);
+    }
+
+    private long unlockRows() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM memory_unlocks WHERE memory_id = ? AND unlocked_by = ?",
+                Long.class, memoryId, viewerId);
+    }
+
+    private JsonNode signup() throws Exception {
+        String name = "unlock_" + UUID.randomUUID().toString().substring(0, 12);
+        String body = objectMapper.writeValueAsString(Map.of(
+                "username", name, "email", name + "@example.invalid", "password", "password123"));
+        return objectMapper.readTree(mockMvc.perform(post("/auth/signup")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,220 @@
+package com.echo.backend.datasource;
+
+import com.echo.backend.support.TestReplica;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read/write routing against a real streaming replica: read-only transactions go to the replica,
+ * a replica that falls behind or stops streaming is skipped, and an actor that just wrote reads
+ * from the primary.
+ * Probes are run by the tests, never by the scheduler.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestReplica.Initializer.class)
+@TestPropertySource(properties = {
+        "datasource.replica.max-lag-seconds=1",
+        "datasource.replica.lag-check-interval-ms=3600000"
+})
+@EnabledIf(value = "com.echo.backend.support.TestReplica#available",
+        disabledReason = "needs Docker, or ECHO_TEST_DATABASE_URL with ECHO_TEST_REPLICA_URL")
+class ReadWriteRoutingTest {
+
+    private static final long TIMEOUT_MS = 10000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void replicaCaughtUp() throws Exception {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        resumeReplay();
+        writeAndAwaitReplay();
+        replicaLagMonitor.probe();
+        assertThat(replicaLagMonitor.getHealthyReplicas()).hasSize(1);
+    }
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        readYourWritesTracker.clearActor();
+        resumeReplay();
+        replicaLagMonitor.probe();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertThat(readsFromReplica()).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class)).isFalse();
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimary() throws Exception {
+        pauseReplay();
+        Thread.sleep(1500); // past max-lag-seconds since the last replayed commit
+        String lsn = writeOnPrimary();
+        awaitOnReplica("SELECT pg_last_wal_receive_lsn() >= ?::pg_lsn", lsn); // received, not replayed
+
+        replicaLagMonitor.probe();
+        assertThat(replicaLagMonitor.getHealthyReplicas()).isEmpty();
+        assertThat(readsFromReplica()).isFalse();
+
+        resumeReplay();
+        awaitOnReplica("SELECT pg_last_wal_replay_lsn() >= ?::pg_lsn", lsn);
+        replicaLagMonitor.probe();
+        assertThat(readsFromReplica()).isTrue();
+    }
+
+    @Test
+    void replicaThatStopsStreamingFallsBackToThePrimary() throws Exception {
+        String conninfo = queryOnReplica("SHOW primary_conninfo");
+        try {
+            setPrimaryConninfo("");
+            awaitStreaming(false);
+            replicaLagMonitor.probe();
+            assertThat(replicaLagMonitor.getHealthyReplicas()).isEmpty();
+            assertThat(readsFromReplica()).isFalse();
+        } finally {
+            setPrimaryConninfo(conninfo);
+        }
+        awaitStreaming(true);
+        writeAndAwaitReplay();
+        replicaLagMonitor.probe();
+        assertThat(readsFromReplica()).isTrue();
+    }
+
+    @Test
+    void actorThatJustWroteReadsFromThePrimary() {
+        String writer = "routing-" + UUID.randomUUID();
+        readYourWritesTracker.bindActor(writer);
+        writeOnPrimary();
+        assertThat(readsFromReplica()).isFalse();
+
+        readYourWritesTracker.bindActor("routing-" + UUID.randomUUID());
+        assertThat(readsFromReplica()).isTrue();
+
+        readYourWritesTracker.bindActor(writer);
+        assertThat(readsFromReplica()).isFalse();
+    }
+
+    private boolean readsFromReplica() {
+        return Boolean.TRUE.equals(readOnly.execute(status ->
+                jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class)));
+    }
+
+    // A committed transaction, so the replica has a replay timestamp to measure lag from. Returns the
+    // insert position: with asynchronous commit the commit record may not be written out yet
+    private String writeOnPrimary() {
+        String name = "routing_" + UUID.randomUUID().toString().substring(0, 12);
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, has_completed_onboarding, created_at)"
+                + " VALUES (?, ?, ?, 'x', true, now())", UUID.randomUUID(), name, name + "@example.invalid");
+        return jdbcTemplate.queryForObject("SELECT pg_current_wal_insert_lsn()::text", String.class);
+    }
+
+    private void writeAndAwaitReplay() throws Exception {
+        awaitOnReplica("SELECT pg_last_wal_replay_lsn() >= ?::pg_lsn", writeOnPrimary());
+    }
+
+    // A standby waiting for WAL only pauses once the next record arrives, and may replay that one
+    private void pauseReplay() throws Exception {
+        onReplica("SELECT pg_wal_replay_pause()");
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!"paused".equals(replayPauseState())) {
+            assertThat(System.currentTimeMillis()).as("replay paused").isLessThan(deadline);
+            writeOnPrimary();
+            Thread.sleep(50);
+        }
+    }
+
+    private String replayPauseState() throws SQLException {
+        return queryOnReplica("SELECT pg_get_wal_replay_pause_state()");
+    }
+
+    private String queryOnReplica(String sql) throws SQLException {
+        try (Connection connection = replicaConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private void resumeReplay() throws SQLException {
+        onReplica("SELECT pg_wal_replay_resume()");
+    }
+
+    // Clearing primary_conninfo and reloading stops the WAL receiver without restarting the standby
+    private void setPrimaryConninfo(String conninfo) throws SQLException {
+        onReplica("ALTER SYSTEM SET primary_conninfo = '" + conninfo.replace("'", "''") + "'");
+        onReplica("SELECT pg_reload_conf()");
+    }
+
+    private void awaitStreaming(boolean streaming) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (streaming != "true".equals(queryOnReplica(
+                "SELECT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming')::text"))) {
+            assertThat(System.currentTimeMillis()).as("replica streaming = " + streaming).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private void onReplica(String sql) throws SQLException {
+        try (Connection connection = replicaConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private void awaitOnReplica(String condition, String lsn) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        try (Connection connection = replicaConnection();
+             PreparedStatement statement = connection.prepareStatement(condition)) {
+            statement.setString(1, lsn);
+            while (true) {
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (rs.next() && rs.getBoolean(1)) {
+                        return;
+                    }
+                }
+                assertThat(System.currentTimeMillis()).as(condition + " for " + lsn).isLessThan(deadline);
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    private static Connection replicaConnection() throws SQLException {
+        TestReplica.Pair pair = TestReplica.pair();
+        return DriverManager.getConnection(pair.replica().url(), pair.replica().username(), pair.replica().password());
+    }
+}
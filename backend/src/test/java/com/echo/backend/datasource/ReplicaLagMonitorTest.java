@@ -0,0 +1,26 @@
+package com.echo.backend.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replicas only serve reads once a probe has found them healthy.
+ */
+class ReplicaLagMonitorTest {
+
+    @Test
+    void noReplicaIsHealthyBeforeItHasBeenProbed() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(List.of("replica-0"),
+                List.of(new DriverManagerDataSource("jdbc:postgresql://localhost:1/unreachable")), 1);
+
+        assertThat(monitor.getHealthyReplicas()).isEmpty();
+        assertThat(monitor.nextHealthyReplica()).isNull();
+
+        monitor.init();
+        assertThat(monitor.getHealthyReplicas()).isEmpty();
+    }
+}
@@ -0,0 +1,165 @@
+package com.echo.backend.diagnostics;
+
+import com.echo.backend.model.UuidV7Generator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.LongFunction;
+
+/**
+ * Inserts the same rows into a scratch table keyed by random (v4) and by time-ordered (v7) uuids
+ * and reports insert throughput as the table grows, primary key index size, WAL written and, when
+ * pgstattuple is available, index leaf density. The "v4-then-v7" run is the migration path: the
+ * first half of the rows get v4 keys, as existing data does, and the rest v7. Run through
+ * scripts/uuid-benchmark.sh:
+ * <pre>
+ *     ROWS=5000000 scripts/uuid-benchmark.sh [v4 v7 v4-then-v7]
+ * </pre>
+ * Connects with DATABASE_URL, DB_USERNAME and DB_PASSWORD like the application; the tables are
+ * dropped afterwards.
+ */
+public final class UuidKeyBenchmark {
+
+    private static final int BATCH = 1000;
+    private static final int CHECKPOINTS = 10;
+    private static final String PAYLOAD = "x".repeat(120); // about the width of a memories row without audio
+
+    private record Result(String mode, double seconds, List<Double> rates, long indexBytes, long tableBytes,
+                          long walBytes, Double leafDensity) {}
+
+    private UuidKeyBenchmark() {}
+
+    public static void main(String[] args) throws SQLException {
+        long rows = Long.parseLong(System.getenv().getOrDefault("ROWS", "5000000"));
+        List<String> modes = args.length > 0 ? List.of(args) : List.of("v4", "v7", "v4-then-v7");
+        String url = System.getenv().getOrDefault("DATABASE_URL", "jdbc:postgresql://localhost:5432/echo_db");
+        String username = System.getenv().getOrDefault("DB_USERNAME", "postgres");
+        String password = System.getenv().getOrDefault("DB_PASSWORD", "password");
+
+        List<Result> results = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(
+                url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true", username, password)) {
+            boolean pgstattuple = hasPgstattuple(connection);
+            for (String mode : modes) {
+                LongFunction<UUID> ids = switch (mode) {
+                    case "v4" -> row -> UUID.randomUUID();
+                    case "v7" -> row -> UuidV7Generator.next();
+                    case "v4-then-v7" -> row -> row < rows / 2 ? UUID.randomUUID() : UuidV7Generator.next();
+                    default -> throw new IllegalArgumentException("Unknown mode " + mode + "; use v4, v7 or v4-then-v7");
+                };
+                System.out.printf(Locale.ROOT, "%s: inserting %,d rows%n", mode, rows);
+                results.add(run(connection, mode, rows, ids, pgstattuple));
+            }
+        }
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-12s %10s %12s %12s %12s %12s %12s %8s%n", "mode", "seconds", "rows/s",
+                "last 10% r/s", "pk index", "table", "WAL", "leaf %");
+        for (Result result : results) {
+            System.out.printf(Locale.ROOT, "%-12s %10.1f %12.0f %12.0f %12s %12s %12s %8s%n", result.mode(),
+                    result.seconds(), rows / result.seconds(), result.rates().get(result.rates().size() - 1),
+                    megabytes(result.indexBytes()), megabytes(result.tableBytes()), megabytes(result.walBytes()),
+                    result.leafDensity() != null ? String.format(Locale.ROOT, "%.1f", result.leafDensity()) : "-");
+        }
+    }
+
+    private static Result run(Connection connection, String mode, long rows, LongFunction<UUID> ids,
+                              boolean pgstattuple) throws SQLException {
+        String table = "uuid_bench_" + mode.replace('-', '_');
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, created_at timestamp NOT NULL,"
+                    + " payload text NOT NULL)");
+        }
+        checkpoint(connection); // both runs start with full-page writes due, as after any checkpoint
+        long walStart = walPosition(connection);
+        List<Double> rates = new ArrayList<>();
+
+        connection.setAutoCommit(false);
+        long started = System.nanoTime();
+        long checkpointStarted = started;
+        long checkpointEvery = Math.max(1, rows / CHECKPOINTS);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, created_at, payload) VALUES (?, ?, ?)")) {
+            for (long row = 0; row < rows; row++) {
+                insert.setObject(1, ids.apply(row));
+                insert.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+                insert.setString(3, PAYLOAD);
+                insert.addBatch();
+                if ((row + 1) % BATCH == 0 || row + 1 == rows) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+                if ((row + 1) % checkpointEvery == 0) {
+                    long now = System.nanoTime();
+                    double rate = checkpointEvery / ((now - checkpointStarted) / 1e9);
+                    rates.add(rate);
+                    checkpointStarted = now;
+                    System.out.printf(Locale.ROOT, "  %,12d rows  %,10.0f rows/s%n", row + 1, rate);
+                }
+            }
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long walBytes = walPosition(connection) - walStart;
+
+        long indexBytes = queryLong(connection, "SELECT pg_relation_size('" + table + "_pkey')");
+        long tableBytes = queryLong(connection, "SELECT pg_relation_size('" + table + "')");
+        Double leafDensity = null;
+        if (pgstattuple) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery(
+                         "SELECT avg_leaf_density FROM pgstatindex('" + table + "_pkey')")) {
+                result.next();
+                leafDensity = result.getDouble(1);
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + table);
+        }
+        return new Result(mode, seconds, rates, indexBytes, tableBytes, walBytes, leafDensity);
+    }
+
+    private static boolean hasPgstattuple(Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pgstattuple");
+            return true;
+        } catch (SQLException e) {
+            System.out.println("pgstattuple not available, leaf density not reported: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void checkpoint(Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CHECKPOINT");
+        } catch (SQLException e) {
+            System.out.println("  CHECKPOINT not permitted, WAL figures include earlier activity: " + e.getMessage());
+        }
+    }
+
+    private static long walPosition(Connection connection) throws SQLException {
+        return queryLong(connection, "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')::bigint");
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024));
+    }
+}
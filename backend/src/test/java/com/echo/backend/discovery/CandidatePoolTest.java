@@ -0,0 +1,89 @@
+package com.echo.backend.discovery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CandidatePoolTest {
+
+    private static final double REGION_SIZE = 2.0;
+
+    @Test
+    void visitsCandidatesInTheRegionsAroundThePoint() {
+        DiscoveryCandidate near = candidate("joy", 40.5, -74.5, 0);
+        DiscoveryCandidate adjacent = candidate("joy", 42.5, -72.5, 0);
+        DiscoveryCandidate far = candidate("joy", 10, 100, 0);
+        CandidatePool pool = CandidatePool.build(List.of(near, adjacent, far), List.of(), REGION_SIZE, 100);
+
+        List<DiscoveryCandidate> visited = new ArrayList<>();
+        int count = pool.forEachNear(40.5, -74.5, 3.0, null, visited::add);
+
+        assertThat(visited).containsExactlyInAnyOrder(near, adjacent);
+        assertThat(count).isEqualTo(2);
+    }
+
+    @Test
+    void wrapsAcrossTheAntimeridian() {
+        DiscoveryCandidate east = candidate("joy", 0.5, 179.5, 0);
+        DiscoveryCandidate west = candidate("joy", 0.5, -179.5, 0);
+        DiscoveryCandidate elsewhere = candidate("joy", 0.5, 0, 0);
+        CandidatePool pool = CandidatePool.build(List.of(east, west, elsewhere), List.of(), REGION_SIZE, 100);
+
+        List<DiscoveryCandidate> fromEast = new ArrayList<>();
+        pool.forEachNear(0.5, 179.5, 1.0, null, fromEast::add);
+        List<DiscoveryCandidate> fromWest = new ArrayList<>();
+        pool.forEachNear(0.5, -179.5, 1.0, null, fromWest::add);
+
+        assertThat(fromEast).containsExactlyInAnyOrder(east, west);
+        assertThat(fromWest).containsExactlyInAnyOrder(east, west);
+    }
+
+    @Test
+    void radiusWiderThanTheWorldVisitsEachRegionOnce() {
+        List<DiscoveryCandidate> candidates = List.of(
+                candidate("joy", 0, -179, 0), candidate("joy", 0, 0, 0), candidate("joy", 0, 179, 0));
+        CandidatePool pool = CandidatePool.build(candidates, List.of(), REGION_SIZE, 100);
+
+        List<DiscoveryCandidate> visited = new ArrayList<>();
+        pool.forEachNear(0, 0, 200, null, visited::add);
+
+        assertThat(visited).containsExactlyInAnyOrderElementsOf(candidates);
+    }
+
+    @Test
+    void filtersByEmotion() {
+        DiscoveryCandidate joy = candidate("joy", 40.5, -74.5, 0);
+        DiscoveryCandidate calm = candidate("calm", 40.5, -74.5, 0);
+        CandidatePool pool = CandidatePool.build(List.of(joy, calm), List.of(joy, calm), REGION_SIZE, 100);
+
+        List<DiscoveryCandidate> near = new ArrayList<>();
+        pool.forEachNear(40.5, -74.5, 1.0, "calm", near::add);
+        List<DiscoveryCandidate> global = new ArrayList<>();
+        pool.forEachGlobal("joy", global::add);
+
+        assertThat(near).containsExactly(calm);
+        assertThat(global).containsExactly(joy);
+    }
+
+    @Test
+    void keepsTheFirstPerRegionLimitCandidatesOfEachRegion() {
+        List<DiscoveryCandidate> newestFirst = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            newestFirst.add(candidate("joy", 40.5, -74.5, 1000 - i));
+        }
+        CandidatePool pool = CandidatePool.build(newestFirst, List.of(), REGION_SIZE, 3);
+
+        List<DiscoveryCandidate> visited = new ArrayList<>();
+        pool.forEachNear(40.5, -74.5, 1.0, null, visited::add);
+
+        assertThat(pool.size()).isEqualTo(3);
+        assertThat(visited).containsExactlyInAnyOrderElementsOf(newestFirst.subList(0, 3));
+    }
+
+    private static DiscoveryCandidate candidate(String emotion, double latitude, double longitude, long createdAt) {
+        return new DiscoveryCandidate(UUID.randomUUID(), UUID.randomUUID(), emotion, latitude, longitude, 0, createdAt);
+    }
+}
@@ -0,0 +1,71 @@
+package com.echo.backend.discovery;
+
+import com.echo.backend.service.EmotionProfileService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ranking a discovery page stays under 20 ms at the largest pool the defaults allow: max-candidates
+ * (200k) packed into 100 full regions around the viewers, so every request scans the most
+ * candidates per-region-limit lets it. Seeded, so each run ranks the same requests.
+ */
+class DiscoveryFeedLatencyTest {
+
+    private static final int CANDIDATES = 200_000;
+    private static final String[] EMOTIONS = {"joy", "sadness", "anger", "fear", "love", "calm", "nostalgia", "hope"};
+    private static final int WARMUP = 1_000;
+    private static final int MEASURED = 1_000;
+    private static final double MAX_P95_MS = 20;
+
+    @Test
+    void ranksAPageWithinBudget() {
+        Random random = new Random(7);
+        long now = System.currentTimeMillis();
+        List<DiscoveryCandidate> candidates = new ArrayList<>(CANDIDATES);
+        for (int i = 0; i < CANDIDATES; i++) {
+            // A 20 x 20 degree area is 100 regions of 2 degrees, 2000 candidates each
+            candidates.add(new DiscoveryCandidate(UUID.randomUUID(), UUID.randomUUID(),
+                    EMOTIONS[random.nextInt(EMOTIONS.length)], 30 + random.nextDouble() * 20,
+                    -85 + random.nextDouble() * 20, random.nextInt(50), now - i * 60_000L));
+        }
+        EmotionProfileService profiles = mock(EmotionProfileService.class);
+        when(profiles.emotionShares(any())).thenReturn(Map.of("joy", 0.5, "calm", 0.3, "hope", 0.2));
+        DiscoveryFeed feed = DiscoveryFeedTest.newFeed(profiles);
+        feed.restore(candidates, now);
+
+        for (int i = 0; i < WARMUP; i++) {
+            rankOnce(feed, random);
+        }
+        double[] millis = new double[MEASURED];
+        int scanned = 0;
+        for (int i = 0; i < MEASURED; i++) {
+            long started = System.nanoTime();
+            scanned += rankOnce(feed, random);
+            millis[i] = (System.nanoTime() - started) / 1e6;
+        }
+
+        Arrays.sort(millis);
+        double p50 = millis[MEASURED / 2];
+        double p95 = millis[(int) (MEASURED * 0.95)];
+        assertThat(scanned / MEASURED).as("candidates scanned per request").isGreaterThan(10_000);
+        assertThat(p95).as("p95 %.2f ms (p50 %.2f ms, max %.2f ms)", p95, p50, millis[MEASURED - 1])
+                .isLessThan(MAX_P95_MS);
+    }
+
+    // A viewer somewhere in the dense area, asking for the first page
+    private static int rankOnce(DiscoveryFeed feed, Random random) {
+        double latitude = 33 + random.nextDouble() * 14;
+        double longitude = -82 + random.nextDouble() * 14;
+        return feed.rank(UUID.randomUUID(), latitude, longitude, null, 0, 20).scanned();
+    }
+}
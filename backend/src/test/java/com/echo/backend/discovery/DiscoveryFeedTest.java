@@ -0,0 +1,153 @@
+package com.echo.backend.discovery;
+
+import com.echo.backend.cache.CacheEvent;
+import com.echo.backend.service.EmotionProfileService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ranking order of the discovery feed: each scoring term, with the others equal, decides the order.
+ */
+class DiscoveryFeedTest {
+
+    private static final double LAT = 40.5;
+    private static final double LNG = -74.5;
+    private static final long DAY_MS = 86_400_000L;
+
+    private final UUID viewer = UUID.randomUUID();
+    private final EmotionProfileService profiles = mock(EmotionProfileService.class);
+    private final long now = System.currentTimeMillis();
+
+    @BeforeEach
+    void noProfile() {
+        when(profiles.emotionShares(any())).thenReturn(Map.of());
+    }
+
+    @Test
+    void closerRanksFirst() {
+        DiscoveryCandidate far = candidate("joy", LAT + 1, LNG, 0, now);
+        DiscoveryCandidate close = candidate("joy", LAT, LNG, 0, now);
+        DiscoveryFeed feed = feedOf(far, close);
+
+        assertThat(rank(feed, 10)).containsExactly(close.id(), far.id());
+    }
+
+    @Test
+    void newerRanksFirst() {
+        DiscoveryCandidate older = candidate("joy", LAT, LNG, 0, now - 14 * DAY_MS);
+        DiscoveryCandidate newer = candidate("joy", LAT, LNG, 0, now - DAY_MS);
+        DiscoveryFeed feed = feedOf(older, newer);
+
+        assertThat(rank(feed, 10)).containsExactly(newer.id(), older.id());
+    }
+
+    @Test
+    void moreUnlocksRankFirst() {
+        DiscoveryCandidate quiet = candidate("joy", LAT, LNG, 1, now);
+        DiscoveryCandidate popular = candidate("joy", LAT, LNG, 30, now);
+        DiscoveryFeed feed = feedOf(quiet, popular);
+
+        assertThat(rank(feed, 10)).containsExactly(popular.id(), quiet.id());
+    }
+
+    @Test
+    void viewersRecentEmotionsRankFirst() {
+        when(profiles.emotionShares(viewer)).thenReturn(Map.of("calm", 0.8, "joy", 0.2));
+        DiscoveryCandidate joy = candidate("joy", LAT, LNG, 0, now);
+        DiscoveryCandidate calm = candidate("calm", LAT, LNG, 0, now);
+        DiscoveryCandidate anger = candidate("anger", LAT, LNG, 0, now);
+        DiscoveryFeed feed = feedOf(joy, anger, calm);
+
+        assertThat(rank(feed, 10)).containsExactly(calm.id(), joy.id(), anger.id());
+    }
+
+    @Test
+    void leavesOutTheViewersOwnAndHiddenMemories() {
+        DiscoveryCandidate own = new DiscoveryCandidate(UUID.randomUUID(), viewer, "joy", LAT, LNG, 0, now);
+        DiscoveryCandidate hidden = candidate("joy", LAT, LNG, 0, now);
+        DiscoveryCandidate shown = candidate("joy", LAT, LNG, 0, now);
+        DiscoveryFeed feed = feedOf(own, hidden, shown);
+        feed.invalidate(List.of(new CacheEvent(CacheEvent.Type.MEMORY_DEACTIVATED, hidden.id())));
+
+        assertThat(rank(feed, 10)).containsExactly(shown.id());
+    }
+
+    @Test
+    void pagesFollowTheRankingOrder() {
+        List<DiscoveryCandidate> candidates = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            candidates.add(candidate("joy", LAT, LNG, 0, now - i * DAY_MS));
+        }
+        DiscoveryFeed feed = feedOf(candidates.toArray(DiscoveryCandidate[]::new));
+        List<UUID> newestFirst = candidates.stream().map(DiscoveryCandidate::id).toList();
+
+        DiscoveryFeed.RankedPage first = feed.rank(viewer, LAT, LNG, null, 0, 2);
+        DiscoveryFeed.RankedPage last = feed.rank(viewer, LAT, LNG, null, 2, 2);
+
+        assertThat(first.ids()).containsExactlyElementsOf(newestFirst.subList(0, 2));
+        assertThat(first.hasMore()).isTrue();
+        assertThat(last.ids()).containsExactlyElementsOf(newestFirst.subList(4, 5));
+        assertThat(last.hasMore()).isFalse();
+    }
+
+    @Test
+    void withoutALocationRanksTheGlobalPool() {
+        DiscoveryCandidate older = candidate("joy", -30, 150, 0, now - 14 * DAY_MS);
+        DiscoveryCandidate newer = candidate("joy", LAT, LNG, 0, now);
+        DiscoveryFeed feed = feedOf(older, newer);
+
+        assertThat(feed.rank(viewer, null, null, null, 0, 10).ids()).containsExactly(newer.id(), older.id());
+    }
+
+    private List<UUID> rank(DiscoveryFeed feed, int size) {
+        return feed.rank(viewer, LAT, LNG, null, 0, size).ids();
+    }
+
+    private DiscoveryFeed feedOf(DiscoveryCandidate... candidates) {
+        List<DiscoveryCandidate> newestFirst = new ArrayList<>(List.of(candidates));
+        newestFirst.sort(Comparator.comparingLong(DiscoveryCandidate::createdAt).reversed());
+        DiscoveryFeed feed = newFeed(profiles);
+        feed.restore(newestFirst, now);
+        return feed;
+    }
+
+    /** A feed with the default settings of application.yml and no database. */
+    static DiscoveryFeed newFeed(EmotionProfileService profiles) {
+        DiscoveryFeed feed = new DiscoveryFeed();
+        ReflectionTestUtils.setField(feed, "emotionProfileService", profiles);
+        ReflectionTestUtils.setField(feed, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(feed, "maxCandidates", 200_000);
+        ReflectionTestUtils.setField(feed, "regionSize", 2.0);
+        ReflectionTestUtils.setField(feed, "perRegionLimit", 2000);
+        ReflectionTestUtils.setField(feed, "globalPoolSize", 5000);
+        ReflectionTestUtils.setField(feed, "searchRadiusDegrees", 3.0);
+        ReflectionTestUtils.setField(feed, "maxResults", 500);
+        ReflectionTestUtils.setField(feed, "distanceScaleKm", 50.0);
+        ReflectionTestUtils.setField(feed, "recencyHalfLifeDays", 7.0);
+        ReflectionTestUtils.setField(feed, "popularityHalfUnlocks", 10.0);
+        ReflectionTestUtils.setField(feed, "distanceWeight", 0.35);
+        ReflectionTestUtils.setField(feed, "emotionWeight", 0.25);
+        ReflectionTestUtils.setField(feed, "recencyWeight", 0.25);
+        ReflectionTestUtils.setField(feed, "popularityWeight", 0.15);
+        feed.init();
+        return feed;
+    }
+
+    private static DiscoveryCandidate candidate(String emotion, double latitude, double longitude, int unlocks,
+                                                long createdAt) {
+        return new DiscoveryCandidate(UUID.randomUUID(), UUID.randomUUID(), emotion, latitude, longitude, unlocks,
+                createdAt);
+    }
+}
@@ -0,0 +1,148 @@
+package com.echo.backend.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summarizes the ECHO events in a JFR recording into latency and allocation tables per
+ * operation, plus cache hit rates and nearby query sizes. Run through scripts/jfr-summary.sh:
+ * <pre>
+ *     scripts/jfr-summary.sh echo.jfr
+ * </pre>
+ */
+public final class RecordingSummary {
+
+    private static final String PREFIX = "echo.";
+
+    /** Durations (ms) and allocations (bytes) of one operation. */
+    private static final class Samples {
+        private final List<Double> millis = new ArrayList<>();
+        private long allocated;
+
+        void add(RecordedEvent event) {
+            millis.add(event.getDuration().toNanos() / 1e6);
+            allocated += event.getLong("allocated");
+        }
+    }
+
+    private static final class Nearby {
+        private long count;
+        private double radius;
+        private long candidates;
+        private long results;
+    }
+
+    private RecordingSummary() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: RecordingSummary <recording.jfr>");
+            System.exit(2);
+        }
+        Map<String, Samples> operations = new TreeMap<>();
+        Map<String, long[]> caches = new TreeMap<>(); // cache -> {hits, misses}
+        Map<String, Samples> cacheMisses = new TreeMap<>();
+        Map<String, Nearby> nearby = new TreeMap<>();
+
+        try (RecordingFile recording = new RecordingFile(Path.of(args[0]))) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                String name = event.getEventType().getName();
+                if (!name.startsWith(PREFIX)) {
+                    continue;
+                }
+                String operation = name.substring(PREFIX.length());
+                switch (operation) {
+                    case "CacheLookup" -> {
+                        String cache = event.getString("cache");
+                        boolean hit = event.getBoolean("hit");
+                        caches.computeIfAbsent(cache, key -> new long[2])[hit ? 0 : 1]++;
+                        operation += " " + cache + (hit ? " hit" : " miss");
+                        if (!hit) {
+                            cacheMisses.computeIfAbsent(cache, key -> new Samples()).add(event);
+                        }
+                    }
+                    case "NearbyQuery" -> {
+                        String source = event.getString("source");
+                        Nearby stats = nearby.computeIfAbsent(source, key -> new Nearby());
+                        stats.count++;
+                        double radius = event.getDouble("radius");
+                        stats.radius += Double.isNaN(radius) ? 0 : radius;
+                        stats.candidates += event.getInt("candidates");
+                        stats.results += event.getInt("results");
+                        operation += " " + source;
+                    }
+                    case "MemoryUnlock" -> operation += " " + event.getString("outcome");
+                    case "TokenVerification" -> operation += event.getBoolean("valid") ? " valid" : " invalid";
+                    default -> { }
+                }
+                operations.computeIfAbsent(operation, key -> new Samples()).add(event);
+            }
+        }
+
+        PrintStream out = System.out;
+        if (operations.isEmpty()) {
+            out.println("No ECHO events in " + args[0] + "; was the recording started with settings=echo.jfc?");
+            return;
+        }
+        out.println("Operations");
+        out.printf(Locale.ROOT, "%-32s %8s %9s %9s %9s %9s %12s %12s%n",
+                "operation", "count", "p50 ms", "p95 ms", "p99 ms", "max ms", "alloc/op", "alloc total");
+        operations.forEach((operation, samples) -> {
+            double[] sorted = samples.millis.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+            out.printf(Locale.ROOT, "%-32s %8d %9.3f %9.3f %9.3f %9.3f %12s %12s%n", operation, sorted.length,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted[sorted.length - 1], bytes(samples.allocated / sorted.length), bytes(samples.allocated));
+        });
+
+        if (!caches.isEmpty()) {
+            out.println();
+            out.println("Caches");
+            out.printf(Locale.ROOT, "%-16s %10s %10s %8s %14s%n", "cache", "hits", "misses", "hit %", "miss p95 ms");
+            caches.forEach((cache, counts) -> {
+                Samples misses = cacheMisses.get(cache);
+                double[] sorted = misses == null ? new double[0]
+                        : misses.millis.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+                out.printf(Locale.ROOT, "%-16s %10d %10d %8.1f %14.3f%n", cache, counts[0], counts[1],
+                        100.0 * counts[0] / (counts[0] + counts[1]), percentile(sorted, 0.95));
+            });
+        }
+
+        if (!nearby.isEmpty()) {
+            out.println();
+            out.println("Nearby queries");
+            out.printf(Locale.ROOT, "%-10s %8s %12s %16s %14s%n", "source", "count", "mean radius", "mean candidates",
+                    "mean results");
+            nearby.forEach((source, stats) -> out.printf(Locale.ROOT, "%-10s %8d %12.3f %16.1f %14.1f%n", source,
+                    stats.count, stats.radius / stats.count, (double) stats.candidates / stats.count,
+                    (double) stats.results / stats.count));
+        }
+    }
+
+    private static double percentile(double[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static String bytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024));
+    }
+}
@@ -0,0 +1,106 @@
+package com.echo.backend.json;
+
+import com.echo.backend.dto.MemoryResponse;
+import com.echo.backend.model.Memory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The cache stays within its byte bound by evicting, so memories that become popular after it
+ * filled are still cached.
+ */
+class MemoryJsonCacheTest {
+
+    private static final long MAX_BYTES = 32 * 1024;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MemoryJsonCache cache;
+    private ObjectMapper cachedMapper;
+    private final ObjectMapper plainMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @BeforeEach
+    void createCache() {
+        cache = new MemoryJsonCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxBytes", MAX_BYTES);
+        cache.init();
+        cachedMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .registerModule(new MemoryJsonConfig().memoryJsonModule(cache));
+    }
+
+    @Test
+    void evictsToStayWithinMaxBytes() throws Exception {
+        for (MemoryResponse response : responses(1000)) {
+            assertThat(cachedMapper.writeValueAsString(response)).isEqualTo(plainMapper.writeValueAsString(response));
+        }
+        cleanUp();
+
+        assertThat(cache.weightedSize()).isPositive().isLessThanOrEqualTo(MAX_BYTES);
+        assertThat(meterRegistry.get("echo.cache.json.bytes").gauge().value()).isEqualTo(cache.weightedSize());
+    }
+
+    @Test
+    void cachesPopularMemoriesReadAfterItFilled() throws Exception {
+        for (MemoryResponse response : responses(1000)) {
+            cachedMapper.writeValueAsString(response);
+        }
+        cleanUp();
+
+        // Admission favours frequently read memories, so these earn their place over a few reads
+        List<MemoryResponse> recent = responses(10);
+        for (int round = 0; round < 5; round++) {
+            for (MemoryResponse response : recent) {
+                cachedMapper.writeValueAsString(response);
+            }
+            cleanUp();
+        }
+        double hitsBefore = hits();
+        for (MemoryResponse response : recent) {
+            assertThat(cachedMapper.writeValueAsString(response)).isEqualTo(plainMapper.writeValueAsString(response));
+        }
+        assertThat(hits() - hitsBefore).isEqualTo(recent.size());
+    }
+
+    private double hits() {
+        return meterRegistry.get("echo.cache.json").tag("result", "hit").counter().count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void cleanUp() {
+        ((Cache<UUID, ?>) ReflectionTestUtils.getField(cache, "entries")).cleanUp();
+    }
+
+    private static List<MemoryResponse> responses(int count) {
+        List<MemoryResponse> responses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MemoryResponse response = new MemoryResponse();
+            response.setId(UUID.randomUUID());
+            response.setTitle("memory " + i);
+            response.setDescription("a walk by the river");
+            response.setEmotion("joy");
+            response.setEmotionConfidence(0.8);
+            response.setLatitude(40.7);
+            response.setLongitude(-74.0);
+            response.setDuration(30);
+            response.setAccessType(Memory.AccessType.PUBLIC);
+            response.setIsActive(true);
+            response.setUnlockCount(i);
+            response.setCreatedAt(LocalDateTime.now());
+            responses.add(response);
+        }
+        return responses;
+    }
+}
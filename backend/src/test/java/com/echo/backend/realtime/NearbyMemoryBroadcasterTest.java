@@ -0,0 +1,131 @@
+package com.echo.backend.realtime;
+
+import com.echo.backend.model.Memory;
+import com.echo.backend.model.User;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A client that stops reading must not hold up fan-out or heartbeats for the others, and
+ * concurrent subscribes cannot push the live count past max-subscriptions.
+ */
+class NearbyMemoryBroadcasterTest {
+
+    private static final int SUBSCRIBER_QUEUE_CAPACITY = 4;
+    private static final long TIMEOUT_MS = 5000;
+
+    private final CountDownLatch stalled = new CountDownLatch(1);
+    private NearbyMemoryBroadcaster broadcaster;
+
+    @BeforeEach
+    void start() {
+        broadcaster = new NearbyMemoryBroadcaster();
+        ReflectionTestUtils.setField(broadcaster, "cellSizeDegrees", 0.5);
+        ReflectionTestUtils.setField(broadcaster, "maxCellsPerSubscription", 1024);
+        ReflectionTestUtils.setField(broadcaster, "maxSubscriptions", 100);
+        ReflectionTestUtils.setField(broadcaster, "emitterTimeoutMs", 0L);
+        ReflectionTestUtils.setField(broadcaster, "fanoutQueueCapacity", 100);
+        ReflectionTestUtils.setField(broadcaster, "subscriberQueueCapacity", SUBSCRIBER_QUEUE_CAPACITY);
+        ReflectionTestUtils.setField(broadcaster, "writerThreads", 2);
+        broadcaster.init();
+    }
+
+    @AfterEach
+    void stop() {
+        stalled.countDown();
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void stalledSubscriberDoesNotDelayOthers() throws Exception {
+        subscribe(new RecordingEmitter(stalled));
+        RecordingEmitter reader = subscribe(new RecordingEmitter());
+        assertThat(reader.next(TIMEOUT_MS)).contains("subscriptionId");
+
+        broadcaster.publish(memory("first"));
+        broadcaster.publish(memory("second"));
+        assertThat(reader.next(TIMEOUT_MS)).contains("first");
+        assertThat(reader.next(TIMEOUT_MS)).contains("second");
+
+        broadcaster.heartbeat();
+        assertThat(reader.next(TIMEOUT_MS)).contains("keepalive");
+    }
+
+    @Test
+    void stalledSubscriberIsDroppedWhenItsQueueFills() throws Exception {
+        RecordingEmitter stalledEmitter = subscribe(new RecordingEmitter(stalled));
+        RecordingEmitter reader = subscribe(new RecordingEmitter());
+        assertThat(reader.next(TIMEOUT_MS)).isNotNull();
+
+        // The stalled writer holds the subscribed event; the rest fill its queue and one overflows it
+        for (int i = 0; i <= SUBSCRIBER_QUEUE_CAPACITY + 1; i++) {
+            broadcaster.publish(memory("memory " + i));
+            assertThat(reader.next(TIMEOUT_MS)).contains("memory " + i);
+        }
+        assertThat(broadcaster.subscriptionCount()).isEqualTo(1);
+
+        stalled.countDown();
+        assertThat(stalledEmitter.awaitCompletion(TIMEOUT_MS)).isTrue();
+    }
+
+    @Test
+    void concurrentSubscribesStayWithinTheLimit() throws Exception {
+        ReflectionTestUtils.setField(broadcaster, "maxSubscriptions", 10);
+        int threads = 8;
+        CyclicBarrier start = new CyclicBarrier(threads);
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                done.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 20; i++) {
+                        try {
+                            subscribe(new RecordingEmitter());
+                            accepted.incrementAndGet();
+                        } catch (IllegalStateException full) {
+                            // over the limit
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(accepted.get()).isEqualTo(10);
+        assertThat(broadcaster.subscriptionCount()).isEqualTo(10);
+    }
+
+    private RecordingEmitter subscribe(RecordingEmitter emitter) {
+        broadcaster.register(new NearbySubscription(UUID.randomUUID(), 40.7, -74.0, 1.0, emitter));
+        return emitter;
+    }
+
+    private static Memory memory(String title) {
+        User author = new User();
+        author.setId(UUID.randomUUID());
+        Memory memory = new Memory(author, title, "joy", 40.71, -74.01);
+        memory.setId(UUID.randomUUID());
+        return memory;
+    }
+}
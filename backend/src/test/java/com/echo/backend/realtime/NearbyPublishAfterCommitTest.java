@@ -0,0 +1,83 @@
+package com.echo.backend.realtime;
+
+import com.echo.backend.model.Memory;
+import com.echo.backend.model.User;
+import com.echo.backend.repository.UserRepository;
+import com.echo.backend.service.MemoryService;
+import com.echo.backend.support.PostgresIntegrationTest;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * New memories reach subscribers only once their transaction commits.
+ */
+@PostgresIntegrationTest
+class NearbyPublishAfterCommitTest {
+
+    private static final long TIMEOUT_MS = 5000;
+    private static final long QUIET_MS = 500;
+
+    @Autowired
+    private NearbyMemoryBroadcaster broadcaster;
+
+    @Autowired
+    private MemoryService memoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User author;
+    private double lat;
+    private double lng;
+    private RecordingEmitter subscriber;
+
+    @BeforeEach
+    void subscribe() throws Exception {
+        UUID userId = UUID.randomUUID();
+        String name = "push_" + userId.toString().substring(0, 12);
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, has_completed_onboarding, created_at)"
+                + " VALUES (?, ?, ?, 'x', true, now())", userId, name, name + "@example.invalid");
+        author = userRepository.findById(userId).orElseThrow();
+        lat = ThreadLocalRandom.current().nextDouble(-60, 60);
+        lng = ThreadLocalRandom.current().nextDouble(-170, 170);
+
+        subscriber = new RecordingEmitter();
+        broadcaster.register(new NearbySubscription(UUID.randomUUID(), lat, lng, 1.0, subscriber));
+        assertThat(subscriber.nextEvent(TIMEOUT_MS)).contains("subscriptionId");
+    }
+
+    @Test
+    void publishesOnlyAfterCommit() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            memoryService.createMemory(new Memory(author, "committed", "joy", lat, lng));
+            try {
+                assertThat(subscriber.nextEvent(QUIET_MS)).isNull();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(subscriber.nextEvent(TIMEOUT_MS)).contains("committed");
+    }
+
+    @Test
+    void rolledBackMemoryIsNeverPublished() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            memoryService.createMemory(new Memory(author, "rolled back", "joy", lat, lng));
+            status.setRollbackOnly();
+        });
+        assertThat(subscriber.nextEvent(QUIET_MS)).isNull();
+    }
+}
@@ -0,0 +1,74 @@
+package com.echo.backend.realtime;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * An emitter that records what is sent to it instead of writing a response. Given a closed
+ * gate, every send blocks until it opens, like a client that stopped reading.
+ */
+class RecordingEmitter extends SseEmitter {
+
+    private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+    private final CountDownLatch gate;
+    private final CountDownLatch completed = new CountDownLatch(1);
+
+    RecordingEmitter() {
+        this(new CountDownLatch(0));
+    }
+
+    RecordingEmitter(CountDownLatch gate) {
+        super(0L);
+        this.gate = gate;
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) {
+        try {
+            gate.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        sent.add(builder.build().stream()
+                .map(part -> String.valueOf(part.getData()))
+                .collect(Collectors.joining()));
+    }
+
+    @Override
+    public void complete() {
+        completed.countDown();
+    }
+
+    @Override
+    public void completeWithError(Throwable ex) {
+        completed.countDown();
+    }
+
+    /**
+     * The next event sent, or null if none arrives within the timeout.
+     */
+    String next(long timeoutMs) throws InterruptedException {
+        return sent.poll(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The next event other than a keepalive comment, for tests where the scheduled heartbeat may fire.
+     */
+    String nextEvent(long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        String event;
+        do {
+            event = sent.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } while (event != null && event.startsWith(":keepalive"));
+        return event;
+    }
+
+    boolean awaitCompletion(long timeoutMs) throws InterruptedException {
+        return completed.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+}
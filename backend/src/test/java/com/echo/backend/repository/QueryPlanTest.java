@@ -0,0 +1,229 @@
+package com.echo.backend.repository;
+
+import com.echo.backend.model.Memory;
+import com.echo.backend.model.User;
+import com.echo.backend.service.EmotionMapReadModel;
+import com.echo.backend.support.PostgresIntegrationTest;
+import com.echo.backend.support.SqlCapture;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plan-regression check for the hot repository queries. Seeds a synthetic dataset, calls each
+ * repository method, and EXPLAINs the SQL it actually executed with the parameters it bound, so the
+ * check follows the queries as they change. Fails when a plan sequentially scans a large table to
+ * return a small fraction of it, which is what a dropped index or a non-sargable predicate looks
+ * like. Everything runs in one transaction that is rolled back.
+ *
+ * Full-table reads by design (countMemoriesByEmotion, streamUnlockPairs) are not called.
+ */
+@PostgresIntegrationTest
+class QueryPlanTest {
+
+    private static final int USERS = 1000;
+    private static final int MEMORIES = 60000;
+    private static final int HISTORY_DAYS = 180;
+    private static final long MIN_TABLE_ROWS = 5000;
+    private static final double MAX_SEQ_SCAN_SELECTIVITY = 0.05;
+
+    @Autowired
+    private MemoryRepository memoryRepository;
+
+    @Autowired
+    private MemoryUnlockRepository memoryUnlockRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmotionMapReadModel emotionMapReadModel;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @FunctionalInterface
+    private interface Call {
+        void run() throws Exception;
+    }
+
+    @Test
+    void hotQueriesUseIndexes() {
+        List<String> regressions = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            seed();
+            try {
+                return checkAll();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(regressions).isEmpty();
+    }
+
+    private void seed() {
+        Timestamp from = Timestamp.valueOf(LocalDateTime.now().minusDays(HISTORY_DAYS));
+        jdbcTemplate.queryForObject("SELECT ensure_monthly_partitions('memories', ?::date, 3)", Integer.class, from);
+        jdbcTemplate.queryForObject("SELECT ensure_monthly_partitions('memory_unlocks', ?::date, 3)", Integer.class, from);
+
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, password, has_completed_onboarding, created_at)
+                SELECT gen_random_uuid(), 'plancheck_' || g, 'plancheck_' || g || '@example.invalid', 'x', true, ?
+                FROM generate_series(1, ?) g
+                """, from, USERS);
+
+        jdbcTemplate.update("""
+                WITH u AS (SELECT id, row_number() OVER (ORDER BY id) AS rn FROM users WHERE username LIKE 'plancheck\\_%')
+                INSERT INTO memories (id, user_id, title, emotion, emotion_confidence, latitude, longitude,
+                                      duration, access_type, is_active, unlock_count, created_at)
+                SELECT gen_random_uuid(), u.id, 'memory ' || g,
+                       (ARRAY['joy', 'sadness', 'anger', 'fear', 'love', 'calm', 'nostalgia', 'hope'])[1 + g % 8],
+                       0.8, -60 + random() * 120, -180 + random() * 360, 30,
+                       CASE WHEN g % 10 = 0 THEN 'PRIVATE' ELSE 'PUBLIC' END, g % 20 <> 0, 0,
+                       ?::timestamp + random() * (now()::timestamp - ?::timestamp)
+                FROM generate_series(1, ?) g
+                JOIN u ON u.rn = 1 + g % ?
+                """, from, from, MEMORIES, USERS);
+
+        jdbcTemplate.update("""
+                WITH u AS (SELECT id, row_number() OVER (ORDER BY id) AS rn FROM users WHERE username LIKE 'plancheck\\_%'),
+                     m AS (SELECT id, created_at, row_number() OVER (ORDER BY id) AS rn FROM memories)
+                INSERT INTO memory_unlocks (id, memory_id, unlocked_by, unlocked_at)
+                SELECT gen_random_uuid(), m.id, u.id, m.created_at + interval '1 hour'
+                FROM m JOIN u ON u.rn = 1 + (m.rn * 7) % ?
+                """, USERS);
+
+        jdbcTemplate.execute("ANALYZE users");
+        jdbcTemplate.execute("ANALYZE memories");
+        jdbcTemplate.execute("ANALYZE memory_unlocks");
+        jdbcTemplate.execute("ANALYZE memory_unlock_keys");
+    }
+
+    private List<String> checkAll() throws Exception {
+        User user = userRepository.findByUsername("plancheck_1").orElseThrow();
+        UUID memoryId = jdbcTemplate.queryForObject(
+                "SELECT memory_id FROM memory_unlocks ORDER BY unlocked_at DESC LIMIT 1", UUID.class);
+        UUID otherMemoryId = jdbcTemplate.queryForObject(
+                "SELECT id FROM memories ORDER BY created_at LIMIT 1", UUID.class);
+        Memory memory = memoryRepository.findById(memoryId).orElseThrow();
+        LocalDateTime userSince = LocalDateTime.now().minusDays(HISTORY_DAYS);
+        LocalDateTime recent = LocalDateTime.now().minusDays(1);
+        double lat = 40.7, lng = -74.0, radius = 1.0;
+
+        Map<String, Call> calls = new LinkedHashMap<>();
+        calls.put("MemoryRepository.findById", () -> memoryRepository.findById(memoryId));
+        calls.put("MemoryRepository.findByUser", () -> memoryRepository.findByUser(user));
+        calls.put("MemoryRepository.findByUserSince", () -> memoryRepository.findByUserSince(user, userSince));
+        calls.put("MemoryRepository.findPublicMemories", () -> memoryRepository.findPublicMemories(recent));
+        calls.put("MemoryRepository.findPublicMemoriesByEmotion",
+                () -> memoryRepository.findPublicMemoriesByEmotion("joy", recent));
+        calls.put("MemoryRepository.findPublicMemoriesExcludingUser",
+                () -> memoryRepository.findPublicMemoriesExcludingUser(user.getId(), recent));
+        calls.put("MemoryRepository.findPublicMemoriesByEmotionExcludingUser",
+                () -> memoryRepository.findPublicMemoriesByEmotionExcludingUser(user.getId(), "joy", recent));
+        calls.put("MemoryRepository.findNearbyMemories",
+                () -> memoryRepository.findNearbyMemories(user.getId(), lat, lng, radius, userSince));
+        calls.put("MemoryRepository.findNearbyMemoriesByEmotion",
+                () -> memoryRepository.findNearbyMemoriesByEmotion(user.getId(), lat, lng, radius, "joy", userSince));
+        calls.put("MemoryRepository.findRecentPublicMemories",
+                () -> memoryRepository.findRecentPublicMemories(userSince, PageRequest.of(0, 20)));
+        calls.put("MemoryRepository.findAllWithUserByIdIn",
+                () -> memoryRepository.findAllWithUserByIdIn(List.of(memoryId, otherMemoryId)));
+        calls.put("MemoryUnlockRepository.findByMemoryId", () -> memoryUnlockRepository.findByMemoryId(memoryId));
+        calls.put("MemoryUnlockRepository.findByMemorySince",
+                () -> memoryUnlockRepository.findByMemorySince(memory, userSince));
+        calls.put("MemoryUnlockRepository.findByUserId", () -> memoryUnlockRepository.findByUserId(user.getId()));
+        calls.put("MemoryUnlockRepository.findByUnlockedBySince",
+                () -> memoryUnlockRepository.findByUnlockedBySince(user, userSince));
+        calls.put("MemoryUnlockRepository.existsByMemoryIdAndUserId",
+                () -> memoryUnlockRepository.existsByMemoryIdAndUserId(memoryId, user.getId()));
+        calls.put("MemoryUnlockRepository.countByMemoryId", () -> memoryUnlockRepository.countByMemoryId(memoryId));
+        calls.put("MemoryUnlockRepository.countByUserId", () -> memoryUnlockRepository.countByUserId(user.getId()));
+        // A full rebuild runs the catch-up query too (from the new watermark) and the map listing
+        calls.put("EmotionMapReadModel.refresh", () -> {
+            emotionMapReadModel.resync();
+            emotionMapReadModel.refresh();
+        });
+
+        Map<String, Double> tableRows = new HashMap<>();
+        jdbcTemplate.query("SELECT relname, reltuples FROM pg_class WHERE relkind = 'r'"
+                        + " AND (relname LIKE 'memories%' OR relname LIKE 'memory_unlock%' OR relname = 'users')",
+                rs -> {
+                    tableRows.put(rs.getString(1), rs.getDouble(2));
+                });
+
+        List<String> regressions = new ArrayList<>();
+        int explained = 0;
+        for (Map.Entry<String, Call> call : calls.entrySet()) {
+            entityManager.clear(); // every call goes to the database
+            List<SqlCapture.Statement> statements = SqlCapture.record(call.getValue()::run);
+            assertThat(statements).as(call.getKey() + " executed no SQL").isNotEmpty();
+            for (SqlCapture.Statement statement : statements) {
+                if (!statement.isSelect()) {
+                    continue;
+                }
+                JsonNode plan = objectMapper.readTree(explain(statement)).get(0).get("Plan");
+                collectSeqScans(call.getKey(), plan, tableRows, regressions);
+                explained++;
+            }
+        }
+        assertThat(explained).isGreaterThanOrEqualTo(calls.size());
+        return regressions;
+    }
+
+    private String explain(SqlCapture.Statement statement) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+                statement.bind(explain);
+                try (ResultSet rs = explain.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+    }
+
+    private static void collectSeqScans(String name, JsonNode node, Map<String, Double> tableRows,
+                                        List<String> regressions) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            String relation = node.path("Relation Name").asText();
+            double rows = tableRows.getOrDefault(relation, 0.0);
+            double returned = node.path("Plan Rows").asDouble();
+            if (rows >= MIN_TABLE_ROWS && returned / rows < MAX_SEQ_SCAN_SELECTIVITY) {
+                regressions.add(String.format("%s: Seq Scan on %s (%.0f rows) for an estimated %.0f rows",
+                        name, relation, rows, returned));
+            }
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(name, child, tableRows, regressions);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.echo.backend.security;
+
+import com.echo.backend.cache.CacheEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A full cache evicts a few users rather than dropping everyone, and invalidation drops only the
+ * users it names.
+ */
+class UserDetailsCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private UserDetailsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserDetailsCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        cache.init();
+    }
+
+    @Test
+    void fullCacheKeepsMostEntries() {
+        for (int i = 0; i < 100; i++) {
+            get("user" + i);
+        }
+        get("one-more");
+
+        loads.set(0);
+        for (int i = 0; i < 100; i++) {
+            get("user" + i);
+        }
+        assertThat(loads.get()).isLessThan(10);
+    }
+
+    @Test
+    void invalidationDropsOnlyTheNamedUser() {
+        UUID alice = idOf("alice");
+        get("alice");
+        get("bob");
+
+        cache.invalidate(List.of(new CacheEvent(CacheEvent.Type.USER_UPDATED, alice)));
+        loads.set(0);
+        get("alice");
+        get("bob");
+        assertThat(loads.get()).isEqualTo(1);
+
+        cache.resync();
+        get("alice");
+        get("bob");
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    private void get(String name) {
+        cache.get(name, key -> {
+            loads.incrementAndGet();
+            return new UserDetailsCache.Loaded(idOf(key), User.withUsername(key).password("x").roles("USER").build());
+        });
+    }
+
+    private static UUID idOf(String name) {
+        return UUID.nameUUIDFromBytes(name.getBytes());
+    }
+}
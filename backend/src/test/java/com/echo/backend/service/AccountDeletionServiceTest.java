@@ -0,0 +1,71 @@
+package com.echo.backend.service;
+
+import com.echo.backend.dto.AccountDeletionStatus;
+import com.echo.backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Account deletion runs to completion and leaves no stale copies of the user's memories behind.
+ */
+@PostgresIntegrationTest
+class AccountDeletionServiceTest {
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
+    @Autowired
+    private EmotionMapReadModel emotionMapReadModel;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void enableWorker() {
+        ReflectionTestUtils.setField(accountDeletionService, "enabled", true); // off in the test profile
+    }
+
+    @AfterEach
+    void disableWorker() {
+        ReflectionTestUtils.setField(accountDeletionService, "enabled", false);
+    }
+
+    @Test
+    void deletingMemoriesResyncsReadModels() throws Exception {
+        UUID userId = UUID.randomUUID();
+        String name = "deletion_" + userId.toString().substring(0, 12);
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, has_completed_onboarding, created_at)"
+                + " VALUES (?, ?, ?, 'x', true, now())", userId, name, name + "@example.invalid");
+        jdbcTemplate.update("""
+                INSERT INTO memories (id, user_id, title, emotion, emotion_confidence, latitude, longitude,
+                                      duration, access_type, is_active, unlock_count, created_at)
+                VALUES (?, ?, 'to delete', 'joy', 0.8, 10, 10, 30, 'PUBLIC', true, 0, now())
+                """, UUID.randomUUID(), userId);
+        emotionMapReadModel.resync();
+        emotionMapReadModel.refresh(); // clears any resync requested by earlier tests
+        assertThat(resyncRequested()).isFalse();
+
+        AccountDeletionStatus status = accountDeletionService.requestDeletion(userId);
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!"DONE".equals(accountDeletionService.findStatus(status.getId()).orElseThrow().getStatus())) {
+            assertThat(System.currentTimeMillis()).as("deletion finished in time").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM memories WHERE user_id = ?", Long.class, userId))
+                .isZero();
+        assertThat(resyncRequested()).isTrue();
+    }
+
+    private boolean resyncRequested() {
+        return (Boolean) ReflectionTestUtils.getField(emotionMapReadModel, "rebuildRequested");
+    }
+}
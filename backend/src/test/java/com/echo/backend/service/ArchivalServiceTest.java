@@ -0,0 +1,148 @@
+package com.echo.backend.service;
+
+import com.echo.backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Archival by deactivation time, and bulk reactivation restoring archived memories.
+ */
+@PostgresIntegrationTest
+class ArchivalServiceTest {
+
+    @Autowired
+    private ArchivalService archivalService;
+
+    @Autowired
+    private MemoryService memoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID userId;
+    private double lat;
+    private double lng;
+
+    @BeforeEach
+    void createUser() {
+        userId = UUID.randomUUID();
+        String name = "archive_" + userId.toString().substring(0, 12);
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, has_completed_onboarding, created_at)"
+                + " VALUES (?, ?, ?, 'x', true, now() - interval '1 year')", userId, name, name + "@example.invalid");
+        jdbcTemplate.queryForObject("SELECT ensure_monthly_partitions('memories', (now() - interval '1 year')::date, 3)",
+                Integer.class);
+        lat = ThreadLocalRandom.current().nextDouble(-60, 60);
+        lng = ThreadLocalRandom.current().nextDouble(-170, 170);
+    }
+
+    @Test
+    void deactivationIsStampedAndCleared() {
+        UUID id = insertMemory("joy", 200);
+
+        memoryService.setActive(List.of(id), false, null);
+        assertThat(deactivatedAt(id)).isNotNull();
+
+        memoryService.setActive(List.of(id), true, null);
+        assertThat(deactivatedAt(id)).isNull();
+    }
+
+    @Test
+    void archivesByDeactivationTimeNotCreationTime() {
+        UUID oldButJustDeactivated = insertMemory("joy", 200);
+        UUID deactivatedLongAgo = insertMemory("joy", 200);
+        memoryService.setActive(List.of(oldButJustDeactivated, deactivatedLongAgo), false, null);
+        backdateDeactivation(deactivatedLongAgo, 60);
+
+        runArchival();
+
+        assertThat(isArchived(oldButJustDeactivated)).isFalse();
+        assertThat(isArchived(deactivatedLongAgo)).isTrue();
+    }
+
+    @Test
+    void activatingByUserRestoresArchivedMemories() {
+        UUID id = archivedMemory("joy");
+
+        assertThat(memoryService.setActiveByUser(userId, true)).isEqualTo(1);
+        assertRestoredAndActive(id);
+    }
+
+    @Test
+    void activatingByEmotionRestoresArchivedMemories() {
+        String emotion = "archive-test-" + userId;
+        UUID id = archivedMemory(emotion);
+        UUID otherEmotion = archivedMemory("joy");
+
+        assertThat(memoryService.setActiveByEmotion(emotion, true, userId)).isEqualTo(1);
+        assertRestoredAndActive(id);
+        assertThat(isArchived(otherEmotion)).isTrue();
+    }
+
+    @Test
+    void activatingInRegionRestoresArchivedMemories() {
+        UUID id = archivedMemory("joy");
+
+        assertThat(memoryService.setActiveInRegion(lat, lng, 0.5, true, userId)).isEqualTo(1);
+        assertRestoredAndActive(id);
+    }
+
+    private UUID archivedMemory(String emotion) {
+        UUID id = insertMemory(emotion, 200);
+        memoryService.setActive(List.of(id), false, null);
+        backdateDeactivation(id, 60);
+        runArchival();
+        assertThat(isArchived(id)).isTrue();
+        return id;
+    }
+
+    private void runArchival() {
+        ReflectionTestUtils.setField(archivalService, "enabled", true); // off in the test profile
+        try {
+            archivalService.archive();
+        } finally {
+            ReflectionTestUtils.setField(archivalService, "enabled", false);
+        }
+    }
+
+    private void assertRestoredAndActive(UUID id) {
+        assertThat(isArchived(id)).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT is_active FROM memories WHERE id = ?", Boolean.class, id))
+                .isTrue();
+        assertThat(deactivatedAt(id)).isNull();
+    }
+
+    private UUID insertMemory(String emotion, int ageDays) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO memories (id, user_id, title, emotion, emotion_confidence, latitude, longitude,
+                                      duration, access_type, is_active, unlock_count, created_at)
+                VALUES (?, ?, 'archival', ?, 0.8, ?, ?, 30, 'PUBLIC', true, 0, ?)
+                """, id, userId, emotion, lat, lng, Timestamp.valueOf(LocalDateTime.now().minusDays(ageDays)));
+        return id;
+    }
+
+    private void backdateDeactivation(UUID id, int days) {
+        jdbcTemplate.update("UPDATE memories SET deactivated_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(days)), id);
+    }
+
+    private Timestamp deactivatedAt(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT deactivated_at FROM memories WHERE id = ?", Timestamp.class, id);
+    }
+
+    private boolean isArchived(UUID id) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM memories_archive WHERE id = ?)", Boolean.class, id));
+    }
+}
@@ -0,0 +1,76 @@
+package com.echo.backend.service;
+
+import com.echo.backend.model.Memory;
+import com.echo.backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Discovery listings include memories of any age unless a window is configured.
+ */
+@PostgresIntegrationTest
+class DiscoveryWindowTest {
+
+    @Autowired
+    private MemoryService memoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID recent;
+    private UUID old;
+    private double lat;
+    private double lng;
+
+    @BeforeEach
+    void seed() {
+        UUID userId = UUID.randomUUID();
+        String name = "window_" + userId.toString().substring(0, 12);
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, has_completed_onboarding, created_at)"
+                + " VALUES (?, ?, ?, 'x', true, now() - interval '5 years')", userId, name, name + "@example.invalid");
+        lat = ThreadLocalRandom.current().nextDouble(-60, 60);
+        lng = ThreadLocalRandom.current().nextDouble(-170, 170);
+        recent = insertMemory(userId, 1);
+        old = insertMemory(userId, 3 * 365);
+    }
+
+    @Test
+    void unboundedByDefault() {
+        assertThat(nearbyIds()).contains(recent, old);
+    }
+
+    @Test
+    void configuredWindowDropsOlderMemories() {
+        ReflectionTestUtils.setField(memoryService, "discoveryWindowDays", 365L);
+        try {
+            assertThat(nearbyIds()).contains(recent).doesNotContain(old);
+        } finally {
+            ReflectionTestUtils.setField(memoryService, "discoveryWindowDays", 0L);
+        }
+    }
+
+    private List<UUID> nearbyIds() {
+        return memoryService.findNearbyMemories(UUID.randomUUID(), lat, lng, 0.1).stream().map(Memory::getId).toList();
+    }
+
+    private UUID insertMemory(UUID userId, int ageDays) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO memories (id, user_id, title, emotion, emotion_confidence, latitude, longitude,
+                                      duration, access_type, is_active, unlock_count, created_at)
+                VALUES (?, ?, 'window', 'joy', 0.8, ?, ?, 30, 'PUBLIC', true, 0, ?)
+                """, id, userId, lat, lng, Timestamp.valueOf(LocalDateTime.now().minusDays(ageDays)));
+        return id;
+    }
+}
@@ -0,0 +1,75 @@
+package com.echo.backend.service;
+
+import com.echo.backend.support.PostgresIntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * When a restored emotion map state is rebuilt: it stays as exact as the rebuild it came from.
+ */
+@PostgresIntegrationTest
+class EmotionMapReadModelTest {
+
+    @Autowired
+    private EmotionMapReadModel emotionMapReadModel;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${read-model.emotion-map.rebuild-interval-ms:600000}")
+    private long rebuildIntervalMs;
+
+    private EmotionMapReadModel.State built;
+
+    @BeforeEach
+    void build() {
+        emotionMapReadModel.resync();
+        emotionMapReadModel.refresh();
+        built = emotionMapReadModel.state();
+        assertThat(built).isNotNull();
+    }
+
+    @Test
+    void staleSnapshotIsRebuiltOnFirstRefresh() {
+        emotionMapReadModel.restore(rebuiltAt(System.currentTimeMillis() - 2 * rebuildIntervalMs));
+        long rebuilds = count("rebuild");
+
+        emotionMapReadModel.refresh();
+
+        assertThat(count("rebuild")).isEqualTo(rebuilds + 1);
+    }
+
+    @Test
+    void recentSnapshotCatchesUp() {
+        emotionMapReadModel.restore(rebuiltAt(System.currentTimeMillis()));
+        long rebuilds = count("rebuild");
+        long catchUps = count("catch-up");
+
+        emotionMapReadModel.refresh();
+
+        assertThat(count("rebuild")).isEqualTo(rebuilds);
+        assertThat(count("catch-up")).isEqualTo(catchUps + 1);
+    }
+
+    @Test
+    void stateKeepsTheRebuildTime() {
+        emotionMapReadModel.restore(rebuiltAt(12345L));
+
+        assertThat(emotionMapReadModel.state().rebuiltAt()).isEqualTo(12345L);
+    }
+
+    private EmotionMapReadModel.State rebuiltAt(long rebuiltAt) {
+        return new EmotionMapReadModel.State(built.counts(), built.points(), built.watermark(), built.nearWatermark(),
+                rebuiltAt);
+    }
+
+    private long count(String type) {
+        return meterRegistry.get("echo.readmodel.refresh").tag("model", "emotion-map").tag("type", type)
+                .timer().count();
+    }
+}
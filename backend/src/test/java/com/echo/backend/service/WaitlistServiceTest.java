@@ -0,0 +1,76 @@
+package com.echo.backend.service;
+
+import com.echo.backend.model.UuidV7Generator;
+import com.echo.backend.model.WaitlistUser;
+import com.echo.backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A signup the database rejects is dropped on its own instead of wedging the write-behind flusher.
+ */
+@PostgresIntegrationTest
+class WaitlistServiceTest {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void oversizedSourceIsRejectedUpFront() {
+        assertThatThrownBy(() -> waitlistService.addToWaitlist(uniqueEmail(), "x".repeat(256)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rowTheDatabaseRejectsDoesNotBlockLaterSignups() throws Exception {
+        // Bypasses validation to reach the flusher with a row that fails on insert
+        WaitlistUser bad = new WaitlistUser(uniqueEmail(), "x".repeat(300));
+        bad.setId(UuidV7Generator.next());
+        bad.setJoinedAt(LocalDateTime.now(ZoneOffset.UTC));
+        pending().put(bad);
+        String sameBatch = uniqueEmail();
+        waitlistService.addToWaitlist(sameBatch, "test");
+
+        awaitStored(sameBatch);
+
+        String later = uniqueEmail();
+        waitlistService.addToWaitlist(later, "test");
+        awaitStored(later);
+        assertThat(count(bad.getEmail())).isZero();
+        assertThat(waitlistService.pendingCount()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private BlockingQueue<WaitlistUser> pending() {
+        return (BlockingQueue<WaitlistUser>) ReflectionTestUtils.getField(waitlistService, "pending");
+    }
+
+    private void awaitStored(String email) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (count(email) == 0) {
+            assertThat(System.currentTimeMillis()).as("%s stored in time", email).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private long count(String email) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM waitlist_users WHERE email = ?", Long.class, email);
+    }
+
+    private static String uniqueEmail() {
+        return "waitlist_" + UUID.randomUUID().toString().substring(0, 12) + "@example.invalid";
+    }
+}
@@ -0,0 +1,31 @@
+package com.echo.backend.support;
+
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The full application against {@link TestPostgres}, with MockMvc and {@link SqlCapture}. All
+ * test classes using it share one Spring context. Skipped when no Postgres is available.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestPostgres.Initializer.class)
+@Import(SqlCapture.Config.class)
+@EnabledIf(value = "com.echo.backend.support.TestPostgres#available",
+        disabledReason = "needs Docker or ECHO_TEST_DATABASE_URL")
+public @interface PostgresIntegrationTest {
+}
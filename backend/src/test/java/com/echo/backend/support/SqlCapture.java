@@ -0,0 +1,105 @@
+package com.echo.backend.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records the SQL the application executes, with bound parameters, through a datasource-proxy
+ * around the {@code dataSource} bean, so Hibernate, Spring Data and JdbcTemplate statements are
+ * all seen. Statements from every thread count, including async request processing; tests run
+ * one at a time with background jobs slowed down by the test profile.
+ */
+public final class SqlCapture {
+
+    /** One executed statement; a JDBC batch is one statement with the first row's parameters. */
+    public record Statement(String sql, List<ParameterSetOperation> parameters) {
+
+        /** Sets the recorded parameters on a statement prepared from the same SQL (or a prefix of it). */
+        public void bind(PreparedStatement statement) throws SQLException {
+            for (ParameterSetOperation parameter : parameters) {
+                try {
+                    parameter.getMethod().invoke(statement, parameter.getArgs());
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw new SQLException("Could not rebind " + parameter.getMethod().getName(), e);
+                }
+            }
+        }
+
+        public boolean isSelect() {
+            return sql.stripLeading().regionMatches(true, 0, "select", 0, 6);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private static volatile List<Statement> recording;
+
+    private SqlCapture() {}
+
+    /** Runs the action and returns the statements executed meanwhile. */
+    public static synchronized List<Statement> record(Action action) throws Exception {
+        List<Statement> statements = Collections.synchronizedList(new ArrayList<>());
+        recording = statements;
+        try {
+            action.run();
+        } finally {
+            recording = null;
+        }
+        synchronized (statements) {
+            return List.copyOf(statements);
+        }
+    }
+
+    private static final class Listener implements QueryExecutionListener {
+        @Override
+        public void beforeQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+            List<Statement> statements = recording;
+            if (statements == null) {
+                return;
+            }
+            for (QueryInfo query : queries) {
+                List<List<ParameterSetOperation>> parameters = query.getParametersList();
+                statements.add(new Statement(query.getQuery(),
+                        parameters.isEmpty() ? List.of() : List.copyOf(parameters.get(0))));
+            }
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Config {
+        @Bean
+        public static BeanPostProcessor sqlCaptureDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String name) {
+                    if ("dataSource".equals(name) && bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource).name("sql-capture")
+                                .listener(new Listener()).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
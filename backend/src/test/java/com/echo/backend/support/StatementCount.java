@@ -0,0 +1,30 @@
+package com.echo.backend.support;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement-count assertions for N+1 regressions: runs an action under {@link SqlCapture} and fails,
+ * listing the SQL, when it executed more statements than allowed. Seed more rows than the limit so
+ * a per-row query cannot stay under it.
+ */
+public final class StatementCount {
+
+    private StatementCount() {}
+
+    public static List<SqlCapture.Statement> assertAtMost(int max, SqlCapture.Action action) throws Exception {
+        List<SqlCapture.Statement> statements = SqlCapture.record(action);
+        assertThat(statements.size())
+                .as("SQL statements executed (at most %d allowed):%n%s", max, describe(statements))
+                .isLessThanOrEqualTo(max);
+        return statements;
+    }
+
+    private static String describe(List<SqlCapture.Statement> statements) {
+        return statements.stream()
+                .map(statement -> "  " + statement.sql().replaceAll("\\s+", " "))
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+}
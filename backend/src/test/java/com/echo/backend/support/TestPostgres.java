@@ -0,0 +1,62 @@
+package com.echo.backend.support;
+
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * The Postgres the integration tests run against: the server in {@code ECHO_TEST_DATABASE_URL}
+ * when set ({@code ECHO_TEST_DATABASE_USERNAME} / {@code ECHO_TEST_DATABASE_PASSWORD}, default
+ * postgres / password), otherwise a Testcontainers instance shared by every test in the JVM.
+ * Point the variable at a scratch database: Flyway migrates it and the tests write to it.
+ */
+public final class TestPostgres {
+
+    public static final String IMAGE = "postgres:15-alpine";
+
+    public record Database(String url, String username, String password) {}
+
+    private static Database database;
+
+    private TestPostgres() {}
+
+    /** Whether integration tests can run here; they are skipped otherwise. */
+    public static boolean available() {
+        return System.getenv("ECHO_TEST_DATABASE_URL") != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    public static synchronized Database database() {
+        if (database == null) {
+            String url = System.getenv("ECHO_TEST_DATABASE_URL");
+            if (url != null) {
+                database = new Database(url, env("ECHO_TEST_DATABASE_USERNAME", "postgres"),
+                        env("ECHO_TEST_DATABASE_PASSWORD", "password"));
+            } else {
+                PostgreSQLContainer<?> container = new PostgreSQLContainer<>(IMAGE);
+                container.start(); // stopped with the JVM
+                database = new Database(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+            }
+        }
+        return database;
+    }
+
+    static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null ? value : fallback;
+    }
+
+    /** Points {@code spring.datasource} at {@link #database()}. */
+    public static class Initializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(ConfigurableApplicationContext context) {
+            Database db = database();
+            TestPropertyValues.of(
+                    "spring.datasource.url=" + db.url(),
+                    "spring.datasource.username=" + db.username(),
+                    "spring.datasource.password=" + db.password()
+            ).applyTo(context);
+        }
+    }
+}
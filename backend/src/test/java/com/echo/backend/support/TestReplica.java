@@ -0,0 +1,94 @@
+package com.echo.backend.support;
+
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+
+/**
+ * A primary with a streaming read replica, for the read/write routing tests: the replica in
+ * {@code ECHO_TEST_REPLICA_URL} of the server in {@code ECHO_TEST_DATABASE_URL} when both are set
+ * ({@code ECHO_TEST_REPLICA_USERNAME} / {@code ECHO_TEST_REPLICA_PASSWORD} default to the
+ * primary's), otherwise a Testcontainers primary and a standby cloned from it with pg_basebackup.
+ * The tests pause and resume replay on the replica, so they need a superuser there.
+ */
+public final class TestReplica {
+
+    public record Pair(TestPostgres.Database primary, TestPostgres.Database replica) {}
+
+    private static final String ALLOW_REPLICATION =
+            "echo 'host replication all all trust' >> \"$PGDATA/pg_hba.conf\"\n";
+
+    private static Pair pair;
+
+    private TestReplica() {}
+
+    /** Whether the routing tests can run here; they are skipped otherwise. */
+    public static boolean available() {
+        if (System.getenv("ECHO_TEST_DATABASE_URL") != null) {
+            return System.getenv("ECHO_TEST_REPLICA_URL") != null;
+        }
+        return DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    public static synchronized Pair pair() {
+        if (pair == null) {
+            String url = System.getenv("ECHO_TEST_REPLICA_URL");
+            if (url != null) {
+                TestPostgres.Database primary = TestPostgres.database();
+                pair = new Pair(primary, new TestPostgres.Database(url,
+                        TestPostgres.env("ECHO_TEST_REPLICA_USERNAME", primary.username()),
+                        TestPostgres.env("ECHO_TEST_REPLICA_PASSWORD", primary.password())));
+            } else {
+                pair = startContainers();
+            }
+        }
+        return pair;
+    }
+
+    // Both are stopped with the JVM
+    private static Pair startContainers() {
+        Network network = Network.newNetwork();
+        PostgreSQLContainer<?> primary = new PostgreSQLContainer<>(TestPostgres.IMAGE)
+                .withNetwork(network)
+                .withNetworkAliases("primary")
+                .withCopyToContainer(Transferable.of(ALLOW_REPLICATION), "/docker-entrypoint-initdb.d/replication.sh")
+                .withCommand("postgres", "-c", "fsync=off", "-c", "wal_level=replica", "-c", "max_wal_senders=4");
+        primary.start();
+
+        GenericContainer<?> replica = new GenericContainer<>(TestPostgres.IMAGE)
+                .withNetwork(network)
+                .withExposedPorts(PostgreSQLContainer.POSTGRESQL_PORT)
+                .withCommand("sh", "-c", "until su-exec postgres pg_basebackup -h primary -U " + primary.getUsername()
+                        + " -D \"$PGDATA\" -R -X stream; do sleep 1; done"
+                        + " && chmod 700 \"$PGDATA\" && exec su-exec postgres postgres -c fsync=off")
+                .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*\\s", 1));
+        replica.start();
+
+        String replicaUrl = "jdbc:postgresql://" + replica.getHost() + ":"
+                + replica.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + primary.getDatabaseName();
+        return new Pair(new TestPostgres.Database(primary.getJdbcUrl(), primary.getUsername(), primary.getPassword()),
+                new TestPostgres.Database(replicaUrl, primary.getUsername(), primary.getPassword()));
+    }
+
+    /** Points {@code spring.datasource} at the primary and {@code datasource.replica} at the replica. */
+    public static class Initializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(ConfigurableApplicationContext context) {
+            Pair pair = pair();
+            TestPropertyValues.of(
+                    "spring.datasource.url=" + pair.primary().url(),
+                    "spring.datasource.username=" + pair.primary().username(),
+                    "spring.datasource.password=" + pair.primary().password(),
+                    "datasource.replica.urls=" + pair.replica().url(),
+                    "datasource.replica.username=" + pair.replica().username(),
+                    "datasource.replica.password=" + pair.replica().password()
+            ).applyTo(context);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.echo.backend.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TopKTest {
+
+    private record Scored(int id, double score) {}
+
+    @Test
+    void keepsTheHighestScoresBestFirst() {
+        Random random = new Random(42);
+        List<Scored> all = new ArrayList<>();
+        TopK<Scored> top = new TopK<>(25);
+        for (int i = 0; i < 10_000; i++) {
+            Scored scored = new Scored(i, random.nextDouble());
+            all.add(scored);
+            top.offer(scored, scored.score());
+        }
+
+        all.sort(Comparator.comparingDouble(Scored::score).reversed());
+        assertThat(top.size()).isEqualTo(25);
+        assertThat(top.toSortedList()).containsExactlyElementsOf(all.subList(0, 25));
+    }
+
+    @Test
+    void returnsEverythingWhenOfferedFewerThanCapacity() {
+        TopK<String> top = new TopK<>(10);
+        top.offer("low", 0.1);
+        top.offer("high", 0.9);
+        top.offer("mid", 0.5);
+
+        assertThat(top.toSortedList()).containsExactly("high", "mid", "low");
+    }
+
+    @Test
+    void rejectsScoresThatDoNotBeatTheLowestKept() {
+        TopK<String> top = new TopK<>(2);
+        top.offer("a", 0.5);
+        top.offer("b", 0.7);
+        top.offer("tie", 0.5);
+        top.offer("worse", 0.1);
+
+        assertThat(top.toSortedList()).containsExactly("b", "a");
+    }
+
+    @Test
+    void requiresAPositiveCapacity() {
+        assertThatThrownBy(() -> new TopK<>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}